@@ -0,0 +1,91 @@
+package com.hedera.hashgraph.identity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the CBOR and JSON encodings of a document, both the W3C representation parsed by resolver clients and the
+ * codecs used by caches and snapshots. Encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DidDocumentCborBenchmark {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
+
+    @Param({"2", "20"})
+    public int keyCount;
+
+    private final DidDocumentJsonCodec jsonCodec = new DidDocumentJsonCodec();
+    private final DidDocumentCborCodec cborCodec = new DidDocumentCborCodec();
+
+    private byte[] w3cJson;
+    private byte[] w3cCbor;
+    private byte[] encodedJson;
+    private byte[] encodedCbor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DidError, IOException {
+        PrivateKey key = PrivateKey.generateED25519();
+        String identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(key.getPublicKey().toBytes()));
+
+        List<HcsDidMessage> history = new ArrayList<>();
+        history.add(new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, key.getPublicKey())));
+        for (int i = 0; i < keyCount; i++) {
+            history.add(new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                    new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-" + i, VerificationRelationshipType.AUTHENTICATION,
+                            VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier,
+                            PrivateKey.generateED25519().getPublicKey())));
+        }
+        history.add(new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://example.com/vcs")));
+
+        DidDocument document = new DidDocument(identifier, history.toArray(new HcsDidMessage[0]));
+        w3cJson = document.toJsonBytes();
+        w3cCbor = document.toCbor();
+        encodedJson = jsonCodec.encode(document);
+        encodedCbor = cborCodec.encode(document);
+    }
+
+    @Benchmark
+    public JsonNode parseW3cJson() throws IOException {
+        return JSON_MAPPER.readTree(w3cJson);
+    }
+
+    @Benchmark
+    public JsonNode parseW3cCbor() throws IOException {
+        return CBOR_MAPPER.readTree(w3cCbor);
+    }
+
+    @Benchmark
+    public DidDocument decodeJsonCodec() throws IOException {
+        return jsonCodec.decode(encodedJson);
+    }
+
+    @Benchmark
+    public DidDocument decodeCborCodec() throws IOException {
+        return cborCodec.decode(encodedCbor);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hedera.hashgraph.identity;
+
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidRevokeVerificationMethodEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidRevokeVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the history of a DID with a large number of keys, half of which are later revoked again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DidDocumentReplayBenchmark {
+
+    private static final VerificationRelationshipType[] TYPES = {
+            VerificationRelationshipType.AUTHENTICATION,
+            VerificationRelationshipType.ASSERTION_METHOD,
+            VerificationRelationshipType.KEY_AGREEMENT,
+    };
+
+    @Param({"100000"})
+    public int keyCount;
+
+    private String identifier;
+    private HcsDidMessage[] messages;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DidError {
+        PrivateKey key = PrivateKey.generateED25519();
+        identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(key.getPublicKey().toBytes()));
+
+        List<HcsDidMessage> history = new ArrayList<>();
+        history.add(new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, key.getPublicKey())));
+
+        for (int i = 0; i < keyCount; i++) {
+            history.add(new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                    new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-" + i, TYPES[i % TYPES.length],
+                            VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key.getPublicKey())));
+        }
+
+        // Revoke a quarter of the keys through their relationship and another quarter as verification methods.
+        for (int i = 0; i < keyCount / 2; i++) {
+            String id = identifier + "#key-" + i;
+            if (i % 2 == 0) {
+                history.add(new HcsDidMessage(DidMethodOperation.REVOKE, identifier,
+                        new HcsDidRevokeVerificationRelationshipEvent(id, TYPES[i % TYPES.length])));
+            } else {
+                history.add(new HcsDidMessage(DidMethodOperation.REVOKE, identifier,
+                        new HcsDidRevokeVerificationMethodEvent(id)));
+            }
+        }
+
+        messages = history.toArray(new HcsDidMessage[0]);
+    }
+
+    @Benchmark
+    public DidDocument replay() {
+        return new DidDocument(identifier, messages);
+    }
+}
@@ -0,0 +1,62 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.openjdk.jmh.annotations.*;
+import org.threeten.bp.Instant;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a signed DID owner message from topic message contents with the streaming decoder, and with the earlier
+ * pipeline of strings, JSON trees and reflective fromJsonTree calls reproduced step by step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HcsDidMessageDecodeBenchmark {
+
+    private SerializableMirrorConsensusResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        String identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(key.getPublicKey().toBytes()));
+        HcsDidMessage message = new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, key.getPublicKey()));
+        byte[] contents = new MessageEnvelope<>(message).sign(key);
+        response = new SerializableMirrorConsensusResponse(Instant.EPOCH, contents, new byte[48], 1);
+    }
+
+    @Benchmark
+    public MessageEnvelope<HcsDidMessage> streaming() throws Exception {
+        return MessageEnvelope.fromMirrorResponse(response, HcsDidMessage.class);
+    }
+
+    @Benchmark
+    public HcsDidMessage trees() throws Exception {
+        JsonNode envelope = new ObjectMapper().readTree(new String(response.message, StandardCharsets.UTF_8));
+        JsonNode messageTree = envelope.get("message");
+        envelope.get("signature").textValue();
+
+        JsonNode eventTree = new ObjectMapper().readTree(Hashing.Base64.decode(messageTree.get("event").textValue()));
+        Method eventFromJsonTree = HcsDidCreateDidOwnerEvent.class.getMethod("fromJsonTree", JsonNode.class);
+        HcsDidEvent event = (HcsDidEvent) eventFromJsonTree.invoke(null, eventTree.get(eventTree.fields().next().getKey()));
+
+        // HcsDidMessage.fromJsonTree now decodes the event by streaming, so the message is assembled directly.
+        return new HcsDidMessage(Instant.parse(messageTree.get("timestamp").textValue()),
+                DidMethodOperation.get(messageTree.get("operation").textValue()), messageTree.get("did").textValue(), event);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentRejectionListener;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.openjdk.jmh.annotations.*;
+import org.threeten.bp.Instant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a signed DID topic with signature verification, one envelope after the other on the calling thread and in
+ * parallel batches on pools of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HcsDidSignatureVerifierBenchmark {
+
+    @Param({"1024"})
+    public int messageCount;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private String identifier;
+    private List<MessageEnvelope<HcsDidMessage>> envelopes;
+    private ForkJoinPool pool;
+    private HcsDidSignatureVerifier verifier;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(key.getPublicKey().toBytes()));
+        Instant start = Instant.parse("2022-04-01T10:00:00Z");
+
+        envelopes = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            HcsDidMessage message = i == 0
+                    ? new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                    new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, key.getPublicKey()))
+                    : new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                    new HcsDidCreateServiceEvent(identifier + "#service-" + i, ServiceType.LINKED_DOMAINS, "https://example.com/" + i));
+            byte[] contents = new MessageEnvelope<>(message).sign(key);
+            envelopes.add(MessageEnvelope.fromMirrorResponse(
+                    new SerializableMirrorConsensusResponse(start.plusSeconds(i), contents, new byte[48], i + 1), HcsDidMessage.class));
+        }
+
+        pool = new ForkJoinPool(threads);
+        verifier = new HcsDidSignatureVerifier(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public DidDocument sequential() throws Exception {
+        DidDocument document = new DidDocument(identifier, new HcsDidMessage[0]);
+        for (MessageEnvelope<HcsDidMessage> envelope : envelopes) {
+            if (document.getController() == null
+                    ? envelope.isSignatureValid(e -> ((HcsDidCreateDidOwnerEvent) e.open().getEvent()).getPublicKey())
+                    : envelope.isSignatureValid(e -> document.getController().toPublicKey())) {
+                document.apply(envelope.open());
+            }
+        }
+        return document;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public DidDocument batched() {
+        return verifier.apply(new DidDocument(identifier, new HcsDidMessage[0]), envelopes, DidDocumentRejectionListener.NONE);
+    }
+}
@@ -0,0 +1,56 @@
+package com.hedera.hashgraph.identity.hcs.did.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes the base64 event field of a DID message through intermediate JSON strings and through bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HcsDidEventBase64Benchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private HcsDidEvent event;
+    private String eventBase64;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        PublicKey publicKey = PrivateKey.generateED25519().getPublicKey();
+        String identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(publicKey.toBytes()));
+        event = new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, publicKey);
+        eventBase64 = event.getBase64();
+    }
+
+    @Benchmark
+    public String encodeViaString() {
+        return Hashing.Base64.encode(event.toJsonTree().toString());
+    }
+
+    @Benchmark
+    public String encode() {
+        return event.getBase64();
+    }
+
+    @Benchmark
+    public JsonNode decodeViaString() throws Exception {
+        return mapper.readTree(Hashing.Base64.decode(eventBase64));
+    }
+
+    @Benchmark
+    public JsonNode decode() throws Exception {
+        return mapper.readTree(Base64.getDecoder().decode(eventBase64));
+    }
+}
@@ -0,0 +1,110 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentJsonCodec;
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidCreateVerificationMethodEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.VerificationMethodSupportedKeyType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares {@link DidDocumentStore} backends on the same set of documents, to pick a backend per deployment size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DidDocumentStoreBenchmark {
+
+    @Param({"heap", "mapped", "mvstore"})
+    public String backend;
+
+    @Param({"10000"})
+    public int documentCount;
+
+    private Path directory;
+    private DidDocumentStore store;
+    private DidDocument[] documents;
+
+    static DidDocument document(String identifier, PrivateKey key) throws DidError {
+        HcsDidMessage[] messages = {
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, key.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationMethodEvent(identifier + "#key-1",
+                                VerificationMethodSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://example.com/")),
+        };
+        return new DidDocument(identifier, messages);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, DidError {
+        directory = Files.createTempDirectory("did-store-benchmark");
+
+        switch (backend) {
+            case "heap":
+                store = new HeapDidDocumentStore();
+                break;
+            case "mapped":
+                store = new MappedFileDidDocumentStore(directory.resolve("documents.dat"));
+                break;
+            case "mvstore":
+                store = new MvStoreDidDocumentStore(directory.resolve("documents.mv.db"), new DidDocumentJsonCodec());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+
+        PrivateKey key = PrivateKey.generateED25519();
+        documents = new DidDocument[documentCount];
+        for (int i = 0; i < documentCount; i++) {
+            String identifier = String.format("did:hedera:testnet:%s%d_0.0.%d", Hashing.Multibase.encode(key.getPublicKey().toBytes()), i, i % 100);
+            documents[i] = document(identifier, key);
+            store.put(documents[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public DidDocument get() throws IOException {
+        return store.get(documents[ThreadLocalRandom.current().nextInt(documentCount)].getId());
+    }
+
+    @Benchmark
+    public void put() throws IOException {
+        store.put(documents[ThreadLocalRandom.current().nextInt(documentCount)]);
+    }
+
+    @Benchmark
+    public void scanTopic(Blackhole blackhole) throws IOException {
+        store.scan(TopicId.fromString("0.0." + ThreadLocalRandom.current().nextInt(100)), blackhole::consume);
+    }
+}
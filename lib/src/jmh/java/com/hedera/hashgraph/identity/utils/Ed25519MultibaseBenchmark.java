@@ -0,0 +1,68 @@
+package com.hedera.hashgraph.identity.utils;
+
+import com.google.common.primitives.Bytes;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import io.ipfs.multibase.Multibase;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes an ed25519 publicKeyMultibase with the generic multibase library and with
+ * {@link Ed25519Multibase}, the latter both into new and into reused buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class Ed25519MultibaseBenchmark {
+
+    private static final byte[] ED25519_PREFIX = {(byte) 0xed, 0x01};
+
+    private byte[] publicKey;
+    private String encoded;
+    private final byte[] encodeBuffer = new byte[Ed25519Multibase.ENCODED_LENGTH];
+    private final byte[] decodeBuffer = new byte[Ed25519Multibase.PUBLIC_KEY_LENGTH];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        publicKey = PrivateKey.generateED25519().getPublicKey().toBytes();
+        encoded = Ed25519Multibase.encode(publicKey);
+    }
+
+    @Benchmark
+    public String encodeGeneric() {
+        return Multibase.encode(Multibase.Base.Base58BTC, Bytes.concat(ED25519_PREFIX, publicKey));
+    }
+
+    @Benchmark
+    public String encode() {
+        return Ed25519Multibase.encode(publicKey);
+    }
+
+    @Benchmark
+    public byte[] encodeIntoBuffer() {
+        Ed25519Multibase.encode(publicKey, 0, encodeBuffer, 0);
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public byte[] decodeGeneric() {
+        byte[] result = Multibase.decode(encoded);
+        return Arrays.copyOfRange(result, ED25519_PREFIX.length, result.length);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return Ed25519Multibase.decode(encoded);
+    }
+
+    @Benchmark
+    public byte[] decodeIntoBuffer() {
+        Ed25519Multibase.decode(encoded, decodeBuffer, 0);
+        return decodeBuffer;
+    }
+}
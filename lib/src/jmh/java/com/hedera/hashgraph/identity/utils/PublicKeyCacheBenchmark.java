@@ -0,0 +1,50 @@
+package com.hedera.hashgraph.identity.utils;
+
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes and encodes a multibase public key directly and through the {@link PublicKeyCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PublicKeyCacheBenchmark {
+
+    private PublicKey publicKey;
+    private String multibase;
+    private PublicKeyCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        publicKey = PrivateKey.generateED25519().getPublicKey();
+        multibase = Hashing.Multibase.encode(publicKey.toBytes());
+        cache = new PublicKeyCache(PublicKeyCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    @Benchmark
+    public PublicKey decode() {
+        return PublicKey.fromBytes(Hashing.Multibase.decode(multibase));
+    }
+
+    @Benchmark
+    public PublicKey decodeCached() {
+        return cache.decode(multibase);
+    }
+
+    @Benchmark
+    public String encode() {
+        return Hashing.Multibase.encode(publicKey.toBytes());
+    }
+
+    @Benchmark
+    public String encodeCached() {
+        return cache.encode(publicKey);
+    }
+}
@@ -1,10 +1,14 @@
 package com.hedera.hashgraph.identity;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
 import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEventTargetName;
@@ -18,39 +22,112 @@ import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsD
 import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidRevokeVerificationRelationshipEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidUpdateVerificationRelationshipEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.identity.utils.PersistentLinkedHashMap;
 import org.threeten.bp.Instant;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static com.hedera.hashgraph.identity.DidMethodOperation.CREATE;
 import static com.hedera.hashgraph.identity.hcs.did.event.HcsDidEventTargetName.DID_OWNER;
 
 
+/**
+ * DID document built by replaying DID messages.
+ * <p>
+ * Services, verification methods and relationships are held in persistent maps, so {@link #with(HcsDidMessage)} can
+ * derive a new immutable version that shares all unchanged structures with the previous one. Entries are compact
+ * value objects holding raw key bytes, the W3C JSON is generated only when the document is serialized.
+ */
 public class DidDocument {
+    /**
+     * Media type of the CBOR representation written by {@link #toCbor()}.
+     */
+    public static final String CBOR_MEDIA_TYPE = "application/did+cbor";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+    // Relationship properties in the order they are serialized.
+    private static final String[] RELATIONSHIP_PROPERTIES = {
+            DidDocumentJsonProperties.ASSERTION_METHOD,
+            DidDocumentJsonProperties.AUTHENTICATION,
+            DidDocumentJsonProperties.KEY_AGREEMENT,
+            DidDocumentJsonProperties.CAPABILITY_INVOCATION,
+            DidDocumentJsonProperties.CAPABILITY_DELEGATION,
+    };
+    // Relationship types in state order, the index of a type is its bit in relationshipTypesByKey.
+    private static final String[] RELATIONSHIP_TYPES = {
+            VerificationRelationshipType.AUTHENTICATION.toString(),
+            VerificationRelationshipType.ASSERTION_METHOD.toString(),
+            VerificationRelationshipType.KEY_AGREEMENT.toString(),
+            VerificationRelationshipType.CAPABILITY_INVOCATION.toString(),
+            VerificationRelationshipType.CAPABILITY_DELEGATION.toString(),
+    };
+    private static final Map<String, PersistentLinkedHashMap<String, Boolean>> NO_RELATIONSHIPS;
+
+    static {
+        Map<String, PersistentLinkedHashMap<String, Boolean>> relationships = new LinkedHashMap<>();
+        for (String type : RELATIONSHIP_TYPES) {
+            relationships.put(type, PersistentLinkedHashMap.empty());
+        }
+        NO_RELATIONSHIPS = Collections.unmodifiableMap(relationships);
+    }
+
     private final String id;
     private final String context;
-    private final Map<String, JsonNode> services = new LinkedHashMap<>();
-    private final Map<String, JsonNode> verificationMethods = new LinkedHashMap<>();
-    private final Map<String, List<String>> verificationRelationships = new LinkedHashMap<>() {{
-        put(VerificationRelationshipType.AUTHENTICATION.toString(), new ArrayList<>());
-        put(VerificationRelationshipType.ASSERTION_METHOD.toString(), new ArrayList<>());
-        put(VerificationRelationshipType.KEY_AGREEMENT.toString(), new ArrayList<>());
-        put(VerificationRelationshipType.CAPABILITY_INVOCATION.toString(), new ArrayList<>());
-        put(VerificationRelationshipType.CAPABILITY_DELEGATION.toString(), new ArrayList<>());
-
-    }};
+    // Entries are keyed by local IDs, see localId(String).
+    private PersistentLinkedHashMap<String, DidDocumentService> services = PersistentLinkedHashMap.empty();
+    private PersistentLinkedHashMap<String, DidDocumentVerificationMethod> verificationMethods = PersistentLinkedHashMap.empty();
+    // Relationship type -> key IDs. The outer map is small and copied on write, the ID sets are persistent.
+    private Map<String, PersistentLinkedHashMap<String, Boolean>> verificationRelationships = NO_RELATIONSHIPS;
+    // Reverse index of verificationRelationships: key ID -> bit set of RELATIONSHIP_TYPES it is referenced by.
+    private PersistentLinkedHashMap<String, Integer> relationshipTypesByKey = PersistentLinkedHashMap.empty();
     private Instant created = null;
     private Instant updated = null;
     private String versionId = null;
     private boolean deactivated = false;
-    private JsonNode controller;
+    private DidDocumentVerificationMethod controller;
+    private boolean frozen = false;
+    // Memoized W3C JSON and its ETag, reset whenever the state changes.
+    private volatile Serialized serialized;
 
     public DidDocument(String did, HcsDidMessage[] messages) {
+        this(did, messages, DidDocumentRejectionListener.NONE);
+    }
+
+    /**
+     * Builds the document by replaying the messages.
+     *
+     * @param did      The DID string.
+     * @param messages The messages in consensus order.
+     * @param listener Receiver of messages that were ignored.
+     */
+    public DidDocument(String did, HcsDidMessage[] messages, DidDocumentRejectionListener listener) {
         this.id = did;
         this.context = DidSyntax.DID_DOCUMENT_CONTEXT;
 
-        this.processMessages(messages);
+        this.apply(messages, listener);
+    }
+
+    private DidDocument(DidDocument previous) {
+        this.id = previous.id;
+        this.context = previous.context;
+        this.services = previous.services;
+        this.verificationMethods = previous.verificationMethods;
+        this.verificationRelationships = previous.verificationRelationships;
+        this.relationshipTypesByKey = previous.relationshipTypesByKey;
+        this.created = previous.created;
+        this.updated = previous.updated;
+        this.versionId = previous.versionId;
+        this.deactivated = previous.deactivated;
+        this.controller = previous.controller;
+        this.serialized = previous.serialized;
     }
     
     public boolean getDeactivated() {
@@ -70,7 +147,7 @@ public class DidDocument {
     }
 
     public boolean hasOwner() {
-        return !(this.controller == null || this.controller.isEmpty());
+        return this.controller != null;
     }
 
     public String getContext() {
@@ -83,63 +160,418 @@ public class DidDocument {
 
 
     public JsonNode toJsonTree() throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        ObjectNode rootObject = (ObjectNode) objectMapper.readTree("{}");
+        ObjectNode rootObject = OBJECT_MAPPER.createObjectNode();
+        boolean hasOwner = this.hasOwner();
 
         rootObject.put(DidDocumentJsonProperties.CONTEXT, this.context);
         rootObject.put(DidDocumentJsonProperties.ID, this.id);
 
-        if (this.controller != null && !Objects.equals(this.id, this.controller.get("controller").textValue())) {
-            rootObject.set(DidDocumentJsonProperties.CONTROLLER, this.controller.get("controller"));
+        if (this.hasExternalController()) {
+            rootObject.put(DidDocumentJsonProperties.CONTROLLER, this.controller.getController());
         }
 
-        rootObject.putArray(DidDocumentJsonProperties.VERIFICATION_METHOD).addAll(this.verificationMethods.values());
+        ArrayNode verificationMethodArray = rootObject.putArray(DidDocumentJsonProperties.VERIFICATION_METHOD);
+        if (hasOwner) {
+            verificationMethodArray.add(this.controller.toJsonTree());
+        }
+        this.verificationMethods.forEach((id, verificationMethod) -> verificationMethodArray.add(verificationMethod.toJsonTree()));
 
-        ArrayNode assertionMethodArray = rootObject.putArray(DidDocumentJsonProperties.ASSERTION_METHOD);
-        if (!this.verificationRelationships.get(DidDocumentJsonProperties.ASSERTION_METHOD).isEmpty())
-            this.verificationRelationships.get(DidDocumentJsonProperties.ASSERTION_METHOD).forEach(assertionMethodArray::add);
+        for (String relationship : RELATIONSHIP_PROPERTIES) {
+            boolean ownerRelationship = isOwnerRelationship(relationship);
+            PersistentLinkedHashMap<String, Boolean> ids = this.verificationRelationships.get(relationship);
+            if (!ownerRelationship && ids.isEmpty()) {
+                continue;
+            }
 
+            ArrayNode relationshipArray = rootObject.putArray(relationship);
+            if (ownerRelationship && hasOwner) {
+                relationshipArray.add(this.controller.getId());
+            }
+            ids.forEach((id, value) -> relationshipArray.add(this.globalId(id)));
+        }
 
-        ArrayNode authenticationArray = rootObject.putArray(DidDocumentJsonProperties.AUTHENTICATION);
-        if (!this.verificationRelationships.get(DidDocumentJsonProperties.AUTHENTICATION).isEmpty())
-            this.verificationRelationships.get(DidDocumentJsonProperties.AUTHENTICATION).forEach(authenticationArray::add);
+        if (!this.services.isEmpty()) {
+            ArrayNode serviceArray = rootObject.putArray(DidDocumentJsonProperties.SERVICE);
+            this.services.forEach((id, service) -> serviceArray.add(service.toJsonTree()));
+        }
 
+        return rootObject;
+    }
 
-        if (this.controller != null && !this.controller.isEmpty()) {
+    public String toJSON() throws JsonProcessingException {
+        try {
+            return new String(this.serialized().json, StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.fromUnexpectedIOE(e);
+        }
+    }
 
-            ((ArrayNode) rootObject.get(DidDocumentJsonProperties.VERIFICATION_METHOD)).insert(0, this.controller);
-            ((ArrayNode) rootObject.get(DidDocumentJsonProperties.ASSERTION_METHOD)).insert(0, this.controller.get("id"));
-            ((ArrayNode) rootObject.get(DidDocumentJsonProperties.AUTHENTICATION)).insert(0, this.controller.get("id"));
+    /**
+     * Returns the W3C representation of the document as UTF-8 JSON.
+     * The bytes are serialized once per document version and copied on every call.
+     *
+     * @return The JSON bytes, equal to the UTF-8 encoding of {@link #toJSON()}.
+     * @throws IOException if the document could not be serialized.
+     */
+    public byte[] toJsonBytes() throws IOException {
+        return this.serialized().json.clone();
+    }
 
-        }
+    /**
+     * Strong HTTP entity tag of the W3C JSON representation, for conditional requests.
+     * Equal documents have equal tags, and the tag changes with every applied event that changes the document.
+     *
+     * @return The quoted, base64url encoded SHA-256 hash of {@link #toJsonBytes()}.
+     * @throws IOException if the document could not be serialized.
+     */
+    public String getETag() throws IOException {
+        return this.serialized().etag;
+    }
+
+    /**
+     * Writes the W3C representation of the document as UTF-8 JSON.
+     * The stream is not closed.
+     *
+     * @param out The target stream.
+     * @throws IOException if writing to the stream failed.
+     */
+    public void writeJson(OutputStream out) throws IOException {
+        out.write(this.serialized().json);
+    }
 
-        if (!this.verificationRelationships.get(DidDocumentJsonProperties.KEY_AGREEMENT).isEmpty()) {
-            ArrayNode keyAgreementArray = rootObject.putArray(DidDocumentJsonProperties.KEY_AGREEMENT);
-            this.verificationRelationships.get(DidDocumentJsonProperties.KEY_AGREEMENT).forEach(keyAgreementArray::add);
+    /**
+     * Writes the W3C representation of the document as UTF-8 JSON into the buffer, starting at its position.
+     *
+     * @param buffer The target buffer, its position is advanced past the written document.
+     * @throws IOException                        if the document could not be serialized.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough remaining space.
+     */
+    public void writeJson(ByteBuffer buffer) throws IOException {
+        buffer.put(this.serialized().json);
+    }
+
+    /**
+     * Returns the W3C representation of the document as CBOR ({@value #CBOR_MEDIA_TYPE}).
+     * It holds the same properties as {@link #toJSON()}, but is smaller and faster to parse for machine clients.
+     *
+     * @return The CBOR bytes.
+     * @throws IOException if the document could not be serialized.
+     */
+    public byte[] toCbor() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        this.writeCbor(out);
+        return out.toByteArray();
+    }
 
+    /**
+     * Writes the W3C representation of the document as CBOR ({@value #CBOR_MEDIA_TYPE}).
+     * The stream is not closed.
+     *
+     * @param out The target stream.
+     * @throws IOException if writing to the stream failed.
+     */
+    public void writeCbor(OutputStream out) throws IOException {
+        try (JsonGenerator generator = CBOR_FACTORY.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.writeJson(generator);
         }
+    }
 
-        if (!this.verificationRelationships.get(DidDocumentJsonProperties.CAPABILITY_INVOCATION).isEmpty()) {
-            ArrayNode capabilityInvocationArray = rootObject.putArray(DidDocumentJsonProperties.CAPABILITY_INVOCATION);
-            this.verificationRelationships.get(DidDocumentJsonProperties.CAPABILITY_INVOCATION).forEach(capabilityInvocationArray::add);
+    /**
+     * Writes the W3C representation of the document as a JSON object to the generator.
+     *
+     * @param generator The target generator.
+     * @throws IOException if writing failed.
+     */
+    public void writeJson(JsonGenerator generator) throws IOException {
+        boolean hasOwner = this.hasOwner();
+
+        generator.writeStartObject();
+        generator.writeStringField(DidDocumentJsonProperties.CONTEXT, this.context);
+        generator.writeStringField(DidDocumentJsonProperties.ID, this.id);
+
+        if (this.hasExternalController()) {
+            generator.writeStringField(DidDocumentJsonProperties.CONTROLLER, this.controller.getController());
         }
 
-        if (!this.verificationRelationships.get(DidDocumentJsonProperties.CAPABILITY_DELEGATION).isEmpty()) {
-            ArrayNode capabilityDelegationArray = rootObject.putArray(DidDocumentJsonProperties.CAPABILITY_DELEGATION);
-            this.verificationRelationships.get(DidDocumentJsonProperties.CAPABILITY_DELEGATION).forEach(capabilityDelegationArray::add);
+        generator.writeArrayFieldStart(DidDocumentJsonProperties.VERIFICATION_METHOD);
+        if (hasOwner) {
+            this.controller.writeJson(generator);
+        }
+        for (DidDocumentVerificationMethod verificationMethod : this.verificationMethods.values()) {
+            verificationMethod.writeJson(generator);
+        }
+        generator.writeEndArray();
 
+        for (String relationship : RELATIONSHIP_PROPERTIES) {
+            boolean ownerRelationship = isOwnerRelationship(relationship);
+            PersistentLinkedHashMap<String, Boolean> ids = this.verificationRelationships.get(relationship);
+            if (!ownerRelationship && ids.isEmpty()) {
+                continue;
+            }
+
+            generator.writeArrayFieldStart(relationship);
+            if (ownerRelationship && hasOwner) {
+                generator.writeString(this.controller.getId());
+            }
+            for (String id : ids.keys()) {
+                generator.writeString(this.globalId(id));
+            }
+            generator.writeEndArray();
         }
 
         if (!this.services.isEmpty()) {
-            rootObject.putArray(DidDocumentJsonProperties.SERVICE).addAll(this.services.values());
+            generator.writeArrayFieldStart(DidDocumentJsonProperties.SERVICE);
+            for (DidDocumentService service : this.services.values()) {
+                service.writeJson(generator);
+            }
+            generator.writeEndArray();
         }
 
-        return rootObject;
+        generator.writeEndObject();
     }
 
-    public String toJSON() throws JsonProcessingException {
-        return this.toJsonTree().toString();
+    private Serialized serialized() throws IOException {
+        Serialized result = this.serialized;
+        if (result == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+            try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                this.writeJson(generator);
+            }
+            result = new Serialized(out.toByteArray());
+            this.serialized = result;
+        }
+        return result;
+    }
+
+    private boolean hasExternalController() {
+        return this.controller != null && !this.id.equals(this.controller.getController());
+    }
+
+    /**
+     * The owner key is always listed in assertionMethod and authentication, which are therefore always present.
+     */
+    private static boolean isOwnerRelationship(String relationship) {
+        return DidDocumentJsonProperties.ASSERTION_METHOD.equals(relationship)
+                || DidDocumentJsonProperties.AUTHENTICATION.equals(relationship);
+    }
+
+    /**
+     * @return The DID owner key, or null if the document has no owner.
+     */
+    public DidDocumentVerificationMethod getController() {
+        return this.controller;
+    }
+
+    /**
+     * @return Services in creation order.
+     */
+    public List<DidDocumentService> getServices() {
+        return this.services.values();
+    }
+
+    /**
+     * @return Verification methods other than the owner key, in creation order.
+     */
+    public List<DidDocumentVerificationMethod> getVerificationMethods() {
+        return this.verificationMethods.values();
+    }
+
+    /**
+     * Dereferences a DID URL to the verification method or service it identifies, without serializing the document.
+     * Entries are looked up by their fragment in the same hash indexes that hold the document state.
+     *
+     * @param didUrl Absolute DID URL like {did}#key-1, or a relative reference like #key-1.
+     * @return The owner key, verification method or service, or null if the document has no such entry.
+     */
+    public DidDocumentEntry dereference(String didUrl) {
+        DidDocumentVerificationMethod verificationMethod = this.getVerificationMethod(didUrl);
+        return verificationMethod != null ? verificationMethod : this.getService(didUrl);
+    }
+
+    /**
+     * @param didUrl Absolute or relative DID URL of the key.
+     * @return The owner key or verification method, or null if the document has no such key.
+     */
+    public DidDocumentVerificationMethod getVerificationMethod(String didUrl) {
+        String key = this.localId(didUrl);
+        if (this.controller != null && key.equals(this.controller.getLocalId())) {
+            return this.controller;
+        }
+        return this.verificationMethods.get(key);
+    }
+
+    /**
+     * @param didUrl Absolute or relative DID URL of the service.
+     * @return The service, or null if the document has no such service.
+     */
+    public DidDocumentService getService(String didUrl) {
+        return this.services.get(this.localId(didUrl));
+    }
+
+    /**
+     * Checks whether a key is listed in a verification relationship, the same as it would appear in the relationship's
+     * array of {@link #toJSON()}. The owner key is part of authentication and assertionMethod.
+     *
+     * @param relationshipType The verification relationship.
+     * @param didUrl           Absolute or relative DID URL of the key.
+     * @return True if the relationship references the key.
+     */
+    public boolean hasVerificationRelationship(VerificationRelationshipType relationshipType, String didUrl) {
+        String type = relationshipType.toString();
+        String key = this.localId(didUrl);
+        if (this.controller != null && isOwnerRelationship(type) && key.equals(this.controller.getLocalId())) {
+            return true;
+        }
+        Integer types = this.relationshipTypesByKey.get(key);
+        return types != null && (types & relationshipBit(type)) != 0;
+    }
+
+    /* Internal state accessors used by document codecs, the mutators only accept documents that are not frozen yet */
+
+    Map<String, List<String>> getVerificationRelationships() {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        this.verificationRelationships.forEach((type, ids) -> {
+            List<String> globalIds = new ArrayList<>(ids.size());
+            ids.forEach((id, value) -> globalIds.add(this.globalId(id)));
+            result.put(type, globalIds);
+        });
+        return result;
+    }
+
+    void putService(String id, DidDocumentService service) {
+        this.requireMutable();
+        this.serialized = null;
+        DidDocumentService compacted = service.compact(this.id);
+        this.services = this.services.plus(sharedKey(this.localId(id), compacted.getLocalId()), compacted);
+    }
+
+    void putVerificationMethod(String id, DidDocumentVerificationMethod verificationMethod) {
+        this.requireMutable();
+        this.serialized = null;
+        DidDocumentVerificationMethod compacted = verificationMethod.compact(this.id);
+        this.verificationMethods = this.verificationMethods.plus(sharedKey(this.localId(id), compacted.getLocalId()), compacted);
+    }
+
+    boolean addVerificationRelationship(String type, String id) {
+        this.requireMutable();
+        PersistentLinkedHashMap<String, Boolean> ids = this.verificationRelationships.get(type);
+        String key = this.localId(id);
+        if (ids == null || ids.containsKey(key)) {
+            return false;
+        }
+        // Share the key string with the verification method entry.
+        DidDocumentVerificationMethod verificationMethod = this.verificationMethods.get(key);
+        if (verificationMethod != null) {
+            key = sharedKey(key, verificationMethod.getLocalId());
+        }
+        this.serialized = null;
+        this.setRelationshipIds(type, ids.plus(key, Boolean.TRUE));
+
+        Integer types = this.relationshipTypesByKey.get(key);
+        this.relationshipTypesByKey = this.relationshipTypesByKey.plus(key, (types == null ? 0 : types) | relationshipBit(type));
+        return true;
+    }
+
+    /**
+     * Removes the key from the relationship.
+     *
+     * @param key The local key ID.
+     * @return True if the key is not referenced by any relationship anymore.
+     */
+    private boolean removeVerificationRelationship(String type, String key) {
+        this.setRelationshipIds(type, this.verificationRelationships.get(type).minus(key));
+
+        int types = this.relationshipTypesByKey.get(key) & ~relationshipBit(type);
+        if (types == 0) {
+            this.relationshipTypesByKey = this.relationshipTypesByKey.minus(key);
+            return true;
+        }
+        this.relationshipTypesByKey = this.relationshipTypesByKey.plus(key, types);
+        return false;
+    }
+
+    /**
+     * @return The entry's own ID string if it is equal to the key, so that the key is not held twice.
+     */
+    private static String sharedKey(String key, String entryLocalId) {
+        return key.equals(entryLocalId) ? entryLocalId : key;
+    }
+
+    private static int relationshipBit(String type) {
+        for (int i = 0; i < RELATIONSHIP_TYPES.length; i++) {
+            if (RELATIONSHIP_TYPES[i].equals(type)) {
+                return 1 << i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown verification relationship type: " + type);
+    }
+
+    /**
+     * @return True if the ID is a fragment of the DID, like {did}#key-1.
+     */
+    static boolean isRelativeId(String did, String id) {
+        return id.length() > did.length() && id.charAt(did.length()) == '#' && id.startsWith(did);
+    }
+
+    /**
+     * IDs in this document's DID are stored as their fragment (#key-1), so they don't repeat the DID string.
+     * Other IDs are stored as they are; they never start with '#'.
+     */
+    private String localId(String id) {
+        return isRelativeId(this.id, id) ? id.substring(this.id.length()) : id;
+    }
+
+    private String globalId(String localId) {
+        return localId.charAt(0) == '#' ? this.id + localId : localId;
+    }
+
+    private void setRelationshipIds(String type, PersistentLinkedHashMap<String, Boolean> ids) {
+        Map<String, PersistentLinkedHashMap<String, Boolean>> relationships = new LinkedHashMap<>(this.verificationRelationships);
+        relationships.put(type, ids);
+        this.verificationRelationships = Collections.unmodifiableMap(relationships);
+    }
+
+    void restore(DidDocumentVerificationMethod controller, Instant created, Instant updated, String versionId, boolean deactivated) {
+        this.requireMutable();
+        this.serialized = null;
+        this.controller = controller == null ? null : controller.compact(this.id);
+        this.created = created;
+        this.updated = updated;
+        this.versionId = versionId;
+        this.deactivated = deactivated;
+    }
+
+    private void requireMutable() {
+        if (this.frozen) {
+            throw new IllegalStateException("DID document version is immutable, use with() to derive a new version.");
+        }
+    }
+
+    private static DidDocumentVerificationMethod ownerOf(HcsDidCreateDidOwnerEvent event) {
+        return new DidDocumentVerificationMethod(
+                event.getId(), event.getType(), event.getController(), event.getPublicKey().toBytes(), null);
+    }
+
+    private static DidDocumentVerificationMethod verificationMethodOf(HcsDidCreateVerificationMethodEvent event) {
+        return new DidDocumentVerificationMethod(
+                event.getId(), event.getType().toString(), event.getController(), event.getPublicKey().toBytes(), null);
+    }
+
+    private static DidDocumentVerificationMethod verificationMethodOf(HcsDidCreateVerificationRelationshipEvent event) {
+        return new DidDocumentVerificationMethod(
+                event.getId(),
+                event.getType().toString(),
+                event.getController(),
+                event.getPublicKey().toBytes(),
+                event.getRelationshipType().toString()
+        );
+    }
+
+    private static DidDocumentService serviceOf(HcsDidCreateServiceEvent event) {
+        return new DidDocumentService(event.getId(), event.getType().toString(), event.getServiceEndpoint());
     }
 
     private void setDocumentActivated(HcsDidMessage message) {
@@ -167,212 +599,399 @@ public class DidDocument {
     }
 
 
-    private void processMessages(HcsDidMessage[] messages) {
+    /**
+     * Applies a single DID message on top of the current document state.
+     * Messages are expected in consensus order and are not checked to target this document's DID, the same way as
+     * messages passed to the constructor. Documents are not thread-safe, concurrent readers must be synchronized or
+     * use immutable versions created by {@link #with(HcsDidMessage)} instead.
+     *
+     * @param message The message to apply.
+     * @return True if the message changed the document, false if it was ignored.
+     * @throws IllegalStateException if this document is an immutable version.
+     */
+    public boolean apply(HcsDidMessage message) {
+        return this.apply(message, DidDocumentRejectionListener.NONE);
+    }
 
-        for (HcsDidMessage msg : messages) {
-            if (
-                    this.controller == null &&
-                            msg.getOperation() == CREATE &&
-                            msg.getEvent().getTargetName() != DID_OWNER
-            ) {
-                System.out.println("DID document owner is not registered. Event will be ignored...");
-                continue;
+    /**
+     * Applies a single DID message on top of the current document state, see {@link #apply(HcsDidMessage)}.
+     *
+     * @param message  The message to apply.
+     * @param listener Notified if the message is ignored.
+     * @return True if the message changed the document, false if it was ignored.
+     * @throws IllegalStateException if this document is an immutable version.
+     */
+    public boolean apply(HcsDidMessage message, DidDocumentRejectionListener listener) {
+        this.requireMutable();
+
+        boolean changed = this.process(message, listener);
+        if (changed) {
+            this.serialized = null;
+        }
+        return changed;
+    }
+
+    private boolean process(HcsDidMessage message, DidDocumentRejectionListener listener) {
+        if (
+                this.controller == null &&
+                        message.getOperation() == CREATE &&
+                        message.getEvent().getTargetName() != DID_OWNER
+        ) {
+            return reject(listener, message, DidDocumentRejectionReason.OWNER_NOT_REGISTERED);
+        }
+
+        switch (message.getOperation()) {
+            case CREATE:
+                return this.processCreateMessage(message, listener);
+            case UPDATE:
+                return this.processUpdateMessage(message, listener);
+            case REVOKE:
+                return this.processRevokeMessage(message, listener);
+            case DELETE:
+                return this.processDeleteMessage(message, listener);
+            default:
+                return reject(listener, message, DidDocumentRejectionReason.UNSUPPORTED_OPERATION);
+        }
+    }
+
+    /**
+     * Applies a batch of DID messages in the given order.
+     *
+     * @param messages The messages to apply.
+     * @return True if at least one message changed the document.
+     */
+    public boolean apply(HcsDidMessage[] messages) {
+        return this.apply(messages, DidDocumentRejectionListener.NONE);
+    }
+
+    /**
+     * Applies a batch of DID messages in the given order.
+     *
+     * @param messages The messages to apply.
+     * @param listener Notified of every ignored message.
+     * @return True if at least one message changed the document.
+     */
+    public boolean apply(HcsDidMessage[] messages, DidDocumentRejectionListener listener) {
+        boolean changed = false;
+        for (HcsDidMessage message : messages) {
+            changed |= this.apply(message, listener);
+        }
+        return changed;
+    }
+
+    /**
+     * Derives the next immutable version of this document. This document is not modified, and the new version shares
+     * all structures that the message did not change with it.
+     *
+     * @param message The message to apply.
+     * @return The new version, or this document if the message was ignored.
+     */
+    public DidDocument with(HcsDidMessage message) {
+        return this.with(message, DidDocumentRejectionListener.NONE);
+    }
+
+    /**
+     * Derives the next immutable version of this document, see {@link #with(HcsDidMessage)}.
+     *
+     * @param message  The message to apply.
+     * @param listener Notified if the message is ignored.
+     * @return The new version, or this document if the message was ignored.
+     */
+    public DidDocument with(HcsDidMessage message, DidDocumentRejectionListener listener) {
+        DidDocument next = new DidDocument(this);
+        if (!next.apply(message, listener)) {
+            return this;
+        }
+        next.frozen = true;
+        return next;
+    }
+
+    /**
+     * Returns an immutable version of the current state in constant time.
+     *
+     * @return This document if it is already immutable, otherwise a frozen copy sharing its structures.
+     */
+    public DidDocument snapshot() {
+        if (this.frozen) {
+            return this;
+        }
+        DidDocument snapshot = new DidDocument(this);
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    /**
+     * @return True if this document is an immutable version that {@link #apply(HcsDidMessage)} cannot modify.
+     */
+    public boolean isImmutable() {
+        return this.frozen;
+    }
+
+    /**
+     * Computes the changes from this document to another version of it.
+     * Structures shared by versions derived with {@link #with(HcsDidMessage)} are skipped, so the cost is
+     * proportional to the number of changed entries. Unrelated instances, e.g. decoded by a codec, are compared
+     * entry by entry.
+     *
+     * @param other The newer version of the document.
+     * @return The changes, empty if both versions have the same entries.
+     * @throws IllegalArgumentException if the other document has a different DID.
+     */
+    public DidDocumentDiff diff(DidDocument other) {
+        if (!this.id.equals(other.id)) {
+            throw new IllegalArgumentException("Cannot diff documents of different DIDs: " + this.id + ", " + other.id);
+        }
+
+        DidDocumentDiff diff = new DidDocumentDiff(this, other);
+        if (!Objects.equals(this.controller, other.controller)) {
+            diff.setController(this.controller, other.controller);
+        }
+
+        this.verificationMethods.diff(other.verificationMethods, new PersistentLinkedHashMap.DiffListener<String, DidDocumentVerificationMethod>() {
+            @Override
+            public void onAdded(String key, DidDocumentVerificationMethod value) {
+                diff.addVerificationMethod(null, value);
+            }
+
+            @Override
+            public void onRemoved(String key, DidDocumentVerificationMethod value) {
+                diff.addVerificationMethod(value, null);
+            }
+
+            @Override
+            public void onUpdated(String key, DidDocumentVerificationMethod oldValue, DidDocumentVerificationMethod newValue) {
+                diff.addVerificationMethod(oldValue, newValue);
             }
+        });
 
-            switch (msg.getOperation()) {
-                case CREATE:
-                    this.processCreateMessage(msg);
-                    break;
-                case UPDATE:
-                    this.processUpdateMessage(msg);
-                    break;
-                case REVOKE:
-                    this.processRevokeMessage(msg);
-                    break;
-                case DELETE:
-                    this.processDeleteMessage(msg);
-                    break;
-                default:
-                    System.out.println("Operation " + msg.getOperation() + "is not supported. Event will be ignored...");
+        this.services.diff(other.services, new PersistentLinkedHashMap.DiffListener<String, DidDocumentService>() {
+            @Override
+            public void onAdded(String key, DidDocumentService value) {
+                diff.addService(null, value);
+            }
+
+            @Override
+            public void onRemoved(String key, DidDocumentService value) {
+                diff.addService(value, null);
+            }
+
+            @Override
+            public void onUpdated(String key, DidDocumentService oldValue, DidDocumentService newValue) {
+                diff.addService(oldValue, newValue);
+            }
+        });
+
+        if (this.verificationRelationships != other.verificationRelationships) {
+            for (String type : RELATIONSHIP_TYPES) {
+                this.verificationRelationships.get(type).diff(other.verificationRelationships.get(type), new PersistentLinkedHashMap.DiffListener<String, Boolean>() {
+                    @Override
+                    public void onAdded(String key, Boolean value) {
+                        diff.addVerificationRelationship(DidDocumentDiff.Kind.ADDED, type, globalId(key));
+                    }
+
+                    @Override
+                    public void onRemoved(String key, Boolean value) {
+                        diff.addVerificationRelationship(DidDocumentDiff.Kind.REMOVED, type, globalId(key));
+                    }
+
+                    @Override
+                    public void onUpdated(String key, Boolean oldValue, Boolean newValue) {
+                        // Relationship sets only hold Boolean.TRUE.
+                    }
+                });
             }
         }
 
+        return diff;
     }
 
-    private void processCreateMessage(HcsDidMessage message) {
+    private static boolean reject(DidDocumentRejectionListener listener, HcsDidMessage message, DidDocumentRejectionReason reason) {
+        listener.onRejected(message, reason);
+        return false;
+    }
+
+    private boolean processCreateMessage(HcsDidMessage message, DidDocumentRejectionListener listener) {
         HcsDidEvent event = message.getEvent();
+        String key = this.localId(event.getId());
 
         switch (event.getTargetName()) {
             case DID_OWNER:
-                if (this.controller != null && !this.controller.isEmpty()) {
-                    System.out.println("DID owner is already registered: " + this.controller + ". Event will be ignored...");
-                    break;
+                if (this.controller != null) {
+                    return reject(listener, message, DidDocumentRejectionReason.OWNER_ALREADY_REGISTERED);
                 }
 
-                this.controller = ((HcsDidCreateDidOwnerEvent) event).getOwnerDef();
+                this.controller = ownerOf((HcsDidCreateDidOwnerEvent) event).compact(this.id);
                 this.setDocumentActivated(message);
-                break;
+                return true;
             case SERVICE:
-                if (this.services.containsKey(event.getId())) {
-                    System.out.println("Duplicate create Service event ID: " + event.getId() + ". Event will be ignored...");
-                    break;
+                if (this.services.containsKey(key)) {
+                    return reject(listener, message, DidDocumentRejectionReason.DUPLICATE_SERVICE);
                 }
-                this.services.put(event.getId(), ((HcsDidCreateServiceEvent) event).getServiceDef());
+                this.putService(event.getId(), serviceOf((HcsDidCreateServiceEvent) event));
                 this.setDocumentUpdated(message);
-                break;
+                return true;
             case VERIFICATION_METHOD:
-                if (this.verificationMethods.containsKey(event.getId())) {
-                    System.out.println("Duplicate create VerificationMethod event ID: " + event.getId() + ". Event will be ignored...");
-                    break;
+                if (this.verificationMethods.containsKey(key)) {
+                    return reject(listener, message, DidDocumentRejectionReason.DUPLICATE_VERIFICATION_METHOD);
                 }
 
-                this.verificationMethods.put(
+                this.putVerificationMethod(
                         event.getId(),
-                        ((HcsDidCreateVerificationMethodEvent) event).getVerificationMethodDef()
+                        verificationMethodOf((HcsDidCreateVerificationMethodEvent) event)
                 );
                 this.setDocumentUpdated(message);
-                break;
+                return true;
             case VERIFICATION_RELATIONSHIP:
                 VerificationRelationshipType type = ((HcsDidCreateVerificationRelationshipEvent) event).getRelationshipType();
 
                 if (this.verificationRelationships.containsKey(type.toString())) {
-                    if (this.verificationRelationships.get(type.toString()).contains(event.getId())) {
-                        System.out.println("Duplicate create VerificationRelationship event ID: " + event.getId() + ". Event will be ignored...");
-                        break;
+                    if (this.verificationRelationships.get(type.toString()).containsKey(key)) {
+                        return reject(listener, message, DidDocumentRejectionReason.DUPLICATE_VERIFICATION_RELATIONSHIP);
                     }
 
-                    this.verificationRelationships.get(type.toString()).add(event.getId());
-
-                    if (!this.verificationMethods.containsKey(event.getId())) {
-                        this.verificationMethods.put(
+                    if (!this.verificationMethods.containsKey(key)) {
+                        this.putVerificationMethod(
                                 event.getId(),
-                                ((HcsDidCreateVerificationRelationshipEvent) event).getVerificationMethodDef()
+                                verificationMethodOf((HcsDidCreateVerificationRelationshipEvent) event)
                         );
                     }
+                    this.addVerificationRelationship(type.toString(), event.getId());
                     this.setDocumentUpdated(message);
+                    return true;
                 } else {
-                    System.out.println("Create verificationRelationship event with type" + type + "is not supported. Event will be ignored...");
+                    return reject(listener, message, DidDocumentRejectionReason.UNSUPPORTED_RELATIONSHIP_TYPE);
                 }
-                break;
             default:
-                System.out.println("Create" + event.getTargetName() + " operation is not supported. Event will be ignored...");
+                return reject(listener, message, DidDocumentRejectionReason.UNSUPPORTED_TARGET);
         }
     }
 
-    private void processUpdateMessage(HcsDidMessage message) {
+    private boolean processUpdateMessage(HcsDidMessage message, DidDocumentRejectionListener listener) {
         HcsDidEvent event = message.getEvent();
+        String key = this.localId(event.getId());
 
         switch (event.getTargetName()) {
             case DID_OWNER:
-                this.controller = ((HcsDidUpdateDidOwnerEvent) event).getOwnerDef();
+                this.controller = ownerOf((HcsDidUpdateDidOwnerEvent) event).compact(this.id);
                 this.setDocumentActivated(message);
-                break;
+                return true;
             case SERVICE:
-                if (!this.services.containsKey(event.getId())) {
-                    System.out.println("Update Service event: service with ID " + event.getId() + " was not found in the document. Event will be ignored...");
-                    break;
+                if (!this.services.containsKey(key)) {
+                    return reject(listener, message, DidDocumentRejectionReason.SERVICE_NOT_FOUND);
                 }
-                this.services.put(event.getId(), ((HcsDidUpdateServiceEvent) event).getServiceDef());
+                this.putService(event.getId(), serviceOf((HcsDidUpdateServiceEvent) event));
                 this.setDocumentUpdated(message);
-                break;
+                return true;
             case VERIFICATION_METHOD:
-                if (!this.verificationMethods.containsKey(event.getId())) {
-                    System.out.println("Update VerificationMethod event: verificationMethod with ID: " + event.getId() + " was not found in the document. Event will be ignored...");
-                    break;
+                if (!this.verificationMethods.containsKey(key)) {
+                    return reject(listener, message, DidDocumentRejectionReason.VERIFICATION_METHOD_NOT_FOUND);
                 }
 
-                this.verificationMethods.put(
+                this.putVerificationMethod(
                         event.getId(),
-                        ((HcsDidUpdateVerificationMethodEvent) event).getVerificationMethodDef()
+                        verificationMethodOf((HcsDidUpdateVerificationMethodEvent) event)
                 );
                 this.setDocumentUpdated(message);
-                break;
+                return true;
             case VERIFICATION_RELATIONSHIP:
                 VerificationRelationshipType type = ((HcsDidUpdateVerificationRelationshipEvent) event).getRelationshipType();
 
                 if (this.verificationRelationships.containsKey(type.toString())) {
-                    if (!this.verificationRelationships.get(type.toString()).contains(event.getId())) {
-                        System.out.println("Update VerificationRelationship event: verificationRelationship with ID: " + event.getId() + ". was not found in the document.  Event will be ignored...");
-                        break;
+                    if (!this.verificationRelationships.get(type.toString()).containsKey(key)) {
+                        return reject(listener, message, DidDocumentRejectionReason.VERIFICATION_RELATIONSHIP_NOT_FOUND);
                     }
 
-                    this.verificationMethods.put(
+                    this.putVerificationMethod(
                             event.getId(),
-                            ((HcsDidCreateVerificationRelationshipEvent) event).getVerificationMethodDef()
+                            verificationMethodOf((HcsDidCreateVerificationRelationshipEvent) event)
                     );
                     this.setDocumentUpdated(message);
+                    return true;
                 } else {
-                    System.out.println("Update verificationRelationship event with type" + type + "is not supported. Event will be ignored...");
+                    return reject(listener, message, DidDocumentRejectionReason.UNSUPPORTED_RELATIONSHIP_TYPE);
                 }
-                break;
             default:
-                System.out.println("Update" + event.getTargetName() + " operation is not supported. Event will be ignored...");
+                return reject(listener, message, DidDocumentRejectionReason.UNSUPPORTED_TARGET);
         }
     }
 
-    private void processRevokeMessage(HcsDidMessage message) {
+    private boolean processRevokeMessage(HcsDidMessage message, DidDocumentRejectionListener listener) {
         HcsDidEvent event = message.getEvent();
+        String key = this.localId(event.getId());
 
         switch (event.getTargetName()) {
             case SERVICE:
-                if (!this.services.containsKey(event.getId())) {
-                    System.out.println("Revoke Service event: service with ID " + event.getId() + " was not found in the document. Event will be ignored...");
-                    break;
+                if (!this.services.containsKey(key)) {
+                    return reject(listener, message, DidDocumentRejectionReason.SERVICE_NOT_FOUND);
                 }
-                this.services.remove(event.getId());
+                this.services = this.services.minus(key);
                 this.setDocumentUpdated(message);
-                break;
+                return true;
             case VERIFICATION_METHOD:
-                if (!this.verificationMethods.containsKey(event.getId())) {
-                    System.out.println("Revoke VerificationMethod event: verificationMethod with ID: " + event.getId() + " was not found in the document. Event will be ignored...");
-                    break;
+                if (!this.verificationMethods.containsKey(key)) {
+                    return reject(listener, message, DidDocumentRejectionReason.VERIFICATION_METHOD_NOT_FOUND);
                 }
 
-                this.verificationMethods.remove(event.getId());
-                this.verificationRelationships.keySet().forEach(key -> this.verificationRelationships.put(key, this.verificationRelationships.get(key).stream().filter(id -> !Objects.equals(id, event.getId())).collect(Collectors.toList())));
+                this.verificationMethods = this.verificationMethods.minus(key);
+                Integer referencingTypes = this.relationshipTypesByKey.get(key);
+                for (int i = 0; referencingTypes != null && i < RELATIONSHIP_TYPES.length; i++) {
+                    if ((referencingTypes & (1 << i)) != 0) {
+                        this.removeVerificationRelationship(RELATIONSHIP_TYPES[i], key);
+                    }
+                }
 
                 this.setDocumentUpdated(message);
-                break;
+                return true;
             case VERIFICATION_RELATIONSHIP:
                 VerificationRelationshipType type = ((HcsDidRevokeVerificationRelationshipEvent) event).getRelationshipType();
 
                 if (this.verificationRelationships.containsKey(type.toString())) {
-                    if (!this.verificationRelationships.get(type.toString()).contains(event.getId())) {
-                        System.out.println("Revoke VerificationRelationship event: verificationRelationship with ID: " + event.getId() + ". was not found in the document.  Event will be ignored...");
-                        break;
+                    if (!this.verificationRelationships.get(type.toString()).containsKey(key)) {
+                        return reject(listener, message, DidDocumentRejectionReason.VERIFICATION_RELATIONSHIP_NOT_FOUND);
                     }
 
-                    this.verificationRelationships.put(type.toString(), this.verificationRelationships.get(type.toString()).stream().filter(id -> !Objects.equals(id, event.getId())).collect(Collectors.toList()));
-
-                    boolean canRemoveVerificationMethod = this.verificationRelationships.values().stream().noneMatch(v -> v.contains(event.getId()));
-                    if (canRemoveVerificationMethod) {
-                        this.verificationMethods.remove(event.getId());
+                    if (this.removeVerificationRelationship(type.toString(), key)) {
+                        this.verificationMethods = this.verificationMethods.minus(key);
                     }
 
                     this.setDocumentUpdated(message);
+                    return true;
                 } else {
-                    System.out.println("Revoke verificationRelationship event with type" + type + "is not supported. Event will be ignored...");
+                    return reject(listener, message, DidDocumentRejectionReason.UNSUPPORTED_RELATIONSHIP_TYPE);
                 }
-                break;
             default:
-                System.out.println("Revoke" + event.getTargetName() + " operation is not supported. Event will be ignored...");
+                return reject(listener, message, DidDocumentRejectionReason.UNSUPPORTED_TARGET);
         }
     }
 
-    private void processDeleteMessage(HcsDidMessage message) {
+    private boolean processDeleteMessage(HcsDidMessage message, DidDocumentRejectionListener listener) {
         HcsDidEvent event = message.getEvent();
 
         if (event.getTargetName() == HcsDidEventTargetName.Document) {
             this.controller = null;
-            this.services.clear();
-            this.verificationMethods.clear();
-            this.verificationRelationships.keySet().forEach(
-                    key -> this.verificationRelationships.put(key, new ArrayList<>())
-            );
+            this.services = PersistentLinkedHashMap.empty();
+            this.verificationMethods = PersistentLinkedHashMap.empty();
+            this.verificationRelationships = NO_RELATIONSHIPS;
+            this.relationshipTypesByKey = PersistentLinkedHashMap.empty();
             this.setDocumentDeactivated();
+            return true;
         } else {
-            System.out.println("Delete" + event.getTargetName() + " operation is not supported. Event will be ignored...");
+            return reject(listener, message, DidDocumentRejectionReason.UNSUPPORTED_TARGET);
         }
+    }
 
+    private static final class Serialized {
+        final byte[] json;
+        final String etag;
+
+        Serialized(byte[] json) {
+            this.json = json;
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+                this.etag = '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + '"';
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
     }
 }
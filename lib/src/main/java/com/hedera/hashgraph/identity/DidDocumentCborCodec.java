@@ -0,0 +1,229 @@
+package com.hedera.hashgraph.identity;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import org.threeten.bp.Instant;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the internal state of a {@link DidDocument} as CBOR.
+ * <p>
+ * Holds the same state as {@link DidDocumentJsonCodec} in positional arrays instead of named properties, keeps public
+ * keys as raw byte strings instead of their multibase encoding and IDs of the document's own keys and services as
+ * fragments. The result is a fraction of the JSON size and is parsed without building a tree. Layout:
+ * <pre>
+ * [version, id, created, updated, versionId, deactivated, controller, [verificationMethod...],
+ *  {relationshipType: [id...]}, [service...]]
+ * verificationMethod = [id, type, controller, publicKey, relationshipType]
+ * service            = [id, type, serviceEndpoint]
+ * </pre>
+ * Timestamps are {@code [epochSecond, nano]} arrays, a null controller of a verification method is the document's DID.
+ */
+public class DidDocumentCborCodec implements DidDocumentCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final CBORFactory factory = new CBORFactory();
+
+    @Override
+    public byte[] encode(DidDocument document) throws IOException {
+        String did = document.getId();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (CBORGenerator generator = factory.createGenerator(out)) {
+            generator.writeStartArray();
+            generator.writeNumber(FORMAT_VERSION);
+            generator.writeString(did);
+            writeInstant(generator, document.getCreated());
+            writeInstant(generator, document.getUpdated());
+            writeNullableString(generator, document.getVersionId());
+            generator.writeBoolean(document.getDeactivated());
+
+            if (document.getController() != null) {
+                writeVerificationMethod(generator, did, document.getController());
+            } else {
+                generator.writeNull();
+            }
+
+            generator.writeStartArray();
+            for (DidDocumentVerificationMethod verificationMethod : document.getVerificationMethods()) {
+                writeVerificationMethod(generator, did, verificationMethod);
+            }
+            generator.writeEndArray();
+
+            generator.writeStartObject();
+            for (Map.Entry<String, List<String>> entry : document.getVerificationRelationships().entrySet()) {
+                if (entry.getValue().isEmpty()) {
+                    continue;
+                }
+                generator.writeFieldName(entry.getKey());
+                generator.writeStartArray();
+                for (String id : entry.getValue()) {
+                    generator.writeString(localId(did, id));
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+
+            generator.writeStartArray();
+            for (DidDocumentService service : document.getServices()) {
+                generator.writeStartArray();
+                generator.writeString(localId(did, service.getId()));
+                generator.writeString(service.getType());
+                generator.writeString(service.getServiceEndpoint());
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public DidDocument decode(byte[] bytes) throws IOException {
+        try (CBORParser parser = factory.createParser(bytes)) {
+            expect(parser, JsonToken.START_ARRAY);
+            expect(parser, JsonToken.VALUE_NUMBER_INT);
+            if (parser.getIntValue() != FORMAT_VERSION) {
+                throw new IOException("Unsupported encoded DID document version: " + parser.getIntValue());
+            }
+
+            String did = readString(parser);
+            if (did == null) {
+                throw new IOException("Encoded DID document is missing its ID");
+            }
+            DidDocument document = new DidDocument(did, new HcsDidMessage[0]);
+
+            Instant created = readInstant(parser);
+            Instant updated = readInstant(parser);
+            String versionId = readString(parser);
+            boolean deactivated = parser.nextToken() == JsonToken.VALUE_TRUE;
+
+            DidDocumentVerificationMethod controller = parser.nextToken() == JsonToken.VALUE_NULL
+                    ? null
+                    : readVerificationMethod(parser, did);
+
+            expect(parser, JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_ARRAY) {
+                DidDocumentVerificationMethod method = readVerificationMethod(parser, did);
+                document.putVerificationMethod(method.getId(), method);
+            }
+
+            expect(parser, JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String type = parser.getCurrentName();
+                expect(parser, JsonToken.START_ARRAY);
+                while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    document.addVerificationRelationship(type, globalId(did, parser.getText()));
+                }
+            }
+
+            expect(parser, JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_ARRAY) {
+                String id = globalId(did, readString(parser));
+                document.putService(id, new DidDocumentService(id, readString(parser), readString(parser)));
+                expect(parser, JsonToken.END_ARRAY);
+            }
+
+            document.restore(controller, created, updated, versionId, deactivated);
+            return document;
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IOException("Invalid encoded DID document", e);
+        }
+    }
+
+    private static void writeVerificationMethod(CBORGenerator generator, String did, DidDocumentVerificationMethod method) throws IOException {
+        generator.writeStartArray();
+        generator.writeString(localId(did, method.getId()));
+        generator.writeString(method.getType());
+        writeNullableString(generator, did.equals(method.getController()) ? null : method.getController());
+        generator.writeBinary(method.getPublicKey());
+        writeNullableString(generator, method.getRelationshipType());
+        generator.writeEndArray();
+    }
+
+    /**
+     * Reads the remainder of a verification method array whose start token was already consumed.
+     */
+    private static DidDocumentVerificationMethod readVerificationMethod(CBORParser parser, String did) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a verification method but found " + parser.currentToken());
+        }
+        String id = globalId(did, readString(parser));
+        String type = readString(parser);
+        String controller = readString(parser);
+        expect(parser, JsonToken.VALUE_EMBEDDED_OBJECT);
+        byte[] publicKey = parser.getBinaryValue();
+        String relationshipType = readString(parser);
+        expect(parser, JsonToken.END_ARRAY);
+
+        return new DidDocumentVerificationMethod(id, type, controller == null ? did : controller, publicKey, relationshipType);
+    }
+
+    private static void writeInstant(CBORGenerator generator, Instant instant) throws IOException {
+        if (instant == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        generator.writeNumber(instant.getEpochSecond());
+        generator.writeNumber(instant.getNano());
+        generator.writeEndArray();
+    }
+
+    private static Instant readInstant(CBORParser parser) throws IOException {
+        if (parser.nextToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a timestamp but found " + parser.currentToken());
+        }
+        expect(parser, JsonToken.VALUE_NUMBER_INT);
+        long seconds = parser.getLongValue();
+        expect(parser, JsonToken.VALUE_NUMBER_INT);
+        int nanos = parser.getIntValue();
+        expect(parser, JsonToken.END_ARRAY);
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    private static void writeNullableString(CBORGenerator generator, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    private static String readString(CBORParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new IOException("Expected a string but found " + token);
+        }
+        return parser.getText();
+    }
+
+    private static void expect(CBORParser parser, JsonToken expected) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != expected) {
+            throw new IOException("Expected " + expected + " but found " + token);
+        }
+    }
+
+    private static String localId(String did, String id) {
+        return DidDocument.isRelativeId(did, id) ? id.substring(did.length()) : id;
+    }
+
+    private static String globalId(String did, String id) {
+        return id != null && id.startsWith("#") ? did + id : id;
+    }
+}
@@ -0,0 +1,28 @@
+package com.hedera.hashgraph.identity;
+
+import java.io.IOException;
+
+/**
+ * Converts {@link DidDocument} instances to and from a compact binary form.
+ * Used by document stores and caches that keep documents outside the Java heap.
+ */
+public interface DidDocumentCodec {
+
+    /**
+     * Serializes the full state of a document, including its metadata.
+     *
+     * @param document The document.
+     * @return The encoded document.
+     * @throws IOException if the document could not be encoded.
+     */
+    byte[] encode(DidDocument document) throws IOException;
+
+    /**
+     * Restores a document previously encoded by this codec.
+     *
+     * @param bytes The encoded document.
+     * @return The document.
+     * @throws IOException if the bytes do not hold a valid document.
+     */
+    DidDocument decode(byte[] bytes) throws IOException;
+}
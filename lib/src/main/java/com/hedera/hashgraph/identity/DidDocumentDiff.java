@@ -0,0 +1,184 @@
+package com.hedera.hashgraph.identity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Typed changes between two versions of a {@link DidDocument}, as returned by {@link DidDocument#diff(DidDocument)}.
+ * <p>
+ * Lets caches and key distribution services propagate what changed instead of whole documents. Document metadata
+ * like the version ID is not reported as a change, it can be read from {@link #getTo()}.
+ */
+public final class DidDocumentDiff {
+
+    public enum Kind {
+        ADDED,
+        UPDATED,
+        REMOVED
+    }
+
+    private final DidDocument from;
+    private final DidDocument to;
+    private final List<Change<DidDocumentVerificationMethod>> verificationMethods = new ArrayList<>();
+    private final List<Change<DidDocumentService>> services = new ArrayList<>();
+    private final List<RelationshipChange> verificationRelationships = new ArrayList<>();
+    private Change<DidDocumentVerificationMethod> controller;
+
+    DidDocumentDiff(DidDocument from, DidDocument to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public DidDocument getFrom() {
+        return this.from;
+    }
+
+    public DidDocument getTo() {
+        return this.to;
+    }
+
+    /**
+     * @return The change of the DID owner key, or null if the owner did not change.
+     */
+    public Change<DidDocumentVerificationMethod> getController() {
+        return this.controller;
+    }
+
+    /**
+     * @return Changes of verification methods other than the owner key.
+     */
+    public List<Change<DidDocumentVerificationMethod>> getVerificationMethods() {
+        return Collections.unmodifiableList(this.verificationMethods);
+    }
+
+    public List<Change<DidDocumentService>> getServices() {
+        return Collections.unmodifiableList(this.services);
+    }
+
+    /**
+     * @return Keys added to or removed from verification relationships.
+     */
+    public List<RelationshipChange> getVerificationRelationships() {
+        return Collections.unmodifiableList(this.verificationRelationships);
+    }
+
+    /**
+     * @return True if no owner, verification method, relationship or service changed.
+     */
+    public boolean isEmpty() {
+        return this.controller == null
+                && this.verificationMethods.isEmpty()
+                && this.services.isEmpty()
+                && this.verificationRelationships.isEmpty();
+    }
+
+    void setController(DidDocumentVerificationMethod oldValue, DidDocumentVerificationMethod newValue) {
+        this.controller = Change.of(oldValue, newValue);
+    }
+
+    void addVerificationMethod(DidDocumentVerificationMethod oldValue, DidDocumentVerificationMethod newValue) {
+        this.verificationMethods.add(Change.of(oldValue, newValue));
+    }
+
+    void addService(DidDocumentService oldValue, DidDocumentService newValue) {
+        this.services.add(Change.of(oldValue, newValue));
+    }
+
+    void addVerificationRelationship(Kind kind, String type, String id) {
+        this.verificationRelationships.add(new RelationshipChange(kind, type, id));
+    }
+
+    @Override
+    public String toString() {
+        return "DidDocumentDiff{" +
+                "controller=" + this.controller +
+                ", verificationMethods=" + this.verificationMethods +
+                ", services=" + this.services +
+                ", verificationRelationships=" + this.verificationRelationships +
+                '}';
+    }
+
+    /**
+     * Change of a single document entry.
+     *
+     * @param <T> Type of the entry.
+     */
+    public static final class Change<T> {
+        private final Kind kind;
+        private final T oldValue;
+        private final T newValue;
+
+        private Change(Kind kind, T oldValue, T newValue) {
+            this.kind = kind;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        static <T> Change<T> of(T oldValue, T newValue) {
+            Kind kind = oldValue == null ? Kind.ADDED : newValue == null ? Kind.REMOVED : Kind.UPDATED;
+            return new Change<>(kind, oldValue, newValue);
+        }
+
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        /**
+         * @return The entry before the change, null if it was added.
+         */
+        public T getOldValue() {
+            return this.oldValue;
+        }
+
+        /**
+         * @return The entry after the change, null if it was removed.
+         */
+        public T getNewValue() {
+            return this.newValue;
+        }
+
+        @Override
+        public String toString() {
+            return this.kind + " " + (this.newValue != null ? this.newValue : this.oldValue);
+        }
+    }
+
+    /**
+     * A key added to or removed from a verification relationship.
+     */
+    public static final class RelationshipChange {
+        private final Kind kind;
+        private final String relationshipType;
+        private final String id;
+
+        private RelationshipChange(Kind kind, String relationshipType, String id) {
+            this.kind = kind;
+            this.relationshipType = relationshipType;
+            this.id = id;
+        }
+
+        /**
+         * @return {@link Kind#ADDED} or {@link Kind#REMOVED}.
+         */
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        public String getRelationshipType() {
+            return this.relationshipType;
+        }
+
+        /**
+         * @return The verification method ID.
+         */
+        public String getId() {
+            return this.id;
+        }
+
+        @Override
+        public String toString() {
+            return this.kind + " " + this.relationshipType + " " + this.id;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.hedera.hashgraph.identity;
+
+/**
+ * Entry of a {@link DidDocument} that can be referenced by a DID URL, either a verification method or a service.
+ *
+ * @see DidDocument#dereference(String)
+ */
+public interface DidDocumentEntry {
+
+    /**
+     * @return The absolute ID of the entry, e.g. {did}#key-1.
+     */
+    String getId();
+
+    String getType();
+}
@@ -0,0 +1,137 @@
+package com.hedera.hashgraph.identity;
+
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import org.threeten.bp.Instant;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Keeps the last versions of a DID document for historical queries.
+ * <p>
+ * Every message that changes the document produces a new immutable {@link DidDocument} version. Versions share
+ * unchanged structures, so the memory held by the history grows with the number of changes rather than with the
+ * number of versions times the document size. Versions are read without locking, concurrently with
+ * {@link #apply(HcsDidMessage)}, which is serialized with other calls to it only.
+ */
+public class DidDocumentHistory {
+
+    private final int maxVersions;
+    private final ConcurrentLinkedDeque<Version> versions = new ConcurrentLinkedDeque<>();
+    // Number of kept versions, only accessed by apply as the size of the deque is computed by traversing it.
+    private int count = 1;
+
+    /**
+     * Creates a history starting with an empty document.
+     *
+     * @param did         The DID string.
+     * @param maxVersions Maximum number of versions to keep, older versions are dropped first.
+     */
+    public DidDocumentHistory(String did, int maxVersions) {
+        this(new DidDocument(did, new HcsDidMessage[0]), maxVersions);
+    }
+
+    /**
+     * Creates a history starting with the given document.
+     *
+     * @param initial     The first version. It is frozen, later changes of a mutable document do not affect it.
+     *                    It is current from its {@link DidDocument#getUpdated() update time}, or from the beginning if
+     *                    it has none.
+     * @param maxVersions Maximum number of versions to keep, older versions are dropped first.
+     */
+    public DidDocumentHistory(DidDocument initial, int maxVersions) {
+        if (maxVersions <= 0) {
+            throw new IllegalArgumentException("At least one version must be kept.");
+        }
+
+        this.maxVersions = maxVersions;
+        this.versions.addLast(new Version(initial.snapshot(), initial.getUpdated()));
+    }
+
+    /**
+     * Applies the message to the latest version.
+     *
+     * @param message The message to apply.
+     * @return True if the message produced a new version.
+     */
+    public synchronized boolean apply(HcsDidMessage message) {
+        DidDocument latest = this.versions.getLast().document;
+        DidDocument next = latest.with(message);
+        if (next == latest) {
+            return false;
+        }
+
+        this.versions.addLast(new Version(next, message.getTimestamp()));
+        if (++this.count > this.maxVersions) {
+            this.versions.removeFirst();
+            this.count--;
+        }
+        return true;
+    }
+
+    public DidDocument getLatest() {
+        return this.versions.getLast().document;
+    }
+
+    /**
+     * Finds a kept version by its version ID.
+     *
+     * @param versionId The version ID as reported by {@link DidDocument#getVersionId()}.
+     * @return The version or null if it is not kept.
+     */
+    public DidDocument getVersion(String versionId) {
+        Iterator<Version> iterator = this.versions.descendingIterator();
+        while (iterator.hasNext()) {
+            DidDocument document = iterator.next().document;
+            if (Objects.equals(versionId, document.getVersionId())) {
+                return document;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the version that was current at the given time.
+     *
+     * @param timestamp The point in time.
+     * @return The latest version created at or before the timestamp, or null if that version is no longer kept or
+     * the timestamp is before the initial version.
+     */
+    public DidDocument at(Instant timestamp) {
+        Iterator<Version> iterator = this.versions.descendingIterator();
+        while (iterator.hasNext()) {
+            Version version = iterator.next();
+            if (version.timestamp == null || !version.timestamp.isAfter(timestamp)) {
+                return version.document;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Kept versions, oldest first.
+     */
+    public List<DidDocument> getVersions() {
+        List<DidDocument> result = new ArrayList<>();
+        this.versions.forEach(version -> result.add(version.document));
+        return result;
+    }
+
+    public int size() {
+        return this.versions.size();
+    }
+
+    private static final class Version {
+        final DidDocument document;
+        // Timestamp of the message that produced the version, null for an initial version without one.
+        final Instant timestamp;
+
+        Version(DidDocument document, Instant timestamp) {
+            this.document = document;
+            this.timestamp = timestamp;
+        }
+    }
+}
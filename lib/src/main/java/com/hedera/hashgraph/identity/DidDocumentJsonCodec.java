@@ -0,0 +1,99 @@
+package com.hedera.hashgraph.identity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import org.threeten.bp.Instant;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the internal state of a {@link DidDocument} as JSON.
+ * <p>
+ * Unlike {@link DidDocument#toJSON()}, which produces the W3C representation, this format keeps document metadata
+ * and the owner separately from other verification methods, so the document can be restored exactly.
+ */
+public class DidDocumentJsonCodec implements DidDocumentCodec {
+
+    private static final String CREATED = "created";
+    private static final String UPDATED = "updated";
+    private static final String VERSION_ID = "versionId";
+    private static final String DEACTIVATED = "deactivated";
+    private static final String VERIFICATION_RELATIONSHIP = "verificationRelationship";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public byte[] encode(DidDocument document) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put(DidDocumentJsonProperties.ID, document.getId());
+
+        if (document.getCreated() != null) {
+            root.put(CREATED, document.getCreated().toString());
+        }
+        if (document.getUpdated() != null) {
+            root.put(UPDATED, document.getUpdated().toString());
+        }
+        if (document.getVersionId() != null) {
+            root.put(VERSION_ID, document.getVersionId());
+        }
+        root.put(DEACTIVATED, document.getDeactivated());
+
+        if (document.getController() != null) {
+            root.set(DidDocumentJsonProperties.CONTROLLER, document.getController().toJsonTree());
+        }
+
+        ArrayNode verificationMethods = root.putArray(DidDocumentJsonProperties.VERIFICATION_METHOD);
+        document.getVerificationMethods().forEach(verificationMethod -> verificationMethods.add(verificationMethod.toJsonTree()));
+
+        ObjectNode relationships = root.putObject(VERIFICATION_RELATIONSHIP);
+        for (Map.Entry<String, List<String>> entry : document.getVerificationRelationships().entrySet()) {
+            ArrayNode ids = relationships.putArray(entry.getKey());
+            entry.getValue().forEach(ids::add);
+        }
+
+        ArrayNode services = root.putArray(DidDocumentJsonProperties.SERVICE);
+        document.getServices().forEach(service -> services.add(service.toJsonTree()));
+
+        return objectMapper.writeValueAsBytes(root);
+    }
+
+    @Override
+    public DidDocument decode(byte[] bytes) throws IOException {
+        JsonNode root = objectMapper.readTree(bytes);
+        if (root == null || !root.hasNonNull(DidDocumentJsonProperties.ID)) {
+            throw new IOException("Encoded DID document is missing its ID");
+        }
+
+        DidDocument document = new DidDocument(root.get(DidDocumentJsonProperties.ID).textValue(), new HcsDidMessage[0]);
+
+        for (JsonNode verificationMethod : root.path(DidDocumentJsonProperties.VERIFICATION_METHOD)) {
+            DidDocumentVerificationMethod method = DidDocumentVerificationMethod.fromJsonTree(verificationMethod);
+            document.putVerificationMethod(method.getId(), method);
+        }
+
+        root.path(VERIFICATION_RELATIONSHIP).fields().forEachRemaining(entry ->
+                entry.getValue().forEach(id -> document.addVerificationRelationship(entry.getKey(), id.textValue()))
+        );
+
+        for (JsonNode service : root.path(DidDocumentJsonProperties.SERVICE)) {
+            document.putService(service.get(DidDocumentJsonProperties.ID).textValue(), DidDocumentService.fromJsonTree(service));
+        }
+
+        document.restore(
+                root.hasNonNull(DidDocumentJsonProperties.CONTROLLER)
+                        ? DidDocumentVerificationMethod.fromJsonTree(root.get(DidDocumentJsonProperties.CONTROLLER))
+                        : null,
+                root.hasNonNull(CREATED) ? Instant.parse(root.get(CREATED).textValue()) : null,
+                root.hasNonNull(UPDATED) ? Instant.parse(root.get(UPDATED).textValue()) : null,
+                root.hasNonNull(VERSION_ID) ? root.get(VERSION_ID).textValue() : null,
+                root.path(DEACTIVATED).asBoolean(false)
+        );
+
+        return document;
+    }
+}
@@ -0,0 +1,42 @@
+package com.hedera.hashgraph.identity;
+
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe rejection counters, meant to be shared by all resolutions of a process and exported as metrics.
+ */
+public class DidDocumentRejectionCounters implements DidDocumentRejectionListener {
+
+    private final LongAdder[] counts = new LongAdder[DidDocumentRejectionReason.values().length];
+
+    public DidDocumentRejectionCounters() {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void onRejected(HcsDidMessage message, DidDocumentRejectionReason reason) {
+        this.counts[reason.ordinal()].increment();
+    }
+
+    public long getCount(DidDocumentRejectionReason reason) {
+        return this.counts[reason.ordinal()].sum();
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (LongAdder count : this.counts) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    public void reset() {
+        for (LongAdder count : this.counts) {
+            count.reset();
+        }
+    }
+}
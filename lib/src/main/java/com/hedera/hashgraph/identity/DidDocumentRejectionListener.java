@@ -0,0 +1,35 @@
+package com.hedera.hashgraph.identity;
+
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+
+/**
+ * Receives messages that did not change a {@link DidDocument} while they were applied.
+ * <p>
+ * Called on the replay path for every ignored message, so implementations should be cheap and must not throw.
+ */
+@FunctionalInterface
+public interface DidDocumentRejectionListener {
+
+    /**
+     * Listener that ignores all rejections, used when none is given.
+     */
+    DidDocumentRejectionListener NONE = (message, reason) -> {
+    };
+
+    /**
+     * @param message The ignored message.
+     * @param reason  Why the message was ignored.
+     */
+    void onRejected(HcsDidMessage message, DidDocumentRejectionReason reason);
+
+    /**
+     * @param other Listener to notify after this one.
+     * @return A listener notifying both listeners.
+     */
+    default DidDocumentRejectionListener andThen(DidDocumentRejectionListener other) {
+        return (message, reason) -> {
+            this.onRejected(message, reason);
+            other.onRejected(message, reason);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.hedera.hashgraph.identity;
+
+/**
+ * Reasons for a DID message to be ignored while it is applied to a {@link DidDocument}.
+ */
+public enum DidDocumentRejectionReason {
+    /**
+     * A create event other than the DID owner was received before the owner was registered.
+     */
+    OWNER_NOT_REGISTERED,
+    /**
+     * The DID owner is already registered, it can only be changed by an update event.
+     */
+    OWNER_ALREADY_REGISTERED,
+    DUPLICATE_SERVICE,
+    DUPLICATE_VERIFICATION_METHOD,
+    DUPLICATE_VERIFICATION_RELATIONSHIP,
+    SERVICE_NOT_FOUND,
+    VERIFICATION_METHOD_NOT_FOUND,
+    VERIFICATION_RELATIONSHIP_NOT_FOUND,
+    UNSUPPORTED_RELATIONSHIP_TYPE,
+    /**
+     * The operation is not supported for the event target, e.g. deleting a single service.
+     */
+    UNSUPPORTED_TARGET,
+    UNSUPPORTED_OPERATION,
+    /**
+     * The message envelope is not signed by the DID owner key in effect at the message's position.
+     * Only reported by signature-verified resolution.
+     */
+    INVALID_SIGNATURE
+}
@@ -0,0 +1,106 @@
+package com.hedera.hashgraph.identity;
+
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects messages ignored during a single resolution.
+ * <p>
+ * Counts all rejections by reason and keeps the first {@code maxRejections} of them with their messages.
+ * Not thread-safe, use one report per resolution.
+ */
+public class DidDocumentRejectionReport implements DidDocumentRejectionListener {
+
+    /**
+     * Default number of rejections kept with their messages.
+     */
+    public static final int DEFAULT_MAX_REJECTIONS = 100;
+
+    private final int maxRejections;
+    private final long[] counts = new long[DidDocumentRejectionReason.values().length];
+    private final List<Rejection> rejections = new ArrayList<>();
+    private long totalCount;
+
+    public DidDocumentRejectionReport() {
+        this(DEFAULT_MAX_REJECTIONS);
+    }
+
+    /**
+     * @param maxRejections Number of rejections kept with their messages, 0 to only count them.
+     */
+    public DidDocumentRejectionReport(int maxRejections) {
+        if (maxRejections < 0) {
+            throw new IllegalArgumentException("Number of kept rejections must not be negative.");
+        }
+        this.maxRejections = maxRejections;
+    }
+
+    @Override
+    public void onRejected(HcsDidMessage message, DidDocumentRejectionReason reason) {
+        this.counts[reason.ordinal()]++;
+        this.totalCount++;
+        if (this.rejections.size() < this.maxRejections) {
+            this.rejections.add(new Rejection(message, reason));
+        }
+    }
+
+    public long getCount(DidDocumentRejectionReason reason) {
+        return this.counts[reason.ordinal()];
+    }
+
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    public boolean isEmpty() {
+        return this.totalCount == 0;
+    }
+
+    /**
+     * @return The first rejections in replay order, at most the configured number of them.
+     */
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(this.rejections);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("DidDocumentRejectionReport{total=").append(this.totalCount);
+        for (DidDocumentRejectionReason reason : DidDocumentRejectionReason.values()) {
+            if (this.counts[reason.ordinal()] > 0) {
+                result.append(", ").append(reason).append('=').append(this.counts[reason.ordinal()]);
+            }
+        }
+        return result.append('}').toString();
+    }
+
+    /**
+     * An ignored message and the reason it was ignored for.
+     */
+    public static final class Rejection {
+        private final HcsDidMessage message;
+        private final DidDocumentRejectionReason reason;
+
+        Rejection(HcsDidMessage message, DidDocumentRejectionReason reason) {
+            this.message = message;
+            this.reason = reason;
+        }
+
+        public HcsDidMessage getMessage() {
+            return this.message;
+        }
+
+        public DidDocumentRejectionReason getReason() {
+            return this.reason;
+        }
+
+        @Override
+        public String toString() {
+            return this.reason + ": " + this.message.getEvent().getTargetName() + " " + this.message.getOperation()
+                    + " " + this.message.getEvent().getId();
+        }
+    }
+}
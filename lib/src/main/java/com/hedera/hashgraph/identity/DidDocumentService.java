@@ -0,0 +1,129 @@
+package com.hedera.hashgraph.identity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Immutable service entry of a {@link DidDocument}.
+ * IDs that belong to the document's DID are kept as a fragment referencing the shared DID string.
+ */
+public final class DidDocumentService implements DidDocumentEntry {
+
+    private static final String TYPE = "type";
+    private static final String SERVICE_ENDPOINT = "serviceEndpoint";
+
+    // ID = did + fragment, the fragment holds the full ID if did is null.
+    private final String did;
+    private final String fragment;
+    private final String type;
+    private final String serviceEndpoint;
+
+    DidDocumentService(String id, String type, String serviceEndpoint) {
+        this(null, Objects.requireNonNull(id), type, serviceEndpoint);
+    }
+
+    private DidDocumentService(String did, String fragment, String type, String serviceEndpoint) {
+        this.did = did;
+        this.fragment = fragment;
+        this.type = Objects.requireNonNull(type);
+        this.serviceEndpoint = Objects.requireNonNull(serviceEndpoint);
+    }
+
+    /**
+     * Parses a service from its JSON properties.
+     *
+     * @param tree The JSON object as produced by {@link #toJsonTree()}.
+     * @return The service.
+     */
+    public static DidDocumentService fromJsonTree(JsonNode tree) {
+        return new DidDocumentService(
+                tree.get(DidDocumentJsonProperties.ID).textValue(),
+                tree.get(TYPE).textValue(),
+                tree.get(SERVICE_ENDPOINT).textValue()
+        );
+    }
+
+    @Override
+    public String getId() {
+        return this.did == null ? this.fragment : this.did + this.fragment;
+    }
+
+    /**
+     * @return The ID fragment if the ID was compacted against a document DID, otherwise the full ID.
+     */
+    String getLocalId() {
+        return this.fragment;
+    }
+
+    @Override
+    public String getType() {
+        return this.type;
+    }
+
+    public String getServiceEndpoint() {
+        return this.serviceEndpoint;
+    }
+
+    /**
+     * Returns an equal service that references the document's DID string instead of holding its own copy of it.
+     *
+     * @param documentDid The DID of the document holding the service.
+     * @return The compacted service, or this service if there is nothing to share.
+     */
+    DidDocumentService compact(String documentDid) {
+        String id = this.getId();
+        if (this.did == documentDid || !DidDocument.isRelativeId(documentDid, id)) {
+            return this;
+        }
+        return new DidDocumentService(documentDid, id.substring(documentDid.length()), this.type, this.serviceEndpoint);
+    }
+
+    public ObjectNode toJsonTree() {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.put(DidDocumentJsonProperties.ID, this.getId());
+        node.put(TYPE, this.type);
+        node.put(SERVICE_ENDPOINT, this.serviceEndpoint);
+        return node;
+    }
+
+    /**
+     * Writes the service as a JSON object, the same as {@link #toJsonTree()}.
+     *
+     * @param generator The target generator.
+     * @throws IOException if writing failed.
+     */
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(DidDocumentJsonProperties.ID, this.getId());
+        generator.writeStringField(TYPE, this.type);
+        generator.writeStringField(SERVICE_ENDPOINT, this.serviceEndpoint);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DidDocumentService that = (DidDocumentService) o;
+        return this.getId().equals(that.getId()) && this.type.equals(that.type) && this.serviceEndpoint.equals(that.serviceEndpoint);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getId(), this.type, this.serviceEndpoint);
+    }
+
+    @Override
+    public String toString() {
+        return this.toJsonTree().toString();
+    }
+}
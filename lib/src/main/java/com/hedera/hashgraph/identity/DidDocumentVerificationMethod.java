@@ -0,0 +1,211 @@
+package com.hedera.hashgraph.identity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hedera.hashgraph.identity.utils.PublicKeyCache;
+import com.hedera.hashgraph.sdk.PublicKey;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable verification method of a {@link DidDocument}, including the DID owner key.
+ * <p>
+ * Holds the raw public key bytes instead of their multibase encoding, and keeps IDs of keys that belong to the
+ * document's DID as a fragment referencing the shared DID string. The W3C JSON properties are produced only when the
+ * document is serialized.
+ */
+public final class DidDocumentVerificationMethod implements DidDocumentEntry {
+
+    private static final String RELATIONSHIP_TYPE = "relationshipType";
+    private static final String TYPE = "type";
+    private static final String PUBLIC_KEY_MULTIBASE = "publicKeyMultibase";
+
+    // ID = did + fragment, the fragment holds the full ID if did is null.
+    private final String did;
+    private final String fragment;
+    private final String type;
+    private final String controller;
+    private final byte[] publicKey;
+    private final String relationshipType;
+    // Decoded on first use, so that documents that are only served as JSON don't hold key objects.
+    private volatile PublicKey decodedPublicKey;
+
+    /**
+     * @param id               The verification method ID.
+     * @param type             The key type, e.g. Ed25519VerificationKey2018.
+     * @param controller       The controller DID.
+     * @param publicKey        Raw public key bytes, not copied.
+     * @param relationshipType The relationship type for keys added by relationship events, otherwise null.
+     */
+    DidDocumentVerificationMethod(String id, String type, String controller, byte[] publicKey, String relationshipType) {
+        this(null, Objects.requireNonNull(id), type, controller, publicKey, relationshipType);
+    }
+
+    private DidDocumentVerificationMethod(String did, String fragment, String type, String controller, byte[] publicKey, String relationshipType) {
+        this.did = did;
+        this.fragment = fragment;
+        this.type = Objects.requireNonNull(type);
+        this.controller = Objects.requireNonNull(controller);
+        this.publicKey = Objects.requireNonNull(publicKey);
+        this.relationshipType = relationshipType;
+    }
+
+    /**
+     * Parses a verification method from its JSON properties.
+     *
+     * @param tree The JSON object as produced by {@link #toJsonTree()}.
+     * @return The verification method.
+     */
+    public static DidDocumentVerificationMethod fromJsonTree(JsonNode tree) {
+        PublicKey key = PublicKeyCache.DEFAULT.decode(tree.get(PUBLIC_KEY_MULTIBASE).textValue());
+        DidDocumentVerificationMethod result = new DidDocumentVerificationMethod(
+                tree.get(DidDocumentJsonProperties.ID).textValue(),
+                tree.get(TYPE).textValue(),
+                tree.get(DidDocumentJsonProperties.CONTROLLER).textValue(),
+                key.toBytes(),
+                tree.hasNonNull(RELATIONSHIP_TYPE) ? tree.get(RELATIONSHIP_TYPE).textValue() : null
+        );
+        result.decodedPublicKey = key;
+        return result;
+    }
+
+    @Override
+    public String getId() {
+        return this.did == null ? this.fragment : this.did + this.fragment;
+    }
+
+    /**
+     * @return The ID fragment if the ID was compacted against a document DID, otherwise the full ID.
+     */
+    String getLocalId() {
+        return this.fragment;
+    }
+
+    @Override
+    public String getType() {
+        return this.type;
+    }
+
+    public String getController() {
+        return this.controller;
+    }
+
+    /**
+     * @return A copy of the raw public key bytes.
+     */
+    public byte[] getPublicKey() {
+        return this.publicKey.clone();
+    }
+
+    /**
+     * Returns the public key as an SDK key that can verify signatures.
+     * The key is decoded once per method and shared by all document versions holding it.
+     *
+     * @return The decoded public key.
+     */
+    public PublicKey toPublicKey() {
+        PublicKey result = this.decodedPublicKey;
+        if (result == null) {
+            result = PublicKey.fromBytes(this.publicKey);
+            this.decodedPublicKey = result;
+        }
+        return result;
+    }
+
+    public String getPublicKeyMultibase() {
+        return PublicKeyCache.DEFAULT.encode(this.publicKey);
+    }
+
+    /**
+     * @return The relationship type, or null if the method was not added by a verification relationship event.
+     */
+    public String getRelationshipType() {
+        return this.relationshipType;
+    }
+
+    /**
+     * Returns an equal method that references the document's DID string instead of holding its own copy of it,
+     * both for the ID and the controller.
+     *
+     * @param documentDid The DID of the document holding the method.
+     * @return The compacted method, or this method if there is nothing to share.
+     */
+    DidDocumentVerificationMethod compact(String documentDid) {
+        String id = this.getId();
+        boolean relative = DidDocument.isRelativeId(documentDid, id);
+        boolean ownController = documentDid.equals(this.controller);
+        if ((!relative || this.did == documentDid) && (!ownController || this.controller == documentDid)) {
+            return this;
+        }
+        DidDocumentVerificationMethod compacted = new DidDocumentVerificationMethod(
+                relative ? documentDid : null,
+                relative ? id.substring(documentDid.length()) : id,
+                this.type,
+                ownController ? documentDid : this.controller,
+                this.publicKey,
+                this.relationshipType
+        );
+        compacted.decodedPublicKey = this.decodedPublicKey;
+        return compacted;
+    }
+
+    public ObjectNode toJsonTree() {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.put(DidDocumentJsonProperties.ID, this.getId());
+        if (this.relationshipType != null) {
+            node.put(RELATIONSHIP_TYPE, this.relationshipType);
+        }
+        node.put(TYPE, this.type);
+        node.put(DidDocumentJsonProperties.CONTROLLER, this.controller);
+        node.put(PUBLIC_KEY_MULTIBASE, this.getPublicKeyMultibase());
+        return node;
+    }
+
+    /**
+     * Writes the method as a JSON object, the same as {@link #toJsonTree()}.
+     *
+     * @param generator The target generator.
+     * @throws IOException if writing failed.
+     */
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(DidDocumentJsonProperties.ID, this.getId());
+        if (this.relationshipType != null) {
+            generator.writeStringField(RELATIONSHIP_TYPE, this.relationshipType);
+        }
+        generator.writeStringField(TYPE, this.type);
+        generator.writeStringField(DidDocumentJsonProperties.CONTROLLER, this.controller);
+        generator.writeStringField(PUBLIC_KEY_MULTIBASE, this.getPublicKeyMultibase());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DidDocumentVerificationMethod that = (DidDocumentVerificationMethod) o;
+        return this.getId().equals(that.getId())
+                && this.type.equals(that.type)
+                && this.controller.equals(that.controller)
+                && Arrays.equals(this.publicKey, that.publicKey)
+                && Objects.equals(this.relationshipType, that.relationshipType);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(this.getId(), this.type, this.controller, this.relationshipType) + Arrays.hashCode(this.publicKey);
+    }
+
+    @Override
+    public String toString() {
+        return this.toJsonTree().toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.hedera.hashgraph.identity;
+
+import com.hedera.hashgraph.sdk.PublicKey;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from raw public keys to the DIDs whose documents use them, for key compromise handling.
+ * <p>
+ * A document is indexed by the keys of its owner and verification methods, which includes keys added by verification
+ * relationship events. Indexing a newer version of a document replaces the keys recorded for its DID, so revoked keys
+ * and deleted documents drop out of the index. Updates of different DIDs run concurrently and lookups never block;
+ * a lookup is a single hash probe on the key bytes.
+ */
+public class DidPublicKeyIndex {
+
+    private static final String[] NO_DIDS = new String[0];
+    private static final Key[] NO_KEYS = new Key[0];
+
+    // raw key -> DIDs using it, arrays are copied on write
+    private final ConcurrentHashMap<Key, String[]> didsByKey = new ConcurrentHashMap<>();
+    // DID -> distinct keys it was indexed with, used to remove stale entries
+    private final ConcurrentHashMap<String, Key[]> keysByDid = new ConcurrentHashMap<>();
+
+    /**
+     * Records the keys currently used by the document, replacing those recorded for an older version of it.
+     *
+     * @param document The materialized document.
+     */
+    public void index(DidDocument document) {
+        Key[] keys = keysOf(document);
+        keysByDid.compute(document.getId(), (did, previous) -> {
+            Key[] old = previous == null ? NO_KEYS : previous;
+            for (Key key : old) {
+                if (!contains(keys, key)) {
+                    didsByKey.computeIfPresent(key, (k, dids) -> without(dids, did));
+                }
+            }
+            for (Key key : keys) {
+                if (!contains(old, key)) {
+                    didsByKey.merge(key, new String[]{did}, DidPublicKeyIndex::with);
+                }
+            }
+            return keys.length == 0 ? null : keys;
+        });
+    }
+
+    /**
+     * Removes all keys recorded for the DID.
+     *
+     * @param did The DID.
+     */
+    public void remove(String did) {
+        keysByDid.computeIfPresent(did, (d, keys) -> {
+            for (Key key : keys) {
+                didsByKey.computeIfPresent(key, (k, dids) -> without(dids, d));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @param publicKey Raw public key bytes, e.g. the 32 bytes of an Ed25519 key.
+     * @return DIDs whose indexed documents use the key, in no particular order.
+     */
+    public Set<String> getDids(byte[] publicKey) {
+        String[] dids = didsByKey.get(new Key(publicKey));
+        return dids == null ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(Arrays.asList(dids)));
+    }
+
+    public Set<String> getDids(PublicKey publicKey) {
+        return getDids(publicKey.toBytes());
+    }
+
+    /**
+     * @return Number of indexed DIDs.
+     */
+    public int size() {
+        return keysByDid.size();
+    }
+
+    private static Key[] keysOf(DidDocument document) {
+        List<Key> keys = new ArrayList<>(document.getVerificationMethods().size() + 1);
+        if (document.getController() != null) {
+            keys.add(new Key(document.getController().getPublicKey()));
+        }
+        for (DidDocumentVerificationMethod verificationMethod : document.getVerificationMethods()) {
+            Key key = new Key(verificationMethod.getPublicKey());
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys.toArray(NO_KEYS);
+    }
+
+    private static boolean contains(Key[] keys, Key key) {
+        for (Key k : keys) {
+            if (k.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] with(String[] dids, String[] added) {
+        for (String did : dids) {
+            if (did.equals(added[0])) {
+                return dids;
+            }
+        }
+        String[] result = Arrays.copyOf(dids, dids.length + 1);
+        result[dids.length] = added[0];
+        return result;
+    }
+
+    private static String[] without(String[] dids, String did) {
+        List<String> result = new ArrayList<>(Arrays.asList(dids));
+        result.remove(did);
+        return result.isEmpty() ? null : result.toArray(NO_DIDS);
+    }
+
+    /**
+     * Raw key bytes compared by content.
+     */
+    private static final class Key {
+        private final byte[] bytes;
+        private final int hash;
+
+        Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof Key && Arrays.equals(this.bytes, ((Key) o).bytes));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
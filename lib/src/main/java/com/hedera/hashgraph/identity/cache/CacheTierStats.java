@@ -0,0 +1,46 @@
+package com.hedera.hashgraph.identity.cache;
+
+/**
+ * Snapshot of hit and miss counters of a single cache tier.
+ */
+public final class CacheTierStats {
+
+    private final String tier;
+    private final long hitCount;
+    private final long missCount;
+
+    public CacheTierStats(final String tier, final long hitCount, final long missCount) {
+        this.tier = tier;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+    }
+
+    public String getTier() {
+        return tier;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * @return Ratio of lookups answered by this tier, or 1.0 if the tier was never asked.
+     */
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{hits=%d, misses=%d, hitRate=%.4f}", tier, hitCount, missCount, getHitRate());
+    }
+}
@@ -0,0 +1,33 @@
+package com.hedera.hashgraph.identity.cache;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import org.threeten.bp.Instant;
+
+/**
+ * A cached DID document together with the consensus position it was resolved at.
+ */
+public final class CachedDidDocument {
+
+    private final DidDocument document;
+    private final Instant consensusTimestamp;
+
+    /**
+     * Creates a new cache entry.
+     *
+     * @param document           The resolved document.
+     * @param consensusTimestamp Consensus timestamp of the last topic message applied to the document.
+     *                           Messages after this timestamp are not reflected by the document.
+     */
+    public CachedDidDocument(final DidDocument document, final Instant consensusTimestamp) {
+        this.document = document;
+        this.consensusTimestamp = consensusTimestamp;
+    }
+
+    public DidDocument getDocument() {
+        return document;
+    }
+
+    public Instant getConsensusTimestamp() {
+        return consensusTimestamp;
+    }
+}
@@ -0,0 +1,470 @@
+package com.hedera.hashgraph.identity.cache;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentCborCodec;
+import com.hedera.hashgraph.identity.DidDocumentCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cache of encoded {@link DidDocument}s held outside the Java heap.
+ * <p>
+ * Documents are encoded with a {@link DidDocumentCodec} and appended to direct {@link ByteBuffer} slabs, so millions
+ * of cached documents cost no heap objects beyond a primitive open-addressing index keyed by a 64-bit DID hash.
+ * Slabs are allocated on demand until the byte budget is reached; after that the oldest slab is reclaimed and reused.
+ * Reclaiming gives a second chance to entries that were read since they were written or last reclaimed: they are
+ * moved to the front of the reused slab and only evicted if they are not read again before the slab comes up next.
+ * Unread entries are evicted in write order. Documents are decoded only when they are read.
+ * <p>
+ * Slab entry layout: DID length (int), document length (int), DID (UTF-8), encoded document.
+ */
+public class OffHeapDidDocumentCache {
+
+    /**
+     * Default size of a single slab.
+     */
+    public static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+    private static final int ENTRY_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private static final long EMPTY = 0L;
+
+    private final DidDocumentCodec codec;
+    private final int slabSize;
+    private final ByteBuffer[] slabs;
+    private final int[] slabEnds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // open-addressing index: hash of the DID, address (slab << 32 | offset) of its latest entry and whether it was read
+    private long[] indexHashes = new long[INITIAL_INDEX_CAPACITY];
+    private long[] indexAddresses = new long[INITIAL_INDEX_CAPACITY];
+    // set by readers under the read lock, a lost update only costs an entry its second chance
+    private boolean[] indexReferenced = new boolean[INITIAL_INDEX_CAPACITY];
+    private int size;
+
+    private int currentSlab = -1;
+    private int allocatedSlabs = 0;
+    private long liveBytes;
+
+    /**
+     * Creates a cache holding at most {@code byteBudget} bytes of documents encoded by {@link DidDocumentCborCodec}.
+     *
+     * @param byteBudget Maximum amount of off-heap memory used for documents.
+     */
+    public OffHeapDidDocumentCache(final long byteBudget) {
+        this(byteBudget, (int) Math.min(DEFAULT_SLAB_SIZE, byteBudget), new DidDocumentCborCodec());
+    }
+
+    /**
+     * Creates a cache holding at most {@code byteBudget} bytes of encoded documents.
+     *
+     * @param byteBudget Maximum amount of off-heap memory used for documents.
+     * @param slabSize   Size of a single slab, which is also the unit of eviction and the maximum document size.
+     * @param codec      Codec used to encode documents.
+     */
+    public OffHeapDidDocumentCache(final long byteBudget, final int slabSize, final DidDocumentCodec codec) {
+        if (slabSize <= ENTRY_HEADER_SIZE || byteBudget < slabSize) {
+            throw new IllegalArgumentException("Byte budget must hold at least one slab of a positive size.");
+        }
+        if (byteBudget / slabSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many slabs, increase the slab size.");
+        }
+
+        this.codec = codec;
+        this.slabSize = slabSize;
+        this.slabs = new ByteBuffer[(int) (byteBudget / slabSize)];
+        this.slabEnds = new int[this.slabs.length];
+    }
+
+    static long hash(final byte[] didBytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : didBytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        // final avalanche so that linear probing sees well-spread low bits
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+
+    /**
+     * Returns the cached document of the given DID, decoding it from off-heap memory.
+     *
+     * @param did The DID string.
+     * @return The document or null if it is not cached.
+     * @throws IOException if the cached bytes could not be decoded.
+     */
+    public DidDocument get(final String did) throws IOException {
+        byte[] encoded = getEncoded(did);
+        return encoded == null ? null : codec.decode(encoded);
+    }
+
+    /**
+     * Returns the encoded form of the cached document without decoding it.
+     *
+     * @param did The DID string.
+     * @return The encoded document or null if it is not cached.
+     */
+    public byte[] getEncoded(final String did) {
+        lock.readLock().lock();
+        try {
+            byte[] didBytes = did.getBytes(StandardCharsets.UTF_8);
+            int slot = find(didBytes, hash(didBytes));
+            if (slot < 0) {
+                misses.increment();
+                return null;
+            }
+
+            hits.increment();
+            indexReferenced[slot] = true;
+            long address = indexAddresses[slot];
+            ByteBuffer entry = slabs[slabOf(address)].duplicate();
+            entry.position(offsetOf(address));
+            int didLength = entry.getInt();
+            byte[] value = new byte[entry.getInt()];
+            entry.position(entry.position() + didLength);
+            entry.get(value);
+            return value;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Encodes and caches the document, replacing any previously cached version.
+     *
+     * @param document The document.
+     * @return False if the encoded document is larger than a slab and was not cached.
+     * @throws IOException if the document could not be encoded.
+     */
+    public boolean put(final DidDocument document) throws IOException {
+        return putEncoded(document.getId(), codec.encode(document));
+    }
+
+    /**
+     * Caches an already encoded document, replacing any previously cached version.
+     *
+     * @param did     The DID string.
+     * @param encoded The document encoded with this cache's codec.
+     * @return False if the encoded document is larger than a slab and was not cached.
+     */
+    public boolean putEncoded(final String did, final byte[] encoded) {
+        byte[] didBytes = did.getBytes(StandardCharsets.UTF_8);
+        int entrySize = ENTRY_HEADER_SIZE + didBytes.length + encoded.length;
+        if (entrySize > slabSize) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            long address = allocate(entrySize);
+            ByteBuffer entry = slabs[slabOf(address)].duplicate();
+            entry.position(offsetOf(address));
+            entry.putInt(didBytes.length).putInt(encoded.length).put(didBytes).put(encoded);
+
+            long hash = hash(didBytes);
+            int slot = find(didBytes, hash);
+            if (slot >= 0) {
+                liveBytes -= entrySizeAt(indexAddresses[slot]);
+                indexAddresses[slot] = address;
+            } else {
+                insert(hash, address);
+            }
+            liveBytes += entrySize;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the document of the given DID from the cache.
+     *
+     * @param did The DID string.
+     * @return True if a document was removed.
+     */
+    public boolean remove(final String did) {
+        lock.writeLock().lock();
+        try {
+            byte[] didBytes = did.getBytes(StandardCharsets.UTF_8);
+            int slot = find(didBytes, hash(didBytes));
+            if (slot < 0) {
+                return false;
+            }
+            liveBytes -= entrySizeAt(indexAddresses[slot]);
+            removeSlot(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops all cached documents. Allocated slabs are kept for reuse.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            indexHashes = new long[INITIAL_INDEX_CAPACITY];
+            indexAddresses = new long[INITIAL_INDEX_CAPACITY];
+            indexReferenced = new boolean[INITIAL_INDEX_CAPACITY];
+            size = 0;
+            liveBytes = 0;
+            currentSlab = -1;
+            Arrays.fill(slabEnds, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Bytes taken by the latest versions of cached documents.
+     */
+    public long getLiveBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Off-heap bytes allocated for slabs so far.
+     */
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) allocatedSlabs * slabSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getByteBudget() {
+        return (long) slabs.length * slabSize;
+    }
+
+    /**
+     * @return The codec used to encode cached documents.
+     */
+    public DidDocumentCodec getCodec() {
+        return codec;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /* Slab management */
+
+    private long allocate(final int entrySize) {
+        // Reclaimed slabs can stay full of second-chance entries, but reclaiming clears their read flags, so a slab
+        // with room comes up within two rounds.
+        while (currentSlab < 0 || slabEnds[currentSlab] + entrySize > slabSize) {
+            advanceSlab();
+        }
+
+        int offset = slabEnds[currentSlab];
+        slabEnds[currentSlab] = offset + entrySize;
+        return ((long) currentSlab << 32) | offset;
+    }
+
+    private void advanceSlab() {
+        int next = currentSlab + 1 == slabs.length ? 0 : currentSlab + 1;
+
+        if (slabs[next] == null) {
+            slabs[next] = ByteBuffer.allocateDirect(slabSize);
+            allocatedSlabs++;
+            slabEnds[next] = 0;
+        } else {
+            // all slabs are in use, reclaim the oldest one
+            slabEnds[next] = reclaimSlab(next);
+        }
+
+        currentSlab = next;
+    }
+
+    /**
+     * Evicts the unread entries of the slab and compacts the read ones to its front, clearing their read flags.
+     *
+     * @return The end of the kept entries, where new entries are appended.
+     */
+    private int reclaimSlab(final int slab) {
+        ByteBuffer buffer = slabs[slab].duplicate();
+        int position = 0;
+        int kept = 0;
+
+        while (position < slabEnds[slab]) {
+            buffer.position(position);
+            int didLength = buffer.getInt();
+            int valueLength = buffer.getInt();
+            int entrySize = ENTRY_HEADER_SIZE + didLength + valueLength;
+            byte[] didBytes = new byte[didLength];
+            buffer.get(didBytes);
+
+            long address = ((long) slab << 32) | position;
+            int slot = find(didBytes, hash(didBytes));
+            if (slot >= 0 && indexAddresses[slot] == address) {
+                if (indexReferenced[slot]) {
+                    indexReferenced[slot] = false;
+                    if (kept != position) {
+                        // kept <= position, so only entries that were already visited are overwritten
+                        byte[] entry = new byte[entrySize];
+                        buffer.position(position);
+                        buffer.get(entry);
+                        buffer.position(kept);
+                        buffer.put(entry);
+                    }
+                    indexAddresses[slot] = ((long) slab << 32) | kept;
+                    kept += entrySize;
+                } else {
+                    liveBytes -= entrySize;
+                    removeSlot(slot);
+                    evictions.increment();
+                }
+            }
+            position += entrySize;
+        }
+        return kept;
+    }
+
+    private int entrySizeAt(final long address) {
+        ByteBuffer buffer = slabs[slabOf(address)];
+        int offset = offsetOf(address);
+        return ENTRY_HEADER_SIZE + buffer.getInt(offset) + buffer.getInt(offset + Integer.BYTES);
+    }
+
+    private static int slabOf(final long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offsetOf(final long address) {
+        return (int) address;
+    }
+
+    /* Open-addressing index with linear probing and backward-shift deletion */
+
+    private int find(final byte[] didBytes, final long hash) {
+        int mask = indexHashes.length - 1;
+        int slot = (int) hash & mask;
+
+        while (indexHashes[slot] != EMPTY) {
+            if (indexHashes[slot] == hash && didMatches(indexAddresses[slot], didBytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean didMatches(final long address, final byte[] didBytes) {
+        ByteBuffer buffer = slabs[slabOf(address)];
+        int offset = offsetOf(address);
+        int didLength = buffer.getInt(offset);
+        if (didLength != didBytes.length) {
+            return false;
+        }
+
+        int start = offset + ENTRY_HEADER_SIZE;
+        for (int i = 0; i < didLength; i++) {
+            if (buffer.get(start + i) != didBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(final long hash, final long address) {
+        if ((size + 1) * 4L > indexHashes.length * 3L) {
+            resizeIndex(indexHashes.length * 2);
+        }
+        insertSlot(indexHashes, indexAddresses, indexReferenced, hash, address, false);
+        size++;
+    }
+
+    private static void insertSlot(
+            final long[] hashes,
+            final long[] addresses,
+            final boolean[] referenced,
+            final long hash,
+            final long address,
+            final boolean read
+    ) {
+        int mask = hashes.length - 1;
+        int slot = (int) hash & mask;
+        while (hashes[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        addresses[slot] = address;
+        referenced[slot] = read;
+    }
+
+    private void resizeIndex(final int capacity) {
+        long[] hashes = new long[capacity];
+        long[] addresses = new long[capacity];
+        boolean[] referenced = new boolean[capacity];
+        for (int i = 0; i < indexHashes.length; i++) {
+            if (indexHashes[i] != EMPTY) {
+                insertSlot(hashes, addresses, referenced, indexHashes[i], indexAddresses[i], indexReferenced[i]);
+            }
+        }
+        indexHashes = hashes;
+        indexAddresses = addresses;
+        indexReferenced = referenced;
+    }
+
+    private void removeSlot(final int removed) {
+        int mask = indexHashes.length - 1;
+        int hole = removed;
+        int slot = (removed + 1) & mask;
+
+        while (indexHashes[slot] != EMPTY) {
+            int home = (int) indexHashes[slot] & mask;
+            // move the entry into the hole unless its home slot lies cyclically in (hole, slot]
+            boolean keep = hole <= slot ? (home > hole && home <= slot) : (home > hole || home <= slot);
+            if (!keep) {
+                indexHashes[hole] = indexHashes[slot];
+                indexAddresses[hole] = indexAddresses[slot];
+                indexReferenced[hole] = indexReferenced[slot];
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        indexHashes[hole] = EMPTY;
+        indexAddresses[hole] = 0;
+        indexReferenced[hole] = false;
+        size--;
+    }
+}
@@ -0,0 +1,558 @@
+package com.hedera.hashgraph.identity.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentCborCodec;
+import com.hedera.hashgraph.identity.DidDocumentCodec;
+import com.hedera.hashgraph.identity.DidDocumentRejectionListener;
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import com.hedera.hashgraph.identity.hcs.did.HcsDid;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidSignatureVerifier;
+import com.hedera.hashgraph.identity.hcs.log.HcsEventLog;
+import com.google.common.io.BaseEncoding;
+import com.hedera.hashgraph.sdk.TopicId;
+import org.threeten.bp.Instant;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolution cache spreading DID documents over three tiers:
+ * <ul>
+ *     <li>L1 - a small on-heap LRU of fully materialized documents,</li>
+ *     <li>L2 - an {@link OffHeapDidDocumentCache} of encoded documents that were evicted from L1,</li>
+ *     <li>L3 - local {@link HcsEventLog}s of DID topics, from which documents are rebuilt without the mirror node.</li>
+ * </ul>
+ * Entries found in a lower tier are promoted to L1, entries evicted from L1 are demoted to L2. L2 and L3 are optional.
+ * Every entry carries the consensus timestamp it was resolved at, so that callers can catch up with newer messages
+ * instead of replaying the whole topic.
+ * <p>
+ * Rebuilding a document applies the same messages as resolution: all valid DID messages of the topic, verified by the
+ * {@link #setSignatureVerifier(HcsDidSignatureVerifier) signature verifier} if one is set. Every rebuilt document is
+ * stored as a checkpoint next to the event log, together with the sequence number of the last message it reflects, so
+ * later rebuilds only scan the messages appended since then.
+ * <p>
+ * The hottest L1 entries can be {@link #save(Path, int) saved} on shutdown and {@link #load(Path) loaded} on startup,
+ * so that a restarted resolver does not begin with an empty cache.
+ */
+public class TieredDidDocumentCache implements Closeable {
+
+    /**
+     * Default number of documents kept on-heap.
+     */
+    public static final int DEFAULT_L1_SIZE = 1_000;
+
+    private static final int CURSOR_SIZE = Long.BYTES + Integer.BYTES;
+    private static final long NO_CURSOR = Long.MIN_VALUE;
+    private static final int SNAPSHOT_MAGIC = 0x48444353; // "HDCS"
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int CHECKPOINT_MAGIC = 0x48444350; // "HDCP"
+    private static final String CHECKPOINT_EXTENSION = ".checkpoint";
+
+    private final Cache<String, HotEntry> l1;
+    private final OffHeapDidDocumentCache l2;
+    private final DidDocumentCodec codec;
+    private final Path eventLogDirectory;
+    private final Map<TopicId, HcsEventLog> eventLogs = new ConcurrentHashMap<>();
+    private HcsDidSignatureVerifier signatureVerifier;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l1Misses = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+    private final LongAdder l3Hits = new LongAdder();
+    private final LongAdder l3Misses = new LongAdder();
+
+    /**
+     * Creates a new tiered cache.
+     *
+     * @param l1MaximumSize     Maximum number of documents kept on-heap.
+     * @param l2                Off-heap tier receiving documents evicted from L1, or null to drop them.
+     * @param eventLogDirectory Directory holding one event log per DID topic, or null to disable L3.
+     */
+    public TieredDidDocumentCache(final int l1MaximumSize, final OffHeapDidDocumentCache l2, final Path eventLogDirectory) {
+        if (l1MaximumSize <= 0) {
+            throw new IllegalArgumentException("L1 size must be positive.");
+        }
+
+        this.l2 = l2;
+        this.codec = l2 != null ? l2.getCodec() : new DidDocumentCborCodec();
+        this.eventLogDirectory = eventLogDirectory;
+        // Reads do not lock, and evicted entries are demoted by the removal listener after the cache lock is released.
+        this.l1 = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumSize(l1MaximumSize)
+                .removalListener(this::demote)
+                .build();
+    }
+
+    /**
+     * Looks the document up in all tiers, promoting it to L1 when found in a lower one.
+     *
+     * @param did The DID string.
+     * @return The cached document or null if no tier knows it.
+     * @throws IOException if an off-heap entry could not be decoded or an event log could not be read.
+     */
+    public CachedDidDocument get(final String did) throws IOException {
+        HotEntry hot = l1.getIfPresent(did);
+        if (hot != null) {
+            l1Hits.increment();
+            hot.lastAccess = System.nanoTime();
+            return hot.entry;
+        }
+        l1Misses.increment();
+
+        CachedDidDocument entry;
+        if (l2 != null) {
+            byte[] framed = l2.getEncoded(did);
+            if (framed != null) {
+                l2Hits.increment();
+                entry = unframe(framed);
+                l2.remove(did);
+                promote(did, entry);
+                return entry;
+            }
+            l2Misses.increment();
+        }
+
+        if (eventLogDirectory != null) {
+            entry = rebuild(did);
+            if (entry != null) {
+                l3Hits.increment();
+                promote(did, entry);
+                return entry;
+            }
+            l3Misses.increment();
+        }
+
+        return null;
+    }
+
+    /**
+     * Caches a freshly resolved document in L1.
+     * An immutable snapshot is cached, so later changes of a mutable document are not visible to cache readers.
+     *
+     * @param document           The document.
+     * @param consensusTimestamp Consensus timestamp of the last topic message reflected by the document.
+     */
+    public void put(final DidDocument document, final Instant consensusTimestamp) {
+        if (l2 != null) {
+            l2.remove(document.getId());
+        }
+        promote(document.getId(), new CachedDidDocument(document.snapshot(), consensusTimestamp));
+    }
+
+    /**
+     * Removes the document from L1 and L2. The event log is kept, so the document is rebuilt from it on next lookup.
+     *
+     * @param did The DID string.
+     */
+    public void invalidate(final String did) {
+        l1.invalidate(did);
+        if (l2 != null) {
+            l2.remove(did);
+        }
+    }
+
+    /**
+     * Stores resolved topic messages in the L3 event log of the topic.
+     * <p>
+     * Documents can only be rebuilt from a complete history, so messages are only stored if they were read from a
+     * start time that leaves no gap after the latest stored message, and an empty log is only started from messages
+     * read from the beginning of the topic. Rejected messages are fetched again by the next resolution starting from a
+     * document rebuilt from the log, as that reads from the log's latest consensus timestamp. Messages that are already
+     * stored are skipped.
+     *
+     * @param topicId   The DID topic.
+     * @param envelopes Messages in consensus order as returned by the resolver.
+     * @param startTime Consensus time the resolver started reading the topic from, {@link Instant#MIN} for the beginning.
+     * @return Number of newly stored messages.
+     * @throws IOException if the event log could not be written.
+     */
+    public int record(final TopicId topicId, final List<MessageEnvelope<HcsDidMessage>> envelopes, final Instant startTime) throws IOException {
+        if (eventLogDirectory == null) {
+            return 0;
+        }
+
+        HcsEventLog log = eventLog(topicId, true);
+        int appended = 0;
+        synchronized (log) {
+            if (!log.isContinuedBy(startTime)) {
+                return 0;
+            }
+
+            for (MessageEnvelope<HcsDidMessage> envelope : envelopes) {
+                SerializableMirrorConsensusResponse response = envelope.getMirrorResponse();
+                if (response != null && log.append(response)) {
+                    appended++;
+                }
+            }
+        }
+        return appended;
+    }
+
+    public CacheTierStats getL1Stats() {
+        return new CacheTierStats("L1", l1Hits.sum(), l1Misses.sum());
+    }
+
+    public CacheTierStats getL2Stats() {
+        return new CacheTierStats("L2", l2Hits.sum(), l2Misses.sum());
+    }
+
+    public CacheTierStats getL3Stats() {
+        return new CacheTierStats("L3", l3Hits.sum(), l3Misses.sum());
+    }
+
+    /**
+     * @return Number of documents currently held on-heap.
+     */
+    public long getL1Size() {
+        return l1.size();
+    }
+
+    /**
+     * Writes the most recently used L1 entries with their consensus timestamps to a snapshot file.
+     * The file is replaced atomically, so a crash while saving leaves the previous snapshot intact.
+     * Documents are encoded with the codec of L2, or with {@link DidDocumentCborCodec} if there is no L2.
+     *
+     * @param file       The snapshot file.
+     * @param maxEntries Maximum number of entries to save, hottest first.
+     * @return Number of saved entries.
+     * @throws IOException if the snapshot could not be written.
+     */
+    public int save(final Path file, final int maxEntries) throws IOException {
+        List<Map.Entry<String, HotEntry>> hottest = new ArrayList<>(l1.asMap().entrySet());
+        hottest.sort(Comparator.comparingLong((Map.Entry<String, HotEntry> e) -> e.getValue().lastAccess).reversed());
+        if (hottest.size() > maxEntries) {
+            hottest = hottest.subList(0, maxEntries);
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(hottest.size());
+            for (Map.Entry<String, HotEntry> entry : hottest) {
+                byte[] framed = frame(entry.getValue().entry);
+                out.writeUTF(entry.getKey());
+                out.writeInt(framed.length);
+                out.write(framed);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return hottest.size();
+    }
+
+    /**
+     * Loads entries saved by {@link #save(Path, int)} into L1, keeping their hotness order.
+     * Entries that are already cached are not replaced.
+     * <p>
+     * Loaded documents are as old as the snapshot, callers should revalidate them by resolving the returned DIDs,
+     * which only reads messages published after the saved consensus timestamps.
+     *
+     * @param file The snapshot file.
+     * @return DIDs of the loaded entries, hottest first. Empty if the snapshot does not exist.
+     * @throws IOException if the snapshot is corrupted or was written by an incompatible version.
+     */
+    public List<String> load(final Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Collections.emptyList();
+        }
+
+        List<String> dids = new ArrayList<>();
+        List<CachedDidDocument> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a DID document cache snapshot: " + file);
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String did = in.readUTF();
+                byte[] framed = new byte[in.readInt()];
+                in.readFully(framed);
+                dids.add(did);
+                entries.add(unframe(framed));
+            }
+        }
+
+        // Insert coldest first so that the hottest entries end up as the most recently used ones.
+        List<String> loaded = new ArrayList<>();
+        for (int i = dids.size() - 1; i >= 0; i--) {
+            if (l1.asMap().putIfAbsent(dids.get(i), new HotEntry(entries.get(i))) == null) {
+                loaded.add(dids.get(i));
+            }
+        }
+        Collections.reverse(loaded);
+
+        return loaded;
+    }
+
+    public OffHeapDidDocumentCache getL2() {
+        return l2;
+    }
+
+    public HcsDidSignatureVerifier getSignatureVerifier() {
+        return signatureVerifier;
+    }
+
+    /**
+     * Verifies the signatures of messages applied when rebuilding documents from the event logs. Should be the
+     * verifier used by the resolutions that fill this cache, or null if they are not verified.
+     *
+     * @param signatureVerifier The verifier, or null to apply all valid messages.
+     * @return This cache.
+     */
+    public TieredDidDocumentCache setSignatureVerifier(final HcsDidSignatureVerifier signatureVerifier) {
+        this.signatureVerifier = signatureVerifier;
+        return this;
+    }
+
+    /**
+     * Seals all open event logs.
+     *
+     * @throws IOException if an event log could not be sealed.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (HcsEventLog log : eventLogs.values()) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        eventLogs.clear();
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private CachedDidDocument rebuild(final String did) throws IOException {
+        TopicId topicId;
+        try {
+            topicId = HcsDid.parseIdentifier(did).getValue1();
+        } catch (DidError | RuntimeException e) {
+            return null;
+        }
+
+        HcsEventLog log = eventLog(topicId, false);
+        if (log == null) {
+            return null;
+        }
+
+        synchronized (log) {
+            Path checkpointFile = checkpointFile(log, did);
+            Checkpoint checkpoint = readCheckpoint(checkpointFile, did);
+            // A checkpoint ahead of the log reflects messages that were lost with the unsealed tail.
+            if (checkpoint != null && checkpoint.sequenceNumber > log.getLastSequenceNumber()) {
+                checkpoint = null;
+            }
+            long fromSequenceNumber = checkpoint == null ? 0 : checkpoint.sequenceNumber + 1;
+
+            List<MessageEnvelope<HcsDidMessage>> envelopes = new ArrayList<>();
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            log.scan(fromSequenceNumber, response -> {
+                if (failure.get() != null) {
+                    return;
+                }
+                try {
+                    MessageEnvelope<HcsDidMessage> envelope = MessageEnvelope.fromMirrorResponse(response, HcsDidMessage.class);
+                    HcsDidMessage message = envelope.open();
+                    // Same check as the topic listener that delivers messages to resolution.
+                    if (message != null && message.isValid(topicId)) {
+                        envelopes.add(envelope);
+                    }
+                } catch (Exception e) {
+                    failure.set(e);
+                }
+            });
+
+            if (failure.get() != null) {
+                throw new IOException("Event log of topic " + topicId + " contains an unreadable message.", failure.get());
+            }
+            if (checkpoint == null && envelopes.isEmpty()) {
+                return null;
+            }
+
+            DidDocument document = checkpoint != null ? checkpoint.entry.getDocument() : new DidDocument(did, new HcsDidMessage[0]);
+            if (signatureVerifier != null) {
+                document = signatureVerifier.apply(document, envelopes, DidDocumentRejectionListener.NONE);
+            } else {
+                for (MessageEnvelope<HcsDidMessage> envelope : envelopes) {
+                    if (document.isImmutable()) {
+                        document = document.with(envelope.open());
+                    } else {
+                        document.apply(envelope.open());
+                    }
+                }
+            }
+
+            CachedDidDocument entry = new CachedDidDocument(document.snapshot(), log.getLastConsensusTimestamp());
+            if (checkpoint == null || !envelopes.isEmpty()) {
+                writeCheckpoint(checkpointFile, did, log.getLastSequenceNumber(), entry);
+            }
+            return entry;
+        }
+    }
+
+    private static Path checkpointFile(final HcsEventLog log, final String did) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(did.getBytes(StandardCharsets.UTF_8));
+            return log.getDirectory().resolve(BaseEncoding.base16().lowerCase().encode(hash) + CHECKPOINT_EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return The checkpoint of the DID, or null if there is no readable one.
+     */
+    private Checkpoint readCheckpoint(final Path file, final String did) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || !did.equals(in.readUTF())) {
+                return null;
+            }
+            long sequenceNumber = in.readLong();
+            byte[] framed = new byte[in.readInt()];
+            in.readFully(framed);
+            return new Checkpoint(sequenceNumber, unframe(framed));
+        } catch (IOException e) {
+            // Damaged checkpoints are ignored, the document is rebuilt from the start of the log.
+            return null;
+        }
+    }
+
+    private void writeCheckpoint(final Path file, final String did, final long sequenceNumber, final CachedDidDocument entry) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            byte[] framed = frame(entry);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeUTF(did);
+                out.writeLong(sequenceNumber);
+                out.writeInt(framed.length);
+                out.write(framed);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Without a checkpoint the next rebuild scans the whole log again.
+        }
+    }
+
+    private HcsEventLog eventLog(final TopicId topicId, final boolean create) throws IOException {
+        HcsEventLog log = eventLogs.get(topicId);
+        if (log != null) {
+            return log;
+        }
+
+        Path directory = eventLogDirectory.resolve(topicId.toString());
+        if (!create && !Files.isDirectory(directory)) {
+            return null;
+        }
+
+        synchronized (eventLogs) {
+            log = eventLogs.get(topicId);
+            if (log == null) {
+                log = new HcsEventLog(directory);
+                eventLogs.put(topicId, log);
+            }
+            return log;
+        }
+    }
+
+    private void promote(final String did, final CachedDidDocument entry) {
+        l1.put(did, new HotEntry(entry));
+    }
+
+    private void demote(final RemovalNotification<String, HotEntry> notification) {
+        if (l2 == null || notification.getCause() != RemovalCause.SIZE) {
+            return;
+        }
+
+        try {
+            l2.putEncoded(notification.getKey(), frame(notification.getValue().entry));
+        } catch (IOException e) {
+            // Dropping the entry is fine, it is rebuilt from the event log or the mirror node.
+        }
+    }
+
+    private byte[] frame(final CachedDidDocument entry) throws IOException {
+        byte[] encoded = codec.encode(entry.getDocument());
+        Instant cursor = entry.getConsensusTimestamp();
+
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_SIZE + encoded.length);
+        buffer.putLong(cursor == null ? NO_CURSOR : cursor.getEpochSecond());
+        buffer.putInt(cursor == null ? 0 : cursor.getNano());
+        buffer.put(encoded);
+        return buffer.array();
+    }
+
+    private CachedDidDocument unframe(final byte[] framed) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(framed);
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        byte[] encoded = new byte[buffer.remaining()];
+        buffer.get(encoded);
+
+        // Decoded documents are shared by all readers like those cached by put(), so they are frozen as well.
+        Instant cursor = seconds == NO_CURSOR ? null : Instant.ofEpochSecond(seconds, nanos);
+        return new CachedDidDocument(codec.decode(encoded).snapshot(), cursor);
+    }
+
+    /**
+     * L1 entry with the time it was last read, which orders entries by hotness in snapshots.
+     */
+    private static final class HotEntry {
+        private final CachedDidDocument entry;
+        private volatile long lastAccess = System.nanoTime();
+
+        private HotEntry(final CachedDidDocument entry) {
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Document rebuilt from an event log, with the sequence number of the last message it reflects.
+     */
+    private static final class Checkpoint {
+        private final long sequenceNumber;
+        private final CachedDidDocument entry;
+
+        private Checkpoint(final long sequenceNumber, final CachedDidDocument entry) {
+            this.sequenceNumber = sequenceNumber;
+            this.entry = entry;
+        }
+    }
+}
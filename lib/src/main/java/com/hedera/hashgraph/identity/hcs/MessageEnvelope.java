@@ -1,6 +1,9 @@
 package com.hedera.hashgraph.identity.hcs;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -11,9 +14,11 @@ import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.TopicMessage;
 import org.threeten.bp.Instant;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
@@ -22,9 +27,12 @@ public class MessageEnvelope<T extends HcsDidMessage> {
 
     private static final String MESSAGE_KEY = "message";
     private static final String SIGNATURE_KEY = "signature";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     protected T message;
     protected String signature;
+    // The exact bytes of the message object as received or signed, verified instead of re-serializing the message.
+    protected byte[] messageBytes;
     protected SerializableMirrorConsensusResponse mirrorResponse;
 
     public MessageEnvelope() {
@@ -49,14 +57,33 @@ public class MessageEnvelope<T extends HcsDidMessage> {
     public static <U extends HcsDidMessage> MessageEnvelope<U> fromMirrorResponse(
             final TopicMessage response, final Class<U> messageClass) throws JsonProcessingException, InvocationTargetException, NoSuchMethodException, IllegalAccessException {
 
-        String msgJson = new String(response.contents, StandardCharsets.UTF_8);
-
-        MessageEnvelope<U> result = MessageEnvelope.fromJson(msgJson, messageClass);
+        MessageEnvelope<U> result = MessageEnvelope.fromJson(response.contents, messageClass);
         result.mirrorResponse = new SerializableMirrorConsensusResponse(response);
 
         return result;
     }
 
+    /**
+     * Converts a stored copy of a mirror response (e.g. read from a local event log) into object instance.
+     *
+     * @param <U>          Type of the message inside envelope.
+     * @param response     Serializable copy of the topic message.
+     * @param messageClass Class type of the message inside envelope.
+     * @return The {@link MessageEnvelope}.
+     * @throws JsonProcessingException   if problems encountered when processing (parsing, generating) JSON content of message
+     * @throws NoSuchMethodException     throws when method fromJsonTree not found in messageClass
+     * @throws InvocationTargetException throws when fail to invoke fromJsonTree method of messageClass
+     * @throws IllegalAccessException    throws when fail to invoke fromJsonTree method of messageClass
+     */
+    public static <U extends HcsDidMessage> MessageEnvelope<U> fromMirrorResponse(
+            final SerializableMirrorConsensusResponse response, final Class<U> messageClass) throws JsonProcessingException, InvocationTargetException, NoSuchMethodException, IllegalAccessException {
+
+        MessageEnvelope<U> result = MessageEnvelope.fromJson(response.message, messageClass);
+        result.mirrorResponse = response;
+
+        return result;
+    }
+
     /**
      * Converts a VC topic message from a JSON string into object instance.
      *
@@ -70,21 +97,67 @@ public class MessageEnvelope<T extends HcsDidMessage> {
      * @throws IllegalAccessException    throws when fail to invoke fromJsonTree method of messageClass
      */
     public static <U extends HcsDidMessage> MessageEnvelope<U> fromJson(final String json, final Class<U> messageClass) throws JsonProcessingException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        return fromJson(json.getBytes(StandardCharsets.UTF_8), messageClass);
+    }
+
+    /**
+     * Converts a VC topic message from UTF-8 JSON bytes into object instance.
+     * The byte range of the message object is kept, so that its signature is verified against the exact bytes that
+     * were received. Messages of exactly {@link HcsDidMessage} are decoded while parsing the envelope; subclasses are
+     * decoded with their own {@code fromJsonTree} method, so that they can read additional fields.
+     *
+     * @param <U>          Type of the message inside envelope.
+     * @param json         VC topic message as UTF-8 JSON bytes.
+     * @param messageClass Class of the message inside envelope.
+     * @return The {@link MessageEnvelope}.
+     * @throws JsonProcessingException   if problems encountered when processing (parsing, generating) JSON content of message
+     * @throws NoSuchMethodException     throws when method fromJsonTree not found in messageClass
+     * @throws InvocationTargetException throws when fail to invoke fromJsonTree method of messageClass
+     * @throws IllegalAccessException    throws when fail to invoke fromJsonTree method of messageClass
+     */
+    public static <U extends HcsDidMessage> MessageEnvelope<U> fromJson(final byte[] json, final Class<U> messageClass) throws JsonProcessingException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
 
         MessageEnvelope<U> result = new MessageEnvelope<>();
 
-        // extract original message JSON part separately to be able to verify signature.
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode jsonNode = mapper.readTree(json);
-        if (jsonNode.has(MESSAGE_KEY)) {
-            Method fromJsonTree = messageClass.getMethod("fromJsonTree", JsonNode.class);
-            result.message = (U) fromJsonTree.invoke(null, jsonNode.get(MESSAGE_KEY));
-        } else {
-            result.message = null;
+        // Read the top-level fields in a single pass, recording where the message object starts and ends.
+        JsonNode messageNode = null;
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (MESSAGE_KEY.equals(field)) {
+                        long start = parser.getTokenLocation().getByteOffset();
+                        if (messageClass == HcsDidMessage.class && value == JsonToken.START_OBJECT) {
+                            // DID messages are decoded in the same pass, without a tree or reflection.
+                            result.message = messageClass.cast(HcsDidMessage.fromJson(parser));
+                            messageNode = null;
+                        } else {
+                            result.message = null;
+                            messageNode = OBJECT_MAPPER.readTree(parser);
+                        }
+                        long end = parser.getCurrentLocation().getByteOffset();
+                        result.messageBytes = value == JsonToken.START_OBJECT && start >= 0 && end <= json.length
+                                ? Arrays.copyOfRange(json, (int) start, (int) end)
+                                : null;
+                    } else if (SIGNATURE_KEY.equals(field) && value == JsonToken.VALUE_STRING) {
+                        result.signature = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.fromUnexpectedIOE(e);
         }
 
-        if (jsonNode.has(SIGNATURE_KEY) && jsonNode.get(SIGNATURE_KEY) != null) {
-            result.signature = jsonNode.get(SIGNATURE_KEY).toString();
+        if (messageNode != null && !messageNode.isNull()) {
+            Method fromJsonTree = messageClass.getMethod("fromJsonTree", JsonNode.class);
+            result.message = messageClass.cast(fromJsonTree.invoke(null, messageNode));
+        } else if (result.message == null) {
+            result.messageBytes = null;
         }
 
         return result;
@@ -117,6 +190,7 @@ public class MessageEnvelope<T extends HcsDidMessage> {
         byte[] msgBytes = this.message.toJSON().getBytes(StandardCharsets.UTF_8);
         byte[] signatureBytes = signer.apply(msgBytes);
         signature = new String(Base64.getEncoder().encode(signatureBytes), StandardCharsets.UTF_8);
+        messageBytes = msgBytes;
 
         return this.toJSON().getBytes(StandardCharsets.UTF_8);
     }
@@ -140,6 +214,7 @@ public class MessageEnvelope<T extends HcsDidMessage> {
         byte[] msgBytes = this.message.toJSON().getBytes(StandardCharsets.UTF_8);
         byte[] signatureBytes = privateKey.sign(msgBytes);
         signature = new String(Base64.getEncoder().encode(signatureBytes), StandardCharsets.UTF_8);
+        messageBytes = msgBytes;
 
         return this.toJSON().getBytes(StandardCharsets.UTF_8);
     }
@@ -167,6 +242,21 @@ public class MessageEnvelope<T extends HcsDidMessage> {
      * @throws JsonProcessingException if problems encountered when processing (parsing, generating) JSON content of message
      */
     public boolean isSignatureValid(final Function<MessageEnvelope<T>, PublicKey> publicKeyProvider) throws JsonProcessingException {
+        return this.isSignatureValid(publicKeyProvider, null);
+    }
+
+    /**
+     * Verifies the signature of the envelope against the public key of it's signer, reusing earlier results.
+     *
+     * @param publicKeyProvider Provider of a public key of this envelope signer.
+     * @param cache             Cache of verification results, or null to always verify.
+     * @return True if the message is valid, false otherwise.
+     * @throws JsonProcessingException if problems encountered when processing (parsing, generating) JSON content of message
+     */
+    public boolean isSignatureValid(
+            final Function<MessageEnvelope<T>, PublicKey> publicKeyProvider,
+            final SignatureVerificationCache cache
+    ) throws JsonProcessingException {
         if (Strings.isNullOrEmpty(signature) || message == null) {
             return false;
         }
@@ -177,9 +267,25 @@ public class MessageEnvelope<T extends HcsDidMessage> {
         }
 
         byte[] signatureToVerify = Base64.getDecoder().decode(signature.getBytes(StandardCharsets.UTF_8));
-        byte[] messageBytes = this.message.toJSON().getBytes(StandardCharsets.UTF_8);
+        byte[] messageBytes = this.messageBytes != null
+                ? this.messageBytes
+                : this.message.toJSON().getBytes(StandardCharsets.UTF_8);
 
-        return publicKey.verify(messageBytes, signatureToVerify);
+        return cache != null
+                ? cache.verify(publicKey, messageBytes, signatureToVerify)
+                : publicKey.verify(messageBytes, signatureToVerify);
+    }
+
+    /**
+     * @return The bytes the signature is verified against: the message object exactly as it was received or signed,
+     * or the serialized message for envelopes that were built locally and not signed yet.
+     * @throws JsonProcessingException if the message had to be serialized and serialization failed
+     */
+    public byte[] getSignedBytes() throws JsonProcessingException {
+        if (this.messageBytes != null) {
+            return this.messageBytes.clone();
+        }
+        return this.message == null ? null : this.message.toJSON().getBytes(StandardCharsets.UTF_8);
     }
 
     public T open() {
@@ -27,6 +27,24 @@ public class SerializableMirrorConsensusResponse implements Serializable {
         this.runningHash = response.runningHash;
         this.sequenceNumber = response.sequenceNumber;
     }
+
+    /**
+     * Re-creates a mirror response from its stored parts, e.g. when reading it back from a local event log.
+     *
+     * @param consensusTimestamp The consensus timestamp of the message.
+     * @param message            The raw message contents.
+     * @param runningHash        The running hash of the topic after this message.
+     * @param sequenceNumber     The sequence number of the message in the topic.
+     */
+    public SerializableMirrorConsensusResponse(final Instant consensusTimestamp,
+                                               final byte[] message,
+                                               final byte[] runningHash,
+                                               final long sequenceNumber) {
+        this.consensusTimestamp = consensusTimestamp;
+        this.message = message;
+        this.runningHash = runningHash;
+        this.sequenceNumber = sequenceNumber;
+    }
     
     @Override
     public String toString() {
@@ -0,0 +1,146 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.identity.cache.CacheTierStats;
+import com.hedera.hashgraph.sdk.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of signature verification results, so that envelopes seen before are not verified again on every
+ * cold resolution or repeated {@link MessageEnvelope#isSignatureValid} call.
+ * <p>
+ * Results are keyed by a SHA-256 digest over the public key, the signature and the signed bytes, which identifies
+ * the (key, message, signature) triple without holding the message. Both valid and invalid results are cached.
+ * The least recently used results are evicted once the maximum size is reached.
+ */
+public class SignatureVerificationCache {
+
+    /**
+     * Default maximum number of cached results.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private final int maximumSize;
+    private final LinkedHashMap<Key, Boolean> results;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SignatureVerificationCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize Maximum number of cached results.
+     */
+    public SignatureVerificationCache(final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+
+        this.maximumSize = maximumSize;
+        this.results = new LinkedHashMap<Key, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Boolean> eldest) {
+                if (size() <= SignatureVerificationCache.this.maximumSize) {
+                    return false;
+                }
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Verifies the signature, or returns the result of an earlier verification of the same triple.
+     *
+     * @param publicKey The public key of the signer.
+     * @param message   The signed bytes.
+     * @param signature The signature.
+     * @return True if the signature is valid.
+     */
+    public boolean verify(final PublicKey publicKey, final byte[] message, final byte[] signature) {
+        Key key = Key.of(publicKey.toBytes(), message, signature);
+
+        Boolean cached;
+        synchronized (results) {
+            cached = results.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        boolean valid = publicKey.verify(message, signature);
+        synchronized (results) {
+            results.put(key, valid);
+        }
+        return valid;
+    }
+
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public CacheTierStats getStats() {
+        return new CacheTierStats("signatures", hits.sum(), misses.sum());
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    private static final class Key {
+        private final byte[] digest;
+        private final int hash;
+
+        private Key(final byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        static Key of(final byte[] publicKey, final byte[] message, final byte[] signature) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                // Lengths separate the fields, so that bytes cannot move from one field to the next.
+                digest.update(ByteBuffer.allocate(Integer.BYTES * 2).putInt(publicKey.length).putInt(signature.length).array());
+                digest.update(publicKey);
+                digest.update(signature);
+                digest.update(message);
+                return new Key(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return this == o || (o instanceof Key && Arrays.equals(digest, ((Key) o).digest));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentVerificationMethod;
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.cache.CachedDidDocument;
+import com.hedera.hashgraph.identity.cache.TieredDidDocumentCache;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.sdk.Client;
+
+import java.io.IOException;
+
+/**
+ * Checks whether a signature was made by a key a DID authorizes for a verification relationship.
+ * <p>
+ * Documents are taken from the resolution cache without contacting the mirror node, and only DIDs missing from the
+ * cache are resolved. The key and its relationships are looked up in the document's indexes and the public key is
+ * decoded once per verification method, so a cache hit costs a few hash lookups and the signature check.
+ * Cached documents are as fresh as their last resolution; keep them current by resolving through the same cache,
+ * e.g. with {@link #refresh(String)}.
+ */
+public class DidAuthorizer {
+
+    private final TieredDidDocumentCache cache;
+    private final Client client;
+
+    /**
+     * Creates a new authorizer.
+     *
+     * @param cache  The resolution cache shared with {@link HcsDid#setResolutionCache(TieredDidDocumentCache)}.
+     * @param client Client used to resolve DIDs that are not cached, or null to only use cached documents.
+     */
+    public DidAuthorizer(final TieredDidDocumentCache cache, final Client client) {
+        this.cache = cache;
+        this.client = client;
+    }
+
+    /**
+     * Verifies a signature against a key of the DID.
+     *
+     * @param did          The DID the key has to be authorized by.
+     * @param keyId        Absolute or relative DID URL of the key, e.g. {did}#key-1.
+     * @param relationship The verification relationship the key has to be listed in.
+     * @param payload      The signed bytes.
+     * @param signature    The signature.
+     * @return True if the DID is active, lists the key under the relationship and the signature is valid for the key.
+     * @throws DidError if the DID is not cached and could not be resolved.
+     */
+    public boolean verify(
+            final String did,
+            final String keyId,
+            final VerificationRelationshipType relationship,
+            final byte[] payload,
+            final byte[] signature
+    ) throws DidError {
+        return verify(document(did), keyId, relationship, payload, signature);
+    }
+
+    /**
+     * Verifies a signature against a key of an already resolved document.
+     *
+     * @param document     The DID document.
+     * @param keyId        Absolute or relative DID URL of the key, e.g. {did}#key-1.
+     * @param relationship The verification relationship the key has to be listed in.
+     * @param payload      The signed bytes.
+     * @param signature    The signature.
+     * @return True if the document is active, lists the key under the relationship and the signature is valid for the key.
+     */
+    public static boolean verify(
+            final DidDocument document,
+            final String keyId,
+            final VerificationRelationshipType relationship,
+            final byte[] payload,
+            final byte[] signature
+    ) {
+        if (document == null || document.getDeactivated() || !document.hasVerificationRelationship(relationship, keyId)) {
+            return false;
+        }
+
+        DidDocumentVerificationMethod verificationMethod = document.getVerificationMethod(keyId);
+        if (verificationMethod == null) {
+            return false;
+        }
+
+        try {
+            return verificationMethod.toPublicKey().verify(payload, signature);
+        } catch (RuntimeException e) {
+            // Malformed keys or signatures never verify.
+            return false;
+        }
+    }
+
+    /**
+     * Resolves the DID through the cache, so that later verifications see its latest state.
+     *
+     * @param did The DID.
+     * @return The resolved document.
+     * @throws DidError if the DID could not be resolved.
+     */
+    public DidDocument refresh(final String did) throws DidError {
+        return new HcsDid(did, null, client).setResolutionCache(cache).resolve();
+    }
+
+    private DidDocument document(final String did) throws DidError {
+        CachedDidDocument cached = null;
+        try {
+            cached = cache.get(did);
+        } catch (IOException e) {
+            // An unreadable cache entry is treated as a miss.
+        }
+        return cached != null ? cached.getDocument() : refresh(did);
+    }
+}
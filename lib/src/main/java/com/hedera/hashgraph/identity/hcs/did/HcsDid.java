@@ -3,6 +3,8 @@ package com.hedera.hashgraph.identity.hcs.did;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.base.Strings;
 import com.hedera.hashgraph.identity.*;
+import com.hedera.hashgraph.identity.cache.CachedDidDocument;
+import com.hedera.hashgraph.identity.cache.TieredDidDocumentCache;
 import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
 import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.document.HcsDidDeleteEvent;
@@ -17,11 +19,13 @@ import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidRevo
 import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidUpdateVerificationMethodEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.VerificationMethodSupportedKeyType;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.*;
-import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.identity.utils.PublicKeyCache;
 import com.hedera.hashgraph.sdk.*;
 import org.awaitility.Awaitility;
 import org.javatuples.Triplet;
+import org.threeten.bp.Instant;
 
+import java.io.IOException;
 import java.security.Timestamp;
 import java.time.Duration;
 import java.util.List;
@@ -50,6 +54,9 @@ public class HcsDid {
     protected HcsDidMessage[] messages;
     protected Timestamp resolvedAt;
     protected DidDocument document;
+    protected TieredDidDocumentCache resolutionCache;
+    protected DidPublicKeyIndex keyIndex;
+    protected HcsDidSignatureVerifier signatureVerifier;
 
     public HcsDid(
             String identifier,
@@ -139,11 +146,11 @@ public class HcsDid {
     }
 
     public static String publicKeyToIdString(PublicKey publicKey) {
-        return Hashing.Multibase.encode(publicKey.toBytes());
+        return PublicKeyCache.DEFAULT.encode(publicKey);
     }
 
     public static PublicKey stringToPublicKey(String idString) {
-        return PublicKey.fromBytes(Hashing.Multibase.decode(idString));
+        return PublicKeyCache.DEFAULT.decode(idString);
     }
 
 
@@ -178,9 +185,72 @@ public class HcsDid {
         return this.messages;
     }
 
+    public TieredDidDocumentCache getResolutionCache() {
+        return this.resolutionCache;
+    }
+
+    /**
+     * Sets a cache consulted by {@link #resolve()}.
+     * With a cache, only messages after the cached consensus position are read from the mirror node and
+     * {@link #getMessages()} is only populated when the whole topic had to be replayed.
+     *
+     * @param resolutionCache The cache shared by DID instances, or null to always replay the topic.
+     * @return This DID instance.
+     */
+    public HcsDid setResolutionCache(TieredDidDocumentCache resolutionCache) {
+        this.resolutionCache = resolutionCache;
+        return this;
+    }
+
+    public DidPublicKeyIndex getKeyIndex() {
+        return this.keyIndex;
+    }
+
+    /**
+     * Sets an index that is updated with every document materialized by {@link #resolve()}.
+     *
+     * @param keyIndex The index shared by DID instances, or null to not index documents.
+     * @return This DID instance.
+     */
+    public HcsDid setKeyIndex(DidPublicKeyIndex keyIndex) {
+        this.keyIndex = keyIndex;
+        return this;
+    }
+
+    public HcsDidSignatureVerifier getSignatureVerifier() {
+        return this.signatureVerifier;
+    }
+
+    /**
+     * Enables signature-verified resolution: {@link #resolve()} only applies messages signed by the DID owner key in
+     * effect at their position in the topic.
+     * A resolution cache used with a verifier should not be shared with unverified resolutions, as cached documents
+     * are trusted without verifying them again.
+     *
+     * @param signatureVerifier The verifier, or null to apply all messages.
+     * @return This DID instance.
+     */
+    public HcsDid setSignatureVerifier(HcsDidSignatureVerifier signatureVerifier) {
+        this.signatureVerifier = signatureVerifier;
+        return this;
+    }
+
     /* HcsDid instance API */
 
     public DidDocument resolve() throws DidError {
+        return this.resolve(DidDocumentRejectionListener.NONE);
+    }
+
+    /**
+     * Resolves the DID document and reports messages that were ignored while replaying the topic.
+     * With a resolution cache, only messages replayed by this resolution are reported, not those already applied to
+     * the cached document.
+     *
+     * @param listener Receiver of ignored messages, e.g. a {@link DidDocumentRejectionReport}.
+     * @return The DID document.
+     * @throws DidError if the DID is not registered or the client is missing.
+     */
+    public DidDocument resolve(DidDocumentRejectionListener listener) throws DidError {
         if (this.identifier == null) {
             throw new DidError("DID is not registered");
         }
@@ -189,19 +259,15 @@ public class HcsDid {
             throw new DidError("Client configuration is missing");
         }
 
-        AtomicReference<List<MessageEnvelope<HcsDidMessage>>> messageRef = new AtomicReference<>(null);
-
-        new HcsDidEventMessageResolver(this.topicId)
-                .setTimeout(HcsDid.READ_TOPIC_MESSAGES_TIMEOUT)
-                .whenFinished(messageRef::set)
-                .execute(this.client);
-
-
-        // Wait until mirror node resolves the DID.
-        Awaitility.await().atMost(MIRROR_NODE_TIMEOUT).until(() -> messageRef.get() != null);
+        if (this.resolutionCache != null) {
+            this.resolveCached(listener);
+        } else {
+            this.replay(this.readTopicMessages(Instant.MIN), listener);
+        }
 
-        this.messages = messageRef.get().stream().map(MessageEnvelope::open).collect(Collectors.toList()).toArray(HcsDidMessage[]::new);
-        this.document = new DidDocument(this.identifier, this.messages);
+        if (this.keyIndex != null) {
+            this.keyIndex.index(this.document);
+        }
 
         return this.document;
     }
@@ -271,6 +337,9 @@ public class HcsDid {
         TransactionResponse txResponse = sigTx.execute(this.client);
         TransactionRecord txRecord = txResponse.getRecord(this.client);
 
+        // The ownership change message is signed by the outgoing owner, the new key only signs the submission.
+        // Earlier versions signed it with the new key, see HcsDidSignatureVerifier for verifying such histories.
+        PrivateKey currentPrivateKey = this.privateKey;
         this.privateKey = newPrivateKey;
 
 
@@ -282,7 +351,7 @@ public class HcsDid {
                         controller,
                         newPrivateKey.getPublicKey()
                 ),
-                this.privateKey
+                currentPrivateKey
         );
 
         return this;
@@ -476,4 +545,77 @@ public class HcsDid {
         return messageRef.get();
     }
 
+    private DidDocument resolveCached(DidDocumentRejectionListener listener) {
+        CachedDidDocument cached = null;
+        try {
+            cached = this.resolutionCache.get(this.identifier);
+        } catch (IOException e) {
+            // An unreadable cache entry is treated as a miss.
+        }
+
+        if (cached != null) {
+            Instant cursor = cached.getConsensusTimestamp();
+            Instant startTime = cursor == null ? Instant.MIN : cursor.plusNanos(1);
+            List<MessageEnvelope<HcsDidMessage>> newer = this.readTopicMessages(startTime);
+            if (newer.isEmpty()) {
+                this.document = cached.getDocument();
+                return this.document;
+            }
+
+            try {
+                this.resolutionCache.record(this.topicId, newer, startTime);
+            } catch (IOException e) {
+                // The event log only saves mirror node round trips, resolution does not depend on it.
+            }
+
+            // Derive a new version from the cached one, readers of the cached version are not affected.
+            DidDocument current = cached.getDocument();
+            if (this.signatureVerifier != null) {
+                current = this.signatureVerifier.apply(current, newer, listener);
+            } else {
+                for (MessageEnvelope<HcsDidMessage> envelope : newer) {
+                    current = current.with(envelope.open(), listener);
+                }
+            }
+            this.document = current;
+            this.resolutionCache.put(this.document, newer.get(newer.size() - 1).getConsensusTimestamp());
+            return this.document;
+        }
+
+        List<MessageEnvelope<HcsDidMessage>> envelopes = this.readTopicMessages(Instant.MIN);
+        try {
+            this.resolutionCache.record(this.topicId, envelopes, Instant.MIN);
+        } catch (IOException e) {
+            // The event log only saves mirror node round trips, resolution does not depend on it.
+        }
+
+        this.replay(envelopes, listener);
+        this.resolutionCache.put(this.document, envelopes.isEmpty() ? null : envelopes.get(envelopes.size() - 1).getConsensusTimestamp());
+
+        return this.document;
+    }
+
+    private void replay(List<MessageEnvelope<HcsDidMessage>> envelopes, DidDocumentRejectionListener listener) {
+        this.messages = envelopes.stream().map(MessageEnvelope::open).collect(Collectors.toList()).toArray(HcsDidMessage[]::new);
+        if (this.signatureVerifier != null) {
+            this.document = this.signatureVerifier.apply(new DidDocument(this.identifier, new HcsDidMessage[0]), envelopes, listener);
+        } else {
+            this.document = new DidDocument(this.identifier, this.messages, listener);
+        }
+    }
+
+    private List<MessageEnvelope<HcsDidMessage>> readTopicMessages(Instant startTime) {
+        AtomicReference<List<MessageEnvelope<HcsDidMessage>>> messageRef = new AtomicReference<>(null);
+
+        new HcsDidEventMessageResolver(this.topicId, startTime)
+                .setTimeout(HcsDid.READ_TOPIC_MESSAGES_TIMEOUT)
+                .whenFinished(messageRef::set)
+                .execute(this.client);
+
+
+        // Wait until mirror node resolves the DID.
+        Awaitility.await().atMost(MIRROR_NODE_TIMEOUT).until(() -> messageRef.get() != null);
+
+        return messageRef.get();
+    }
 }
@@ -0,0 +1,78 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.cache.TieredDidDocumentCache;
+import com.hedera.hashgraph.sdk.Client;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Brings a {@link TieredDidDocumentCache} back to a warm state after a restart.
+ * <p>
+ * Entries loaded from a snapshot are served right away and revalidated in the background by incremental resolution,
+ * which only reads topic messages published after the consensus timestamp saved with each entry.
+ */
+public class HcsDidCacheWarmup {
+
+    private final TieredDidDocumentCache cache;
+    private final Client client;
+    private final Executor executor;
+
+    /**
+     * Creates a new warm-up task.
+     *
+     * @param cache    The cache to warm up.
+     * @param client   Client used to read topic messages from the mirror node.
+     * @param executor Executor running the revalidations; its size bounds the load put on the mirror node.
+     */
+    public HcsDidCacheWarmup(final TieredDidDocumentCache cache, final Client client, final Executor executor) {
+        this.cache = cache;
+        this.client = client;
+        this.executor = executor;
+    }
+
+    /**
+     * Loads the snapshot into the cache and starts revalidating the loaded entries, hottest first.
+     *
+     * @param snapshot Snapshot file written by {@link TieredDidDocumentCache#save(Path, int)}.
+     * @return Future completing with the number of successfully revalidated entries.
+     * @throws IOException if the snapshot could not be read.
+     */
+    public CompletableFuture<Integer> start(final Path snapshot) throws IOException {
+        return revalidate(cache.load(snapshot));
+    }
+
+    /**
+     * Resolves the given DIDs through the cache in the background.
+     * Entries that fail to revalidate (e.g. because the mirror node is unavailable) are kept in the cache, as every
+     * later resolution catches up with newer messages anyway.
+     *
+     * @param dids The DIDs to revalidate.
+     * @return Future completing with the number of successfully revalidated entries.
+     */
+    public CompletableFuture<Integer> revalidate(final List<String> dids) {
+        List<CompletableFuture<Boolean>> tasks = dids.stream()
+                .map(did -> CompletableFuture.supplyAsync(() -> revalidate(did), executor))
+                .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> (int) tasks.stream().filter(CompletableFuture::join).count());
+    }
+
+    private boolean revalidate(final String did) {
+        try {
+            // Revalidate with the verifier the cache was rebuilt with, so warmed entries match regular resolutions.
+            new HcsDid(did, null, client)
+                    .setResolutionCache(cache)
+                    .setSignatureVerifier(cache.getSignatureVerifier())
+                    .resolve();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -27,6 +27,7 @@ public class HcsDidEventMessageResolver {
     private final ScheduledExecutorService executorService;
     protected List<MessageEnvelope<HcsDidMessage>> messages = new ArrayList<>();
     protected TopicId topicId;
+    private final Instant startTime;
     private long noMoreMessagesTimeout;
     private Consumer<List<MessageEnvelope<HcsDidMessage>>> resultsHandler;
     private Consumer<Throwable> errorHandler;
@@ -41,14 +42,22 @@ public class HcsDidEventMessageResolver {
     public HcsDidEventMessageResolver(final TopicId topicId) {
         this.topicId = topicId;
         this.listener = new HcsDidTopicListener(this.topicId);
+        this.startTime = Instant.MIN;
         this.executorService = Executors.newScheduledThreadPool(2);
         this.noMoreMessagesTimeout = DEFAULT_TIMEOUT;
         this.lastMessageArrivalTime = new AtomicLong(System.currentTimeMillis());
     }
 
+    /**
+     * Instantiates a message resolver that only reads messages reaching consensus at or after the given time.
+     *
+     * @param topicId   Consensus topic ID.
+     * @param startTime The consensus time to start reading from.
+     */
     public HcsDidEventMessageResolver(final TopicId topicId, Instant startTime) {
         this.topicId = topicId;
         this.listener = new HcsDidTopicListener(this.topicId, startTime);
+        this.startTime = startTime;
         this.executorService = Executors.newScheduledThreadPool(2);
         this.noMoreMessagesTimeout = DEFAULT_TIMEOUT;
         this.lastMessageArrivalTime = new AtomicLong(System.currentTimeMillis());
@@ -58,7 +67,7 @@ public class HcsDidEventMessageResolver {
         new Validator().checkValidationErrors("Resolver not executed: ", this::validate);
         existingSignatures = new HashSet<>();
 
-        listener.setStartTime(Instant.MIN)
+        listener.setStartTime(startTime)
                 .setEndTime(Instant.now())
                 .setIgnoreErrors(false)
                 .onError(errorHandler)
@@ -1,6 +1,9 @@
 package com.hedera.hashgraph.identity.hcs.did;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hedera.hashgraph.identity.DidMethodOperation;
@@ -10,6 +13,8 @@ import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEventParser;
 import com.hedera.hashgraph.sdk.TopicId;
 import org.threeten.bp.Instant;
 
+import java.io.IOException;
+
 
 public class HcsDidMessage {
 
@@ -32,6 +37,13 @@ public class HcsDidMessage {
         this.event = event;
     }
 
+    HcsDidMessage(Instant timestamp, DidMethodOperation operation, String did, HcsDidEvent event) {
+        this.timestamp = timestamp;
+        this.operation = operation;
+        this.did = did;
+        this.event = event;
+    }
+
     public static HcsDidMessage fromJsonTree(JsonNode tree) {
         return fromJsonTree(tree, null);
     }
@@ -56,6 +68,58 @@ public class HcsDidMessage {
         return HcsDidMessage.fromJsonTree(new ObjectMapper().readTree(json), null);
     }
 
+    /**
+     * Reads a message object in a single streaming pass, decoding the event without building JSON trees.
+     *
+     * @param parser Parser positioned at the start of the message object, left at its end.
+     * @return The parsed message, with a null event if the event is invalid.
+     * @throws IOException if the JSON is malformed or required properties are missing
+     */
+    public static HcsDidMessage fromJson(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw JsonMappingException.from(parser, "DID message is not an object.");
+        }
+
+        String timestamp = null;
+        String operation = null;
+        String did = null;
+        String eventBase64 = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.VALUE_STRING) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "timestamp":
+                    timestamp = parser.getText();
+                    break;
+                case "operation":
+                    operation = parser.getText();
+                    break;
+                case "did":
+                    did = parser.getText();
+                    break;
+                case "event":
+                    eventBase64 = parser.getText();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (timestamp == null || operation == null) {
+            throw JsonMappingException.from(parser, "DID message has no timestamp or operation.");
+        }
+        try {
+            DidMethodOperation didMethodOperation = DidMethodOperation.get(operation);
+            HcsDidEvent event = HcsDidEventParser.fromBase64(didMethodOperation, eventBase64);
+            return new HcsDidMessage(Instant.parse(timestamp), didMethodOperation, did, event);
+        } catch (RuntimeException e) {
+            throw JsonMappingException.from(parser, "DID message has an invalid operation or timestamp.", e);
+        }
+    }
+
     public Instant getTimestamp() {
         return this.timestamp;
     }
@@ -0,0 +1,272 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentRejectionListener;
+import com.hedera.hashgraph.identity.DidDocumentRejectionReason;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.SignatureVerificationCache;
+import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEventTargetName;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.sdk.PublicKey;
+import org.threeten.bp.Instant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies DID messages to a document only if their envelope is signed by the DID owner key in effect at the message's
+ * position in the topic.
+ * <p>
+ * Messages are signed by the current owner, including owner updates, which
+ * {@link HcsDid#changeOwner(String, com.hedera.hashgraph.sdk.PrivateKey)} signs with the outgoing key. Only the event
+ * creating the owner of a document without one is signed by the key it installs, as {@link HcsDid#register()} does.
+ * Messages without a verifiable owner key are rejected with {@link DidDocumentRejectionReason#INVALID_SIGNATURE}.
+ * <p>
+ * Earlier versions of {@code changeOwner} signed owner updates with the new key instead. Accepting that format in
+ * general would let anyone take over a DID with a self-signed update, so it is only accepted for messages that reached
+ * consensus before the {@link #HcsDidSignatureVerifier(Executor, SignatureVerificationCache, Instant) legacy owner
+ * change cutoff}, which should be set to the time the resolvers' writers were upgraded when existing topics hold such
+ * updates.
+ * <p>
+ * Signatures are checked in parallel before the messages are applied: a first pass derives the owner key at every
+ * position assuming that all owner events are valid, and the envelopes are verified against those keys in batches.
+ * While the messages are applied in order, an envelope is verified again only if the actual owner differs from the
+ * assumed one, which happens only after an owner event was rejected.
+ */
+public class HcsDidSignatureVerifier {
+
+    private static final int BATCH_SIZE = 64;
+
+    private final Executor executor;
+    private final SignatureVerificationCache cache;
+    private final Instant legacyOwnerChangeCutoff;
+    private final LongAdder reverifications = new LongAdder();
+
+    /**
+     * Creates a verifier using the common fork-join pool.
+     */
+    public HcsDidSignatureVerifier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor Executor running signature checks, e.g. {@code Runnable::run} to verify on the calling thread.
+     */
+    public HcsDidSignatureVerifier(final Executor executor) {
+        this(executor, null);
+    }
+
+    /**
+     * @param executor Executor running signature checks, e.g. {@code Runnable::run} to verify on the calling thread.
+     * @param cache    Cache of verification results shared by resolutions, or null to verify every envelope.
+     */
+    public HcsDidSignatureVerifier(final Executor executor, final SignatureVerificationCache cache) {
+        this(executor, cache, null);
+    }
+
+    /**
+     * @param executor                Executor running signature checks, e.g. {@code Runnable::run} to verify on the
+     *                                calling thread.
+     * @param cache                   Cache of verification results shared by resolutions, or null to verify every
+     *                                envelope.
+     * @param legacyOwnerChangeCutoff Owner updates that reached consensus before this time are also accepted when
+     *                                signed by the key they install, as written by earlier versions. Null to require
+     *                                the current owner's signature for all of them.
+     */
+    public HcsDidSignatureVerifier(
+            final Executor executor,
+            final SignatureVerificationCache cache,
+            final Instant legacyOwnerChangeCutoff
+    ) {
+        this.executor = executor;
+        this.cache = cache;
+        this.legacyOwnerChangeCutoff = legacyOwnerChangeCutoff;
+    }
+
+    /**
+     * Applies the messages of correctly signed envelopes in the given order.
+     *
+     * @param document  The document to start from. Mutable documents are updated in place, immutable versions are
+     *                  left unchanged and a new version is derived from them.
+     * @param envelopes Envelopes read from the DID topic, in consensus order.
+     * @param listener  Notified of every ignored message, including those with an invalid signature.
+     * @return The resulting document.
+     */
+    public DidDocument apply(
+            final DidDocument document,
+            final List<MessageEnvelope<HcsDidMessage>> envelopes,
+            final DidDocumentRejectionListener listener
+    ) {
+        PublicKey[] assumedOwners = new PublicKey[envelopes.size()];
+        assumeOwners(ownerKey(document), envelopes, assumedOwners);
+        boolean[] valid = verify(envelopes, assumedOwners).join();
+        return apply(document, envelopes, assumedOwners, valid, listener);
+    }
+
+    /**
+     * Derives the owner key that signs each message, assuming that all owner events will be applied.
+     *
+     * @param owner         The owner key before the first message.
+     * @param envelopes     The envelopes in consensus order.
+     * @param assumedOwners Receives the owner key at each envelope's position.
+     * @return The owner key after the last message.
+     */
+    static PublicKey assumeOwners(PublicKey owner, final List<MessageEnvelope<HcsDidMessage>> envelopes, final PublicKey[] assumedOwners) {
+        for (int i = 0; i < assumedOwners.length; i++) {
+            assumedOwners[i] = owner;
+            owner = nextOwner(owner, envelopes.get(i).open());
+        }
+        return owner;
+    }
+
+    /**
+     * Verifies the envelopes against the assumed owner keys in concurrent batches.
+     *
+     * @return Future of the verification result of each envelope.
+     */
+    CompletableFuture<boolean[]> verify(final List<MessageEnvelope<HcsDidMessage>> envelopes, final PublicKey[] assumedOwners) {
+        int count = envelopes.size();
+        boolean[] valid = new boolean[count];
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int start = 0; start < count; start += BATCH_SIZE) {
+            final int from = start;
+            final int to = Math.min(count, start + BATCH_SIZE);
+            batches.add(CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    valid[i] = isSigned(envelopes.get(i), assumedOwners[i]);
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).thenApply(v -> valid);
+    }
+
+    /**
+     * Applies verified envelopes in order, verifying again those whose actual owner differs from the assumed one.
+     */
+    DidDocument apply(
+            final DidDocument document,
+            final List<MessageEnvelope<HcsDidMessage>> envelopes,
+            final PublicKey[] assumedOwners,
+            final boolean[] valid,
+            final DidDocumentRejectionListener listener
+    ) {
+        DidDocument current = document;
+        for (int i = 0; i < valid.length; i++) {
+            MessageEnvelope<HcsDidMessage> envelope = envelopes.get(i);
+            PublicKey actualOwner = ownerKey(current);
+            boolean signed = valid[i];
+            if (!sameKey(actualOwner, assumedOwners[i])) {
+                reverifications.increment();
+                signed = isSigned(envelope, actualOwner);
+            }
+
+            if (!signed) {
+                listener.onRejected(envelope.open(), DidDocumentRejectionReason.INVALID_SIGNATURE);
+            } else if (current.isImmutable()) {
+                current = current.with(envelope.open(), listener);
+            } else {
+                current.apply(envelope.open(), listener);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return Number of envelopes verified a second time because an owner event was rejected.
+     */
+    public long getReverificationCount() {
+        return reverifications.sum();
+    }
+
+    /**
+     * @return The cache of verification results, or null if envelopes are always verified.
+     */
+    public SignatureVerificationCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return The time before which owner updates signed by the installed key are accepted, or null.
+     */
+    public Instant getLegacyOwnerChangeCutoff() {
+        return legacyOwnerChangeCutoff;
+    }
+
+    static PublicKey ownerKey(final DidDocument document) {
+        return document.getController() == null ? null : document.getController().toPublicKey();
+    }
+
+    /**
+     * @return The owner key after the message, if it is applied.
+     */
+    private static PublicKey nextOwner(final PublicKey owner, final HcsDidMessage message) {
+        if (message == null) {
+            return owner;
+        }
+        HcsDidEvent event = message.getEvent();
+        if (isOwnerEvent(message)) {
+            boolean applies = message.getOperation() == DidMethodOperation.CREATE ? owner == null : owner != null;
+            return applies ? ((HcsDidCreateDidOwnerEvent) event).getPublicKey() : owner;
+        }
+        if (message.getOperation() == DidMethodOperation.DELETE && event.getTargetName() == HcsDidEventTargetName.Document) {
+            return null;
+        }
+        return owner;
+    }
+
+    private boolean isSigned(final MessageEnvelope<HcsDidMessage> envelope, final PublicKey owner) {
+        HcsDidMessage message = envelope.open();
+        if (message == null) {
+            return false;
+        }
+        try {
+            if (owner != null) {
+                if (envelope.isSignatureValid(e -> owner, cache)) {
+                    return true;
+                }
+                if (isLegacyOwnerChange(envelope, message)) {
+                    PublicKey installed = ((HcsDidCreateDidOwnerEvent) message.getEvent()).getPublicKey();
+                    return envelope.isSignatureValid(e -> installed, cache);
+                }
+                return false;
+            }
+            // Without an owner in effect only the event creating the first owner can be verified, by its own key.
+            if (isOwnerEvent(message) && message.getOperation() == DidMethodOperation.CREATE) {
+                PublicKey installed = ((HcsDidCreateDidOwnerEvent) message.getEvent()).getPublicKey();
+                return envelope.isSignatureValid(e -> installed, cache);
+            }
+            return false;
+        } catch (Exception e) {
+            // Envelopes that cannot be serialized or hold a malformed signature are not signed.
+            return false;
+        }
+    }
+
+    private boolean isLegacyOwnerChange(final MessageEnvelope<HcsDidMessage> envelope, final HcsDidMessage message) {
+        Instant consensusTimestamp = envelope.getConsensusTimestamp();
+        return legacyOwnerChangeCutoff != null
+                && consensusTimestamp != null
+                && consensusTimestamp.isBefore(legacyOwnerChangeCutoff)
+                && message.getOperation() == DidMethodOperation.UPDATE
+                && isOwnerEvent(message);
+    }
+
+    private static boolean isOwnerEvent(final HcsDidMessage message) {
+        return message.getEvent() instanceof HcsDidCreateDidOwnerEvent
+                && (message.getOperation() == DidMethodOperation.CREATE || message.getOperation() == DidMethodOperation.UPDATE);
+    }
+
+    private static boolean sameKey(final PublicKey a, final PublicKey b) {
+        if (a == b) {
+            return true;
+        }
+        return a != null && b != null && Arrays.equals(a.toBytes(), b.toBytes());
+    }
+}
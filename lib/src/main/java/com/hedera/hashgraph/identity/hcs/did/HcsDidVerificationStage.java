@@ -0,0 +1,132 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentRejectionListener;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.sdk.PublicKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Signature-verified ingestion of a DID topic stream, e.g. as the receiver of
+ * {@link HcsDidTopicListener#subscribe(com.hedera.hashgraph.sdk.Client, Consumer)}.
+ * <p>
+ * Envelopes are collected into batches on the receiving thread. Each full batch is verified concurrently by the
+ * {@link HcsDidSignatureVerifier}'s executor while the receiving thread goes on, and verified batches are applied to the
+ * document strictly in the order they were received. Partial batches are only submitted by {@link #flush()}, which
+ * should be called when the stream goes idle, e.g. from {@link HcsDidTopicListener#onComplete(Runnable)}.
+ * <p>
+ * If verifying or applying a batch fails, e.g. because the listener throws, the future returned for that batch
+ * completes exceptionally, its envelopes are skipped and the failure is kept as {@link #getFailure()}. Later batches are
+ * applied to the last successfully applied version.
+ */
+public class HcsDidVerificationStage implements Consumer<MessageEnvelope<HcsDidMessage>> {
+
+    /**
+     * Default number of envelopes verified together.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final HcsDidSignatureVerifier verifier;
+    private final DidDocumentRejectionListener listener;
+    private final int batchSize;
+
+    private List<MessageEnvelope<HcsDidMessage>> batch = new ArrayList<>();
+    // Owner after all submitted envelopes, assuming that their owner events are valid.
+    private PublicKey assumedOwner;
+    private CompletableFuture<DidDocument> applied;
+    private volatile DidDocument document;
+    private volatile Throwable failure;
+
+    public HcsDidVerificationStage(final DidDocument document, final HcsDidSignatureVerifier verifier) {
+        this(document, verifier, DEFAULT_BATCH_SIZE, DidDocumentRejectionListener.NONE);
+    }
+
+    /**
+     * Creates a new stage.
+     *
+     * @param document  The document to apply messages to, usually an empty or cached document of the topic's DID.
+     *                  It is not modified, new immutable versions are derived from it.
+     * @param verifier  The verifier checking signatures.
+     * @param batchSize Number of envelopes collected before they are verified.
+     * @param listener  Notified of every ignored message, including those with an invalid signature.
+     */
+    public HcsDidVerificationStage(
+            final DidDocument document,
+            final HcsDidSignatureVerifier verifier,
+            final int batchSize,
+            final DidDocumentRejectionListener listener
+    ) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+
+        this.verifier = verifier;
+        this.listener = listener;
+        this.batchSize = batchSize;
+        this.document = document.snapshot();
+        this.assumedOwner = HcsDidSignatureVerifier.ownerKey(this.document);
+        this.applied = CompletableFuture.completedFuture(this.document);
+    }
+
+    @Override
+    public synchronized void accept(final MessageEnvelope<HcsDidMessage> envelope) {
+        batch.add(envelope);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Submits the collected envelopes for verification, even if the batch is not full.
+     *
+     * @return Future of the document with all envelopes received so far applied.
+     */
+    public synchronized CompletableFuture<DidDocument> flush() {
+        if (batch.isEmpty()) {
+            return applied;
+        }
+
+        final List<MessageEnvelope<HcsDidMessage>> envelopes = batch;
+        batch = new ArrayList<>();
+
+        // Once everything submitted is applied, continue from the actual owner, so that a rejected owner event
+        // does not cause re-verification of all later batches.
+        if (applied.isDone() && !applied.isCompletedExceptionally()) {
+            assumedOwner = HcsDidSignatureVerifier.ownerKey(applied.join());
+        }
+        final PublicKey[] assumedOwners = new PublicKey[envelopes.size()];
+        assumedOwner = HcsDidSignatureVerifier.assumeOwners(assumedOwner, envelopes, assumedOwners);
+
+        applied = applied
+                .handle((current, error) -> error == null ? current : document)
+                .thenCombine(verifier.verify(envelopes, assumedOwners), (current, valid) -> {
+                    DidDocument next = verifier.apply(current, envelopes, assumedOwners, valid, listener);
+                    document = next;
+                    return next;
+                });
+        applied.whenComplete((next, error) -> {
+            if (error != null && failure == null) {
+                failure = error;
+            }
+        });
+        return applied;
+    }
+
+    /**
+     * @return The latest version with all applied batches. Envelopes of batches still being verified are missing.
+     */
+    public DidDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * @return The first failure of verifying or applying a batch, or null if all batches succeeded so far.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+}
@@ -1,18 +1,22 @@
 package com.hedera.hashgraph.identity.hcs.did.event;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
 import com.hedera.hashgraph.identity.DidError;
 import com.hedera.hashgraph.identity.hcs.did.HcsDid;
-import com.hedera.hashgraph.identity.utils.Hashing;
 
+import java.util.Base64;
 import java.util.regex.Pattern;
 
 public abstract class HcsDidEvent {
-    protected final Pattern SERVICE_ID_POSTFIX_REGEX = Pattern.compile("^(service)-[0-9]+$");
-    protected final Pattern KEY_ID_POSTFIX_REGEX = Pattern.compile("^(key)-[0-9]+$");
-    protected final Pattern OWNER_KEY_POSTFIX_REGEX = Pattern.compile("^(did-root-key)$");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    protected static final Pattern SERVICE_ID_POSTFIX_REGEX = Pattern.compile("^(service)-[0-9]+$");
+    protected static final Pattern KEY_ID_POSTFIX_REGEX = Pattern.compile("^(key)-[0-9]+$");
+    protected static final Pattern OWNER_KEY_POSTFIX_REGEX = Pattern.compile("^(did-root-key)$");
     protected HcsDidEventTargetName targetName;
 
 
@@ -30,23 +34,32 @@ public abstract class HcsDidEvent {
 
     protected abstract String toJSON();
 
+    /**
+     * Encodes the UTF-8 JSON bytes of the event, without an intermediate JSON string.
+     *
+     * @return The base64 encoded JSON of the event.
+     */
     public String getBase64() {
-        return Hashing.Base64.encode(this.toJSON());
+        try {
+            return Base64.getEncoder().encodeToString(OBJECT_MAPPER.writeValueAsBytes(this.toJsonTree()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     protected boolean isOwnerEventIdValid(String eventId) throws DidError {
 
-        return this.isEventIdValid(eventId, this.OWNER_KEY_POSTFIX_REGEX);
+        return this.isEventIdValid(eventId, OWNER_KEY_POSTFIX_REGEX);
 
     }
 
     protected boolean isServiceEventIdValid(String eventId) throws DidError {
-        return this.isEventIdValid(eventId, this.SERVICE_ID_POSTFIX_REGEX);
+        return this.isEventIdValid(eventId, SERVICE_ID_POSTFIX_REGEX);
 
     }
 
     protected boolean isKeyEventIdValid(String eventId) throws DidError {
-        return this.isEventIdValid(eventId, this.KEY_ID_POSTFIX_REGEX);
+        return this.isEventIdValid(eventId, KEY_ID_POSTFIX_REGEX);
     }
 
     protected boolean isEventIdValid(String eventId, Pattern pattern) throws DidError {
@@ -1,7 +1,9 @@
 package com.hedera.hashgraph.identity.hcs.did.event;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.hedera.hashgraph.identity.DidError;
 import com.hedera.hashgraph.identity.DidMethodOperation;
 import com.hedera.hashgraph.identity.hcs.did.event.document.HcsDidDeleteEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
@@ -9,43 +11,25 @@ import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidUpdateDidOwnerEve
 import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidRevokeServiceEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidUpdateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidCreateVerificationMethodEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidRevokeVerificationMethodEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidUpdateVerificationMethodEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.VerificationMethodSupportedKeyType;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidRevokeVerificationRelationshipEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidUpdateVerificationRelationshipEvent;
-import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.identity.utils.PublicKeyCache;
+import com.hedera.hashgraph.sdk.PublicKey;
 
-import java.lang.reflect.Method;
-import java.util.Map;
-
-import static java.util.Map.entry;
+import java.io.IOException;
+import java.util.Base64;
 
 public class HcsDidEventParser {
 
-    private static final Map<DidMethodOperation, Map<HcsDidEventTargetName, Class<? extends HcsDidEvent>>> EVENT_NAME_TO_CLASS =
-            Map.ofEntries(
-                    entry(DidMethodOperation.CREATE, Map.ofEntries(
-                            entry(HcsDidEventTargetName.DID_OWNER, HcsDidCreateDidOwnerEvent.class),
-                            entry(HcsDidEventTargetName.SERVICE, HcsDidCreateServiceEvent.class),
-                            entry(HcsDidEventTargetName.VERIFICATION_METHOD, HcsDidCreateVerificationMethodEvent.class),
-                            entry(HcsDidEventTargetName.VERIFICATION_RELATIONSHIP, HcsDidCreateVerificationRelationshipEvent.class))),
-
-                    entry(DidMethodOperation.UPDATE, Map.ofEntries(
-                            entry(HcsDidEventTargetName.DID_OWNER, HcsDidUpdateDidOwnerEvent.class),
-                            entry(HcsDidEventTargetName.SERVICE, HcsDidUpdateServiceEvent.class),
-                            entry(HcsDidEventTargetName.VERIFICATION_METHOD, HcsDidUpdateVerificationMethodEvent.class),
-                            entry(HcsDidEventTargetName.VERIFICATION_RELATIONSHIP, HcsDidUpdateVerificationRelationshipEvent.class))),
-
-                    entry(DidMethodOperation.REVOKE, Map.ofEntries(
-                            entry(HcsDidEventTargetName.SERVICE, HcsDidRevokeServiceEvent.class),
-                            entry(HcsDidEventTargetName.VERIFICATION_METHOD, HcsDidRevokeVerificationMethodEvent.class),
-                            entry(HcsDidEventTargetName.VERIFICATION_RELATIONSHIP, HcsDidRevokeVerificationRelationshipEvent.class)))
-
-
-            );
-
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
     public static HcsDidEvent fromBase64(DidMethodOperation operation, String eventBase64) {
 
@@ -55,21 +39,143 @@ public class HcsDidEventParser {
         }
 
         try {
+            // Decoded to bytes and parsed as UTF-8, without an intermediate string.
+            return fromJson(operation, Base64.getDecoder().decode(eventBase64));
+        } catch (Exception e) {
+            return null;
+        }
+
+    }
 
-            JsonNode tree = new ObjectMapper().readTree(Hashing.Base64.decode(eventBase64));
+    /**
+     * Parses the UTF-8 JSON of an event in a single streaming pass, without building a tree or looking up the
+     * event class reflectively.
+     *
+     * @param operation The operation of the message holding the event.
+     * @param eventJson The decoded event JSON, e.g. {"Service":{"id":...}}.
+     * @return The parsed event.
+     * @throws IOException if the JSON is malformed
+     * @throws DidError    if the event is unknown for the operation or its properties are invalid
+     */
+    public static HcsDidEvent fromJson(DidMethodOperation operation, byte[] eventJson) throws IOException, DidError {
+        if (operation == DidMethodOperation.DELETE) {
+            return HcsDidDeleteEvent.fromJsonTree(null);
+        }
 
-            Map<HcsDidEventTargetName, Class<? extends HcsDidEvent>> eventsByOperation = EVENT_NAME_TO_CLASS.get(operation);
-            JsonNode finalTree = tree;
-            Map.Entry<HcsDidEventTargetName, Class<? extends HcsDidEvent>> eventTarget = eventsByOperation.entrySet().stream().filter(es -> es.getKey().toString() == finalTree.fields().next().getKey()).findFirst().get();
+        try (JsonParser parser = JSON_FACTORY.createParser(eventJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+                throw new DidError("Event JSON is not an object with a target name.");
+            }
+            String targetName = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new DidError("Event " + targetName + " is not an object.");
+            }
+
+            // Events only have string properties, anything else is skipped.
+            String id = null;
+            String type = null;
+            String controller = null;
+            String publicKeyMultibase = null;
+            String serviceEndpoint = null;
+            String relationshipType = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if (parser.nextToken() != JsonToken.VALUE_STRING) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case "id":
+                        id = parser.getText();
+                        break;
+                    case "type":
+                        type = parser.getText();
+                        break;
+                    case "controller":
+                        controller = parser.getText();
+                        break;
+                    case "publicKeyMultibase":
+                        publicKeyMultibase = parser.getText();
+                        break;
+                    case "serviceEndpoint":
+                        serviceEndpoint = parser.getText();
+                        break;
+                    case "relationshipType":
+                        relationshipType = parser.getText();
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            return create(operation, targetName, id, type, controller, publicKeyMultibase, serviceEndpoint, relationshipType);
+        }
+    }
 
-            Method fromJsonTree = eventTarget.getValue().getMethod("fromJsonTree", JsonNode.class);
-            HcsDidEvent invoke = (HcsDidEvent) fromJsonTree.invoke(null, tree.get(eventTarget.getKey().toString()));
-            return invoke;
+    private static HcsDidEvent create(
+            DidMethodOperation operation,
+            String targetName,
+            String id,
+            String type,
+            String controller,
+            String publicKeyMultibase,
+            String serviceEndpoint,
+            String relationshipType
+    ) throws DidError {
+        HcsDidEventTargetName target = targetOf(targetName);
+        if (operation == DidMethodOperation.CREATE || operation == DidMethodOperation.UPDATE) {
+            boolean create = operation == DidMethodOperation.CREATE;
+            switch (target) {
+                case DID_OWNER:
+                    return create
+                            ? new HcsDidCreateDidOwnerEvent(id, controller, publicKey(publicKeyMultibase))
+                            : new HcsDidUpdateDidOwnerEvent(id, controller, publicKey(publicKeyMultibase));
+                case SERVICE:
+                    return create
+                            ? new HcsDidCreateServiceEvent(id, ServiceType.get(type), serviceEndpoint)
+                            : new HcsDidUpdateServiceEvent(id, ServiceType.get(type), serviceEndpoint);
+                case VERIFICATION_METHOD:
+                    return create
+                            ? new HcsDidCreateVerificationMethodEvent(id, VerificationMethodSupportedKeyType.get(type), controller, publicKey(publicKeyMultibase))
+                            : new HcsDidUpdateVerificationMethodEvent(id, VerificationMethodSupportedKeyType.get(type), controller, publicKey(publicKeyMultibase));
+                case VERIFICATION_RELATIONSHIP:
+                    return create
+                            ? new HcsDidCreateVerificationRelationshipEvent(id, VerificationRelationshipType.get(relationshipType),
+                            VerificationRelationshipSupportedKeyType.get(type), controller, publicKey(publicKeyMultibase))
+                            : new HcsDidUpdateVerificationRelationshipEvent(id, VerificationRelationshipType.get(relationshipType),
+                            VerificationRelationshipSupportedKeyType.get(type), controller, publicKey(publicKeyMultibase));
+                default:
+                    break;
+            }
+        } else if (operation == DidMethodOperation.REVOKE) {
+            switch (target) {
+                case SERVICE:
+                    return new HcsDidRevokeServiceEvent(id);
+                case VERIFICATION_METHOD:
+                    return new HcsDidRevokeVerificationMethodEvent(id);
+                case VERIFICATION_RELATIONSHIP:
+                    return new HcsDidRevokeVerificationRelationshipEvent(id, VerificationRelationshipType.get(relationshipType));
+                default:
+                    break;
+            }
+        }
+        throw new DidError("Event " + targetName + " is not supported for operation " + operation + ".");
+    }
 
-        } catch (Exception e) {
-            return null;
+    private static HcsDidEventTargetName targetOf(String targetName) throws DidError {
+        for (HcsDidEventTargetName target : HcsDidEventTargetName.values()) {
+            if (target.label.equals(targetName)) {
+                return target;
+            }
         }
+        throw new DidError("Unknown event " + targetName + ".");
+    }
 
+    private static PublicKey publicKey(String publicKeyMultibase) throws DidError {
+        if (publicKeyMultibase == null) {
+            throw new DidError("Validation failed. Event publicKeyMultibase is missing");
+        }
+        return PublicKeyCache.DEFAULT.decode(publicKeyMultibase);
     }
 
 }
@@ -6,7 +6,7 @@ import com.google.common.base.Strings;
 import com.hedera.hashgraph.identity.DidError;
 import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEventTargetName;
-import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.identity.utils.PublicKeyCache;
 import com.hedera.hashgraph.sdk.PublicKey;
 
 import java.util.LinkedHashMap;
@@ -38,7 +38,7 @@ public class HcsDidCreateDidOwnerEvent extends HcsDidEvent {
     }
 
     public static HcsDidCreateDidOwnerEvent fromJsonTree(JsonNode tree) throws DidError {
-        PublicKey publicKey = PublicKey.fromBytes(Hashing.Multibase.decode(tree.get("publicKeyMultibase").textValue()));
+        PublicKey publicKey = PublicKeyCache.DEFAULT.decode(tree.get("publicKeyMultibase").textValue());
         return new HcsDidCreateDidOwnerEvent(tree.get("id").textValue(), tree.get("controller").textValue(), publicKey);
     }
 
@@ -60,7 +60,7 @@ public class HcsDidCreateDidOwnerEvent extends HcsDidEvent {
     }
 
     public String getPublicKeyMultibase() {
-        return Hashing.Multibase.encode(this.getPublicKey().toBytes());
+        return PublicKeyCache.DEFAULT.encode(this.getPublicKey());
     }
 
     public JsonNode getOwnerDef() {
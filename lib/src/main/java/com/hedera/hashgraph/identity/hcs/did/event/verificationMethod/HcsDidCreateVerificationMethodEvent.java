@@ -6,7 +6,7 @@ import com.google.common.base.Strings;
 import com.hedera.hashgraph.identity.DidError;
 import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEventTargetName;
-import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.identity.utils.PublicKeyCache;
 import com.hedera.hashgraph.sdk.PublicKey;
 
 import java.util.LinkedHashMap;
@@ -38,12 +38,12 @@ public class HcsDidCreateVerificationMethodEvent extends HcsDidEvent {
     }
 
     public static HcsDidCreateVerificationMethodEvent fromJsonTree(JsonNode tree) throws DidError {
-        PublicKey publicKey = PublicKey.fromBytes(Hashing.Multibase.decode(tree.get("publicKeyMultibase").textValue()));
+        PublicKey publicKey = PublicKeyCache.DEFAULT.decode(tree.get("publicKeyMultibase").textValue());
         return new HcsDidCreateVerificationMethodEvent(tree.get("id").textValue(), VerificationMethodSupportedKeyType.get(tree.get("type").textValue()), tree.get("controller").textValue(), publicKey);
     }
 
     public String getPublicKeyMultibase() {
-        return Hashing.Multibase.encode(this.getPublicKey().toBytes());
+        return PublicKeyCache.DEFAULT.encode(this.getPublicKey());
     }
 
     @Override
@@ -2,7 +2,7 @@ package com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.hedera.hashgraph.identity.DidError;
-import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.identity.utils.PublicKeyCache;
 import com.hedera.hashgraph.sdk.PublicKey;
 
 public class HcsDidUpdateVerificationRelationshipEvent extends HcsDidCreateVerificationRelationshipEvent {
@@ -12,7 +12,7 @@ public class HcsDidUpdateVerificationRelationshipEvent extends HcsDidCreateVerif
     }
 
     public static HcsDidUpdateVerificationRelationshipEvent fromJsonTree(JsonNode tree) throws DidError {
-        PublicKey publicKey = PublicKey.fromBytes(Hashing.Multibase.decode(tree.get("publicKeyMultibase").textValue()));
+        PublicKey publicKey = PublicKeyCache.DEFAULT.decode(tree.get("publicKeyMultibase").textValue());
         return new HcsDidUpdateVerificationRelationshipEvent(
                 tree.get("id").textValue(),
                 VerificationRelationshipType.get(tree.get("relationshipType").textValue()),
@@ -0,0 +1,408 @@
+package com.hedera.hashgraph.identity.hcs.log;
+
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import org.threeten.bp.Instant;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A sealed, immutable segment of a topic event log.
+ * <p>
+ * Messages are grouped into blocks of roughly {@code blockSize} uncompressed bytes and every block is deflated on its
+ * own. A sparse index holds the first sequence number and the file offset of each block, so a single message is
+ * read with one binary search and one block decompression.
+ * <p>
+ * File layout:
+ * <pre>
+ * header:  magic (int), format version (int)
+ * blocks:  compressed length (int), uncompressed length (int), entry count (int), deflated entries
+ * index:   block count (int), first sequence numbers (long[]), block offsets (long[]), last sequence number (long)
+ * footer:  index offset (long), magic (int)
+ * </pre>
+ * The file stays open for positional reads until the segment is closed.
+ */
+public final class EventLogSegment implements Closeable {
+
+    /**
+     * Default amount of uncompressed message bytes grouped into one compressed block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    static final String FILE_EXTENSION = ".seg";
+
+    private static final int MAGIC = 0x4844454C; // "HDEL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int BLOCK_HEADER_SIZE = Integer.BYTES * 3;
+    private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long[] blockSequenceNumbers;
+    private final long[] blockOffsets;
+    private final long lastSequenceNumber;
+
+    private EventLogSegment(final Path path,
+                            final FileChannel channel,
+                            final long[] blockSequenceNumbers,
+                            final long[] blockOffsets,
+                            final long lastSequenceNumber) {
+        this.path = path;
+        this.channel = channel;
+        this.blockSequenceNumbers = blockSequenceNumbers;
+        this.blockOffsets = blockOffsets;
+        this.lastSequenceNumber = lastSequenceNumber;
+    }
+
+    /**
+     * Writes the given messages into a new sealed segment file.
+     * The file is written next to its target and moved in place only once complete, the partial file is deleted if
+     * writing fails.
+     *
+     * @param path      Path of the segment file.
+     * @param entries   Messages ordered by ascending sequence number.
+     * @param blockSize Amount of uncompressed bytes grouped into one compressed block.
+     * @return The sealed segment.
+     * @throws IOException if the segment could not be written.
+     */
+    public static EventLogSegment write(final Path path,
+                                        final List<SerializableMirrorConsensusResponse> entries,
+                                        final int blockSize) throws IOException {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("Segment must contain at least one entry.");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+
+        long[] sequenceNumbers = new long[entries.size()];
+        long[] offsets = new long[entries.size()];
+        int blockCount = 0;
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION);
+                writeFully(channel, header.flip());
+
+                ByteArrayOutputStream block = new ByteArrayOutputStream(blockSize + 1024);
+                DataOutputStream blockOut = new DataOutputStream(block);
+                int blockEntries = 0;
+                long previous = Long.MIN_VALUE;
+
+                for (SerializableMirrorConsensusResponse entry : entries) {
+                    if (entry.sequenceNumber <= previous) {
+                        throw new IllegalArgumentException("Entries must be ordered by ascending sequence number.");
+                    }
+                    previous = entry.sequenceNumber;
+
+                    if (blockEntries == 0) {
+                        sequenceNumbers[blockCount] = entry.sequenceNumber;
+                        offsets[blockCount] = channel.position();
+                        blockCount++;
+                    }
+                    writeEntry(blockOut, entry);
+                    blockEntries++;
+
+                    if (block.size() >= blockSize) {
+                        writeBlock(channel, deflater, block, blockEntries);
+                        blockEntries = 0;
+                    }
+                }
+                if (blockEntries > 0) {
+                    writeBlock(channel, deflater, block, blockEntries);
+                }
+
+                long indexOffset = channel.position();
+                ByteBuffer index = ByteBuffer.allocate(Integer.BYTES + blockCount * Long.BYTES * 2 + Long.BYTES + FOOTER_SIZE);
+                index.putInt(blockCount);
+                for (int i = 0; i < blockCount; i++) {
+                    index.putLong(sequenceNumbers[i]);
+                }
+                for (int i = 0; i < blockCount; i++) {
+                    index.putLong(offsets[i]);
+                }
+                index.putLong(previous);
+                index.putLong(indexOffset).putInt(MAGIC);
+                writeFully(channel, index.flip());
+                channel.force(true);
+            } finally {
+                deflater.end();
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        return new EventLogSegment(
+                path,
+                FileChannel.open(path, StandardOpenOption.READ),
+                Arrays.copyOf(sequenceNumbers, blockCount),
+                Arrays.copyOf(offsets, blockCount),
+                entries.get(entries.size() - 1).sequenceNumber
+        );
+    }
+
+    /**
+     * Opens an existing sealed segment file and loads its sparse index.
+     *
+     * @param path Path of the segment file.
+     * @return The segment.
+     * @throws IOException if the file could not be read or is not a valid segment.
+     */
+    public static EventLogSegment open(final Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE + FOOTER_SIZE) {
+                throw new IOException("Event log segment is truncated: " + path);
+            }
+
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a supported event log segment: " + path);
+            }
+
+            ByteBuffer footer = readFully(channel, size - FOOTER_SIZE, FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            if (footer.getInt() != MAGIC || indexOffset < HEADER_SIZE || indexOffset >= size - FOOTER_SIZE) {
+                throw new IOException("Event log segment is not sealed: " + path);
+            }
+
+            ByteBuffer index = readFully(channel, indexOffset, (int) (size - FOOTER_SIZE - indexOffset));
+            int blockCount = index.getInt();
+            long[] sequenceNumbers = new long[blockCount];
+            long[] offsets = new long[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                sequenceNumbers[i] = index.getLong();
+            }
+            for (int i = 0; i < blockCount; i++) {
+                offsets[i] = index.getLong();
+            }
+
+            return new EventLogSegment(path, channel, sequenceNumbers, offsets, index.getLong());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void writeEntry(final DataOutputStream out, final SerializableMirrorConsensusResponse entry) throws IOException {
+        out.writeLong(entry.sequenceNumber);
+        out.writeLong(entry.consensusTimestamp.getEpochSecond());
+        out.writeInt(entry.consensusTimestamp.getNano());
+        writeBytes(out, entry.runningHash);
+        writeBytes(out, entry.message);
+    }
+
+    private static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static SerializableMirrorConsensusResponse readEntry(final ByteBuffer in) {
+        long sequenceNumber = in.getLong();
+        Instant consensusTimestamp = Instant.ofEpochSecond(in.getLong(), in.getInt());
+        byte[] runningHash = readBytes(in);
+        byte[] message = readBytes(in);
+
+        return new SerializableMirrorConsensusResponse(consensusTimestamp, message, runningHash, sequenceNumber);
+    }
+
+    private static byte[] readBytes(final ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static void writeBlock(final FileChannel channel,
+                                   final Deflater deflater,
+                                   final ByteArrayOutputStream block,
+                                   final int entryCount) throws IOException {
+        byte[] raw = block.toByteArray();
+        block.reset();
+
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+
+        byte[] compressed = new byte[Math.max(64, raw.length / 2)];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE).putInt(length).putInt(raw.length).putInt(entryCount);
+        writeFully(channel, blockHeader.flip());
+        writeFully(channel, ByteBuffer.wrap(compressed, 0, length));
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer readFully(final FileChannel channel, final long position, final int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of event log segment.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    public long getFirstSequenceNumber() {
+        return this.blockSequenceNumbers[0];
+    }
+
+    public long getLastSequenceNumber() {
+        return this.lastSequenceNumber;
+    }
+
+    public int getBlockCount() {
+        return this.blockOffsets.length;
+    }
+
+    /**
+     * Checks if the given sequence number falls into this segment's range.
+     *
+     * @param sequenceNumber The topic message sequence number.
+     * @return True if the segment may contain the message.
+     */
+    public boolean covers(final long sequenceNumber) {
+        return sequenceNumber >= getFirstSequenceNumber() && sequenceNumber <= this.lastSequenceNumber;
+    }
+
+    /**
+     * Reads a single message by its sequence number, decompressing only the block that holds it.
+     *
+     * @param sequenceNumber The topic message sequence number.
+     * @return The message or null if it is not stored in this segment.
+     * @throws IOException if the segment could not be read.
+     */
+    public SerializableMirrorConsensusResponse read(final long sequenceNumber) throws IOException {
+        if (!covers(sequenceNumber)) {
+            return null;
+        }
+
+        ByteBuffer block = readBlock(blockIndexOf(sequenceNumber));
+        while (block.hasRemaining()) {
+            SerializableMirrorConsensusResponse entry = readEntry(block);
+            if (entry.sequenceNumber == sequenceNumber) {
+                return entry;
+            }
+            if (entry.sequenceNumber > sequenceNumber) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Streams all messages with a sequence number greater or equal to the given one to the consumer.
+     *
+     * @param fromSequenceNumber The first sequence number to return.
+     * @param consumer           Receiver of the messages, called in sequence order.
+     * @throws IOException if the segment could not be read.
+     */
+    public void scan(final long fromSequenceNumber, final Consumer<SerializableMirrorConsensusResponse> consumer) throws IOException {
+        if (fromSequenceNumber > this.lastSequenceNumber) {
+            return;
+        }
+
+        int first = fromSequenceNumber <= getFirstSequenceNumber() ? 0 : blockIndexOf(fromSequenceNumber);
+        for (int i = first; i < this.blockOffsets.length; i++) {
+            ByteBuffer block = readBlock(i);
+            while (block.hasRemaining()) {
+                SerializableMirrorConsensusResponse entry = readEntry(block);
+                if (entry.sequenceNumber >= fromSequenceNumber) {
+                    consumer.accept(entry);
+                }
+            }
+        }
+    }
+
+    private int blockIndexOf(final long sequenceNumber) {
+        int index = Arrays.binarySearch(this.blockSequenceNumbers, sequenceNumber);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private ByteBuffer readBlock(final int blockIndex) throws IOException {
+        ByteBuffer blockHeader = readFully(this.channel, this.blockOffsets[blockIndex], BLOCK_HEADER_SIZE);
+        int compressedLength = blockHeader.getInt();
+        int rawLength = blockHeader.getInt();
+
+        ByteBuffer compressed = readFully(this.channel, this.blockOffsets[blockIndex] + BLOCK_HEADER_SIZE, compressedLength);
+        byte[] raw = new byte[rawLength];
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array(), 0, compressedLength);
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IOException("Corrupted event log block in " + this.path);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted event log block in " + this.path, e);
+        } finally {
+            inflater.end();
+        }
+
+        return ByteBuffer.wrap(raw);
+    }
+
+    /**
+     * Closes the segment file. Reads fail afterwards.
+     *
+     * @throws IOException if the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
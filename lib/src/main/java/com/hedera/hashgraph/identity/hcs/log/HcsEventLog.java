@@ -0,0 +1,271 @@
+package com.hedera.hashgraph.identity.hcs.log;
+
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import org.threeten.bp.Instant;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Local, append-only history of a single HCS topic.
+ * <p>
+ * Messages are appended in sequence order and kept in memory until {@code segmentSize} of them are collected, then
+ * they are sealed into a compressed {@link EventLogSegment}. Messages that were not sealed yet are lost on a crash,
+ * which is fine as the mirror node remains the source of truth and they are simply fetched again.
+ * <p>
+ * The log can only be trusted if it holds every message up to the latest one. Sequence numbers cannot show that, as
+ * topic listeners drop invalid messages and leave gaps in them, so writers check with {@link #isContinuedBy(Instant)}
+ * that the messages they read start no later than right after the latest stored one.
+ */
+public class HcsEventLog implements Closeable {
+
+    /**
+     * Default number of messages sealed into one segment.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 10_000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int blockSize;
+    private final List<EventLogSegment> segments = new ArrayList<>();
+    private final List<SerializableMirrorConsensusResponse> tail = new ArrayList<>();
+    private long lastSequenceNumber = -1;
+    private Instant lastConsensusTimestamp;
+
+    /**
+     * Opens the event log stored in the given directory, creating it if necessary.
+     *
+     * @param directory The directory holding segment files of one topic.
+     * @throws IOException if the directory could not be created or segments could not be read.
+     */
+    public HcsEventLog(final Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, EventLogSegment.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Opens the event log stored in the given directory, creating it if necessary.
+     *
+     * @param directory   The directory holding segment files of one topic.
+     * @param segmentSize Number of messages sealed into one segment.
+     * @param blockSize   Amount of uncompressed bytes grouped into one compressed block.
+     * @throws IOException if the directory could not be created or segments could not be read.
+     */
+    public HcsEventLog(final Path directory, final int segmentSize, final int blockSize) throws IOException {
+        if (segmentSize <= 0 || blockSize <= 0) {
+            throw new IllegalArgumentException("Segment and block sizes must be positive.");
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.blockSize = blockSize;
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segmentFiles = files
+                    .filter(p -> p.getFileName().toString().endsWith(EventLogSegment.FILE_EXTENSION))
+                    .collect(Collectors.toList());
+            for (Path file : segmentFiles) {
+                segments.add(EventLogSegment.open(file));
+            }
+        } catch (IOException e) {
+            throw closeSegments(e);
+        }
+        segments.sort(Comparator.comparingLong(EventLogSegment::getFirstSequenceNumber));
+
+        if (!segments.isEmpty()) {
+            lastSequenceNumber = segments.get(segments.size() - 1).getLastSequenceNumber();
+            lastConsensusTimestamp = segments.get(segments.size() - 1).read(lastSequenceNumber).consensusTimestamp;
+        }
+    }
+
+    /**
+     * Appends a message to the log.
+     * Messages that are already stored (e.g. re-delivered by the mirror node) are ignored.
+     *
+     * @param response The mirror response to store.
+     * @return True if the message was appended, false if it was already stored.
+     * @throws IOException if sealing a full segment failed.
+     */
+    public synchronized boolean append(final SerializableMirrorConsensusResponse response) throws IOException {
+        if (response.sequenceNumber <= lastSequenceNumber) {
+            return false;
+        }
+
+        tail.add(response);
+        lastSequenceNumber = response.sequenceNumber;
+        lastConsensusTimestamp = response.consensusTimestamp;
+
+        if (tail.size() >= segmentSize) {
+            seal();
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether messages read from the topic starting at the given consensus time continue this log without
+     * leaving out any message published after the latest stored one.
+     *
+     * @param startTime Start of the consensus time range the messages were read from.
+     * @return True if the messages can be appended without a gap.
+     */
+    public synchronized boolean isContinuedBy(final Instant startTime) {
+        if (lastConsensusTimestamp == null) {
+            return !startTime.isAfter(Instant.EPOCH);
+        }
+        return !startTime.isAfter(lastConsensusTimestamp.plusNanos(1));
+    }
+
+    /**
+     * Seals all messages appended so far into a new compressed segment.
+     *
+     * @throws IOException if the segment could not be written.
+     */
+    public synchronized void seal() throws IOException {
+        if (tail.isEmpty()) {
+            return;
+        }
+
+        Path file = directory.resolve(String.format("%020d%s", tail.get(0).sequenceNumber, EventLogSegment.FILE_EXTENSION));
+        segments.add(EventLogSegment.write(file, tail, blockSize));
+        tail.clear();
+    }
+
+    /**
+     * Reads a single message by its sequence number.
+     *
+     * @param sequenceNumber The topic message sequence number.
+     * @return The message or null if it is not stored in the log.
+     * @throws IOException if a segment could not be read.
+     */
+    public synchronized SerializableMirrorConsensusResponse read(final long sequenceNumber) throws IOException {
+        if (!tail.isEmpty() && sequenceNumber >= tail.get(0).sequenceNumber) {
+            int index = Collections.binarySearch(
+                    tail,
+                    new SerializableMirrorConsensusResponse(null, null, null, sequenceNumber),
+                    Comparator.comparingLong(r -> r.sequenceNumber)
+            );
+            return index >= 0 ? tail.get(index) : null;
+        }
+
+        EventLogSegment segment = segmentOf(sequenceNumber);
+        return segment == null ? null : segment.read(sequenceNumber);
+    }
+
+    /**
+     * Streams all messages with a sequence number greater or equal to the given one to the consumer.
+     *
+     * @param fromSequenceNumber The first sequence number to return.
+     * @param consumer           Receiver of the messages, called in sequence order.
+     * @throws IOException if a segment could not be read.
+     */
+    public synchronized void scan(final long fromSequenceNumber, final Consumer<SerializableMirrorConsensusResponse> consumer) throws IOException {
+        for (EventLogSegment segment : segments) {
+            if (segment.getLastSequenceNumber() >= fromSequenceNumber) {
+                segment.scan(fromSequenceNumber, consumer);
+            }
+        }
+        for (SerializableMirrorConsensusResponse response : tail) {
+            if (response.sequenceNumber >= fromSequenceNumber) {
+                consumer.accept(response);
+            }
+        }
+    }
+
+    /**
+     * Sequence number of the latest stored message, which is the position to resume mirror subscriptions from.
+     *
+     * @return The last sequence number or -1 if the log is empty.
+     */
+    public synchronized long getLastSequenceNumber() {
+        return lastSequenceNumber;
+    }
+
+    /**
+     * Consensus timestamp of the latest stored message.
+     *
+     * @return The timestamp or null if the log is empty.
+     */
+    public synchronized Instant getLastConsensusTimestamp() {
+        return lastConsensusTimestamp;
+    }
+
+    /**
+     * @return True if no message was stored yet.
+     */
+    public synchronized boolean isEmpty() {
+        return lastSequenceNumber < 0;
+    }
+
+    public synchronized List<EventLogSegment> getSegments() {
+        return Collections.unmodifiableList(new ArrayList<>(segments));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Seals pending messages so that they survive a restart and closes all segments.
+     *
+     * @throws IOException if the segment could not be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        try {
+            seal();
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        failure = closeSegments(failure);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return The given failure with errors of closing segments suppressed in it, or the first such error if it is null.
+     */
+    private IOException closeSegments(IOException failure) {
+        for (EventLogSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        segments.clear();
+        return failure;
+    }
+
+    private EventLogSegment segmentOf(final long sequenceNumber) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            EventLogSegment segment = segments.get(mid);
+            if (sequenceNumber < segment.getFirstSequenceNumber()) {
+                high = mid - 1;
+            } else if (sequenceNumber > segment.getLastSequenceNumber()) {
+                low = mid + 1;
+            } else {
+                return segment;
+            }
+        }
+        return null;
+    }
+}
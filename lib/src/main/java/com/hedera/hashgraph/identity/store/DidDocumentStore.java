@@ -0,0 +1,72 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.sdk.TopicId;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Storage of resolved {@link DidDocument}s keyed by their DID.
+ * <p>
+ * Implementations must be safe for concurrent use. Shipped backends:
+ * <ul>
+ *     <li>{@link HeapDidDocumentStore} - concurrent in-memory map, for small deployments and tests.</li>
+ *     <li>{@link MappedFileDidDocumentStore} - memory-mapped append-only file, for medium sized working sets.</li>
+ *     <li>{@link MvStoreDidDocumentStore} - embedded on-disk key-value store, for large document sets.</li>
+ * </ul>
+ */
+public interface DidDocumentStore extends Closeable {
+
+    /**
+     * Returns the stored document of the given DID.
+     *
+     * @param did The DID string.
+     * @return The document or null if the store does not hold it.
+     * @throws IOException if the backend failed to read the document.
+     */
+    DidDocument get(String did) throws IOException;
+
+    /**
+     * Stores the document, replacing any previous version.
+     *
+     * @param document The document to store.
+     * @throws IOException if the backend failed to write the document.
+     */
+    void put(DidDocument document) throws IOException;
+
+    /**
+     * Stores the document only if the currently stored version of it has the expected version ID.
+     * A document that is not stored yet matches the expected version ID {@code null}.
+     *
+     * @param expectedVersionId The version ID of the currently stored document.
+     * @param document          The document to store.
+     * @return True if the document was stored, false if the stored version did not match.
+     * @throws IOException if the backend failed to read or write the document.
+     */
+    boolean compareAndSet(String expectedVersionId, DidDocument document) throws IOException;
+
+    /**
+     * Removes the document of the given DID.
+     *
+     * @param did The DID string.
+     * @return True if a document was removed.
+     * @throws IOException if the backend failed to remove the document.
+     */
+    boolean remove(String did) throws IOException;
+
+    /**
+     * Streams all stored documents of DIDs registered on the given topic.
+     *
+     * @param topicId  The DID topic ID.
+     * @param consumer Receiver of the documents.
+     * @throws IOException if the backend failed to read the documents.
+     */
+    void scan(TopicId topicId, Consumer<DidDocument> consumer) throws IOException;
+
+    /**
+     * @return Number of stored documents.
+     */
+    long size();
+}
@@ -0,0 +1,45 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidSyntax;
+
+/**
+ * Key helpers shared by store implementations.
+ */
+final class DidDocumentStoreKeys {
+
+    /**
+     * This class is not to be instantiated.
+     */
+    private DidDocumentStoreKeys() {
+        // Empty on purpose.
+    }
+
+    /**
+     * Extracts the topic ID part of a Hedera DID string without fully parsing it.
+     *
+     * @param did The DID string.
+     * @return The topic ID string or an empty string if the DID does not contain one.
+     */
+    static String topicOf(final String did) {
+        int separator = did.lastIndexOf(DidSyntax.DID_TOPIC_SEPARATOR);
+        return separator < 0 ? "" : did.substring(separator + 1);
+    }
+
+    /**
+     * Builds a key that sorts documents of the same topic next to each other.
+     *
+     * @param did The DID string.
+     * @return The topic prefixed key.
+     */
+    static String topicKey(final String did) {
+        return topicOf(did) + '/' + did;
+    }
+
+    /**
+     * @param topicId The topic ID string.
+     * @return The smallest key of documents stored on the topic.
+     */
+    static String topicKeyPrefix(final String topicId) {
+        return topicId + '/';
+    }
+}
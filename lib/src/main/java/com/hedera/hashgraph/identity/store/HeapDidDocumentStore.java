@@ -0,0 +1,76 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.sdk.TopicId;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * {@link DidDocumentStore} backed by concurrent in-memory maps.
+ * Documents are kept as live objects, so this store is the fastest but is bounded by the Java heap. They are stored as
+ * {@link DidDocument#snapshot() snapshots}, so callers cannot change stored documents through their own references.
+ */
+public class HeapDidDocumentStore implements DidDocumentStore {
+
+    private final Map<String, Map<String, DidDocument>> documentsByTopic = new ConcurrentHashMap<>();
+
+    @Override
+    public DidDocument get(String did) {
+        Map<String, DidDocument> documents = documentsByTopic.get(DidDocumentStoreKeys.topicOf(did));
+        return documents == null ? null : documents.get(did);
+    }
+
+    @Override
+    public void put(DidDocument document) {
+        topic(document.getId()).put(document.getId(), document.snapshot());
+    }
+
+    @Override
+    public boolean compareAndSet(String expectedVersionId, DidDocument document) {
+        AtomicBoolean updated = new AtomicBoolean(false);
+        DidDocument snapshot = document.snapshot();
+
+        topic(document.getId()).compute(document.getId(), (did, current) -> {
+            String currentVersionId = current == null ? null : current.getVersionId();
+            if (!Objects.equals(expectedVersionId, currentVersionId)) {
+                return current;
+            }
+            updated.set(true);
+            return snapshot;
+        });
+
+        return updated.get();
+    }
+
+    @Override
+    public boolean remove(String did) {
+        Map<String, DidDocument> documents = documentsByTopic.get(DidDocumentStoreKeys.topicOf(did));
+        return documents != null && documents.remove(did) != null;
+    }
+
+    @Override
+    public void scan(TopicId topicId, Consumer<DidDocument> consumer) {
+        Map<String, DidDocument> documents = documentsByTopic.get(topicId.toString());
+        if (documents != null) {
+            documents.values().forEach(consumer);
+        }
+    }
+
+    @Override
+    public long size() {
+        return documentsByTopic.values().stream().mapToLong(Map::size).sum();
+    }
+
+    @Override
+    public void close() {
+        documentsByTopic.clear();
+    }
+
+    private Map<String, DidDocument> topic(String did) {
+        return documentsByTopic.computeIfAbsent(DidDocumentStoreKeys.topicOf(did), t -> new ConcurrentHashMap<>());
+    }
+}
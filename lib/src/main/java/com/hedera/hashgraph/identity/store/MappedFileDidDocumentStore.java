@@ -0,0 +1,363 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentCodec;
+import com.hedera.hashgraph.identity.DidDocumentJsonCodec;
+import com.hedera.hashgraph.sdk.TopicId;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * {@link DidDocumentStore} backed by a memory-mapped, append-only file.
+ * <p>
+ * Every put appends a record holding the DID, the document version ID and the encoded document; an in-memory index
+ * points each DID to its latest record. The file grows by doubling and is compacted once superseded records take
+ * more space than live ones. Writes are flushed to disk by the operating system and forced on {@link #close()}.
+ * <p>
+ * Record layout: record length (int), DID length (short), DID, version ID length (short, -1 for null), version ID,
+ * document length (int, -1 for removed documents), encoded document. A record length of 0 marks the end of data.
+ */
+public class MappedFileDidDocumentStore implements DidDocumentStore {
+
+    /**
+     * Default initial size of the mapped file.
+     */
+    public static final int DEFAULT_INITIAL_SIZE = 16 * 1024 * 1024;
+
+    private static final int MAGIC = 0x48444453; // "HDDS"
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path file;
+    private final DidDocumentCodec codec;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<String, Integer>> offsetsByTopic = new HashMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+    private long liveBytes;
+    private long size;
+
+    /**
+     * Opens the store file, creating it if it does not exist.
+     *
+     * @param file Path of the store file.
+     * @throws IOException if the file could not be opened or mapped.
+     */
+    public MappedFileDidDocumentStore(final Path file) throws IOException {
+        this(file, new DidDocumentJsonCodec(), DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Opens the store file, creating it if it does not exist.
+     *
+     * @param file        Path of the store file.
+     * @param codec       The codec used to encode documents.
+     * @param initialSize Initial size of the mapped file in bytes.
+     * @throws IOException if the file could not be opened or mapped.
+     */
+    public MappedFileDidDocumentStore(final Path file, final DidDocumentCodec codec, final int initialSize) throws IOException {
+        if (initialSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Initial size is too small.");
+        }
+
+        this.file = file;
+        this.codec = codec;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        boolean isNew = channel.size() == 0;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), initialSize));
+
+        if (isNew) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(Integer.BYTES, FORMAT_VERSION);
+            writePosition = HEADER_SIZE;
+        } else {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                channel.close();
+                throw new IOException("Not a supported DID document store file: " + file);
+            }
+            loadIndex();
+        }
+    }
+
+    @Override
+    public DidDocument get(String did) throws IOException {
+        byte[] bytes;
+
+        lock.readLock().lock();
+        try {
+            Integer offset = offsetOf(did);
+            if (offset == null) {
+                return null;
+            }
+            bytes = readDocument(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return codec.decode(bytes);
+    }
+
+    @Override
+    public void put(DidDocument document) throws IOException {
+        byte[] bytes = codec.encode(document);
+
+        lock.writeLock().lock();
+        try {
+            append(document.getId(), document.getVersionId(), bytes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(String expectedVersionId, DidDocument document) throws IOException {
+        byte[] bytes = codec.encode(document);
+
+        lock.writeLock().lock();
+        try {
+            Integer offset = offsetOf(document.getId());
+            String currentVersionId = offset == null ? null : readVersionId(offset);
+            if (!Objects.equals(expectedVersionId, currentVersionId)) {
+                return false;
+            }
+
+            append(document.getId(), document.getVersionId(), bytes);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(String did) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (offsetOf(did) == null) {
+                return false;
+            }
+            append(did, null, null);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void scan(TopicId topicId, Consumer<DidDocument> consumer) throws IOException {
+        List<byte[]> encoded = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> offsets = offsetsByTopic.get(topicId.toString());
+            if (offsets == null) {
+                return;
+            }
+            for (Integer offset : offsets.values()) {
+                encoded.add(readDocument(offset));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (byte[] bytes : encoded) {
+            consumer.accept(codec.decode(bytes));
+        }
+    }
+
+    @Override
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                buffer.force();
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Integer offsetOf(String did) {
+        Map<String, Integer> offsets = offsetsByTopic.get(DidDocumentStoreKeys.topicOf(did));
+        return offsets == null ? null : offsets.get(did);
+    }
+
+    private void append(String did, String versionId, byte[] document) throws IOException {
+        byte[] didBytes = did.getBytes(StandardCharsets.UTF_8);
+        byte[] versionBytes = versionId == null ? null : versionId.getBytes(StandardCharsets.UTF_8);
+        int recordLength = Short.BYTES + didBytes.length
+                + Short.BYTES + (versionBytes == null ? 0 : versionBytes.length)
+                + Integer.BYTES + (document == null ? 0 : document.length);
+
+        ensureCapacity(Integer.BYTES + recordLength);
+
+        int offset = writePosition;
+        ByteBuffer out = buffer.duplicate();
+        out.position(offset);
+        out.putInt(recordLength);
+        out.putShort((short) didBytes.length).put(didBytes);
+        if (versionBytes == null) {
+            out.putShort((short) -1);
+        } else {
+            out.putShort((short) versionBytes.length).put(versionBytes);
+        }
+        if (document == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(document.length).put(document);
+        }
+        writePosition = out.position();
+
+        index(did, document == null ? null : offset, Integer.BYTES + recordLength);
+    }
+
+    private void index(String did, Integer offset, int recordSize) {
+        Map<String, Integer> offsets = offsetsByTopic.computeIfAbsent(DidDocumentStoreKeys.topicOf(did), t -> new HashMap<>());
+        Integer previous = offset == null ? offsets.remove(did) : offsets.put(did, offset);
+
+        if (previous != null) {
+            liveBytes -= buffer.getInt(previous) + Integer.BYTES;
+            size--;
+        }
+        if (offset != null) {
+            liveBytes += recordSize;
+            size++;
+        }
+        if (offsets.isEmpty()) {
+            offsetsByTopic.remove(DidDocumentStoreKeys.topicOf(did));
+        }
+    }
+
+    private void ensureCapacity(int required) throws IOException {
+        if (writePosition + required <= buffer.capacity()) {
+            return;
+        }
+
+        long garbage = writePosition - HEADER_SIZE - liveBytes;
+        if (garbage > liveBytes && HEADER_SIZE + liveBytes + required <= buffer.capacity()) {
+            compact();
+            return;
+        }
+
+        long capacity = buffer.capacity();
+        while (capacity < writePosition + (long) required) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("DID document store file exceeds the maximum mapped size.");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void compact() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        int capacity = buffer.capacity();
+
+        try (FileChannel target = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer compacted = target.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            compacted.putInt(MAGIC).putInt(FORMAT_VERSION);
+
+            for (Map<String, Integer> offsets : offsetsByTopic.values()) {
+                for (Map.Entry<String, Integer> entry : offsets.entrySet()) {
+                    int offset = entry.getValue();
+                    int length = Integer.BYTES + buffer.getInt(offset);
+                    ByteBuffer record = buffer.duplicate();
+                    record.position(offset).limit(offset + length);
+
+                    entry.setValue(compacted.position());
+                    compacted.put(record);
+                }
+            }
+            writePosition = compacted.position();
+            compacted.force();
+        }
+
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void loadIndex() throws IOException {
+        int position = HEADER_SIZE;
+
+        while (position + Integer.BYTES <= buffer.capacity()) {
+            int recordLength = buffer.getInt(position);
+            if (recordLength == 0) {
+                break;
+            }
+            if (recordLength < 0 || position + Integer.BYTES + recordLength > buffer.capacity()) {
+                throw new IOException("DID document store file is corrupted at offset " + position + ": " + file);
+            }
+
+            ByteBuffer record = buffer.duplicate();
+            record.position(position + Integer.BYTES);
+            String did = readString(record);
+            readString(record);
+            boolean removed = record.getInt() < 0;
+
+            index(did, removed ? null : position, Integer.BYTES + recordLength);
+            position += Integer.BYTES + recordLength;
+        }
+
+        writePosition = position;
+    }
+
+    private String readVersionId(int offset) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset + Integer.BYTES);
+        readString(record);
+        return readString(record);
+    }
+
+    private byte[] readDocument(int offset) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset + Integer.BYTES);
+        readString(record);
+        readString(record);
+
+        byte[] document = new byte[record.getInt()];
+        record.get(document);
+        return document;
+    }
+
+    private static String readString(ByteBuffer record) {
+        short length = record.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,132 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentCodec;
+import com.hedera.hashgraph.identity.DidDocumentJsonCodec;
+import com.hedera.hashgraph.sdk.TopicId;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * {@link DidDocumentStore} backed by an embedded H2 MVStore key-value file.
+ * <p>
+ * Documents are stored encoded under keys prefixed with their topic ID, so documents of one topic are
+ * scanned as a single key range. Only the pages that are read are kept in memory.
+ * <p>
+ * The version ID of every document is also kept in a separate map under the same key, so that
+ * {@link #compareAndSet(String, DidDocument)} compares versions without decoding the stored document.
+ */
+public class MvStoreDidDocumentStore implements DidDocumentStore {
+
+    private static final String MAP_NAME = "didDocuments";
+    private static final String VERSIONS_MAP_NAME = "didDocumentVersions";
+
+    private final MVStore store;
+    private final MVMap<String, byte[]> documents;
+    private final MVMap<String, String> versionIds;
+    private final DidDocumentCodec codec;
+
+    /**
+     * Opens the store file, creating it if it does not exist.
+     *
+     * @param file Path of the store file.
+     */
+    public MvStoreDidDocumentStore(final Path file) {
+        this(file, new DidDocumentJsonCodec());
+    }
+
+    /**
+     * Opens the store file, creating it if it does not exist.
+     *
+     * @param file  Path of the store file.
+     * @param codec The codec used to encode documents.
+     */
+    public MvStoreDidDocumentStore(final Path file, final DidDocumentCodec codec) {
+        this.store = new MVStore.Builder().fileName(file.toString()).compress().open();
+        this.documents = store.openMap(MAP_NAME);
+        this.versionIds = store.openMap(VERSIONS_MAP_NAME);
+        this.codec = codec;
+    }
+
+    @Override
+    public DidDocument get(String did) throws IOException {
+        byte[] bytes = documents.get(DidDocumentStoreKeys.topicKey(did));
+        return bytes == null ? null : codec.decode(bytes);
+    }
+
+    @Override
+    public synchronized void put(DidDocument document) throws IOException {
+        write(DidDocumentStoreKeys.topicKey(document.getId()), document);
+    }
+
+    @Override
+    public synchronized boolean compareAndSet(String expectedVersionId, DidDocument document) throws IOException {
+        String key = DidDocumentStoreKeys.topicKey(document.getId());
+        String currentVersionId = versionIds.get(key);
+        if (currentVersionId == null) {
+            // Documents without a version ID, or written before version IDs were kept separately.
+            byte[] current = documents.get(key);
+            currentVersionId = current == null ? null : codec.decode(current).getVersionId();
+        }
+
+        if (!Objects.equals(expectedVersionId, currentVersionId)) {
+            return false;
+        }
+
+        write(key, document);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(String did) {
+        String key = DidDocumentStoreKeys.topicKey(did);
+        versionIds.remove(key);
+        return documents.remove(key) != null;
+    }
+
+    @Override
+    public void scan(TopicId topicId, Consumer<DidDocument> consumer) throws IOException {
+        String prefix = DidDocumentStoreKeys.topicKeyPrefix(topicId.toString());
+        Iterator<String> keys = documents.keyIterator(prefix);
+
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            byte[] bytes = documents.get(key);
+            if (bytes != null) {
+                consumer.accept(codec.decode(bytes));
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        return documents.sizeAsLong();
+    }
+
+    /**
+     * Stores the document and its version ID. The old version ID is removed first, so that a crash between the two
+     * maps leaves no version ID rather than a stale one.
+     */
+    private void write(String key, DidDocument document) throws IOException {
+        byte[] bytes = codec.encode(document);
+        versionIds.remove(key);
+        documents.put(key, bytes);
+        if (document.getVersionId() != null) {
+            versionIds.put(key, document.getVersionId());
+        }
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+}
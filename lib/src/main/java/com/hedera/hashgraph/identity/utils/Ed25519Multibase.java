@@ -0,0 +1,185 @@
+package com.hedera.hashgraph.identity.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Base58btc multibase codec specialized for multicodec-prefixed ed25519 public keys, as used in publicKeyMultibase
+ * properties.
+ * <p>
+ * The prefixed key always has 34 bytes starting with 0xed 0x01, so its encoding always has 48 characters: the 'z'
+ * multibase prefix followed by 47 base58 digits. The codec works on the 32 raw key bytes and treats the multicodec
+ * prefix as implicit, encoding and decoding directly into caller-provided buffers without intermediate arrays or big
+ * integer arithmetic.
+ */
+public final class Ed25519Multibase {
+
+    /**
+     * Length of a raw ed25519 public key.
+     */
+    public static final int PUBLIC_KEY_LENGTH = 32;
+
+    /**
+     * Length of the multibase encoding of a prefixed ed25519 public key, including the 'z' prefix.
+     */
+    public static final int ENCODED_LENGTH = 48;
+
+    private static final char BASE58_BTC = 'z';
+    private static final byte[] ALPHABET =
+            "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DIGITS = new byte[128];
+    // ed25519-pub multicodec, see https://github.com/multiformats/multicodec/blob/master/table.csv
+    private static final int CODEC_HIGH = 0xed;
+    private static final int CODEC_LOW = 0x01;
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private Ed25519Multibase() {
+    }
+
+    /**
+     * Encodes a raw ed25519 public key as ASCII multibase characters.
+     *
+     * @param publicKey       Buffer holding the raw key.
+     * @param publicKeyOffset Offset of the {@link #PUBLIC_KEY_LENGTH} key bytes.
+     * @param out             Buffer receiving the encoding.
+     * @param outOffset       Offset of the {@link #ENCODED_LENGTH} bytes written.
+     * @return The number of bytes written, always {@link #ENCODED_LENGTH}.
+     */
+    public static int encode(final byte[] publicKey, final int publicKeyOffset, final byte[] out, final int outOffset) {
+        if (publicKeyOffset < 0 || publicKeyOffset + PUBLIC_KEY_LENGTH > publicKey.length) {
+            throw new IndexOutOfBoundsException("Public key buffer is too short.");
+        }
+        if (outOffset < 0 || outOffset + ENCODED_LENGTH > out.length) {
+            throw new IndexOutOfBoundsException("Output buffer is too short.");
+        }
+
+        // Base58 digits are accumulated right-aligned in the output, three input bytes at a time.
+        final int end = outOffset + ENCODED_LENGTH;
+        int length = multiplyAdd(out, end, 0, 8, CODEC_HIGH);
+        length = multiplyAdd(out, end, length, 24,
+                CODEC_LOW << 16 | (publicKey[publicKeyOffset] & 0xff) << 8 | publicKey[publicKeyOffset + 1] & 0xff);
+        for (int i = publicKeyOffset + 2; i < publicKeyOffset + PUBLIC_KEY_LENGTH; i += 3) {
+            length = multiplyAdd(out, end, length, 24,
+                    (publicKey[i] & 0xff) << 16 | (publicKey[i + 1] & 0xff) << 8 | publicKey[i + 2] & 0xff);
+        }
+
+        // The prefix fixes the magnitude of the number, so the digits always fill the output after the 'z'.
+        for (int j = end - length; j < end; j++) {
+            out[j] = ALPHABET[out[j]];
+        }
+        out[outOffset] = BASE58_BTC;
+        return ENCODED_LENGTH;
+    }
+
+    /**
+     * @param publicKey The raw ed25519 public key.
+     * @return The multibase encoding of the prefixed key.
+     */
+    public static String encode(final byte[] publicKey) {
+        if (publicKey.length != PUBLIC_KEY_LENGTH) {
+            throw new IllegalArgumentException("Public key must have " + PUBLIC_KEY_LENGTH + " bytes.");
+        }
+        byte[] out = new byte[ENCODED_LENGTH];
+        encode(publicKey, 0, out, 0);
+        return new String(out, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Multiplies the base58 number of the given length ending before {@code end} by 2^shift and adds the carry.
+     *
+     * @return The new number of digits.
+     */
+    private static int multiplyAdd(final byte[] digits, final int end, final int length, final int shift, int carry) {
+        int used = 0;
+        for (int j = end - 1; carry != 0 || used < length; j--, used++) {
+            if (used < length) {
+                carry += digits[j] << shift;
+            }
+            digits[j] = (byte) (carry % 58);
+            carry /= 58;
+        }
+        return used;
+    }
+
+    /**
+     * Decodes the multibase encoding of a prefixed ed25519 public key into the raw key bytes.
+     *
+     * @param encoded   The encoded key, including the 'z' prefix.
+     * @param out       Buffer receiving the raw key.
+     * @param outOffset Offset of the {@link #PUBLIC_KEY_LENGTH} bytes written.
+     * @return The number of bytes written, always {@link #PUBLIC_KEY_LENGTH}.
+     * @throws IllegalArgumentException if the string is not a base58btc encoded ed25519 public key.
+     */
+    public static int decode(final CharSequence encoded, final byte[] out, final int outOffset) {
+        if (outOffset < 0 || outOffset + PUBLIC_KEY_LENGTH > out.length) {
+            throw new IndexOutOfBoundsException("Output buffer is too short.");
+        }
+        // A leading '1' would be a zero byte, which the multicodec prefix rules out.
+        if (encoded.length() != ENCODED_LENGTH || encoded.charAt(0) != BASE58_BTC || encoded.charAt(1) == ALPHABET[0]) {
+            throw new IllegalArgumentException("Not a base58btc encoded ed25519 public key.");
+        }
+
+        final int end = outOffset + PUBLIC_KEY_LENGTH;
+        Arrays.fill(out, outOffset, end, (byte) 0);
+        // The two multicodec prefix bytes are accumulated in locals instead of the output.
+        int low = 0;
+        int high = 0;
+        // Digits are added three at a time, 2 + 15 * 3 = 47.
+        for (int i = 1; i < ENCODED_LENGTH; ) {
+            int count = i == 1 ? 2 : 3;
+            int multiplier = 1;
+            int carry = 0;
+            for (int n = 0; n < count; n++, i++) {
+                char c = encoded.charAt(i);
+                int digit = c < 128 ? DIGITS[c] : -1;
+                if (digit < 0) {
+                    throw new IllegalArgumentException("Invalid base58 character '" + c + "'.");
+                }
+                carry = carry * 58 + digit;
+                multiplier *= 58;
+            }
+            for (int j = end - 1; j >= outOffset; j--) {
+                carry += (out[j] & 0xff) * multiplier;
+                out[j] = (byte) carry;
+                carry >>>= 8;
+            }
+            carry += low * multiplier;
+            low = carry & 0xff;
+            carry = (carry >>> 8) + high * multiplier;
+            high = carry & 0xff;
+            if (carry >>> 8 != 0) {
+                throw new IllegalArgumentException("Not a base58btc encoded ed25519 public key.");
+            }
+        }
+
+        if (high != CODEC_HIGH || low != CODEC_LOW) {
+            throw new IllegalArgumentException("Not a multicodec ed25519 public key.");
+        }
+        return PUBLIC_KEY_LENGTH;
+    }
+
+    /**
+     * @param encoded The encoded key, including the 'z' prefix.
+     * @return The raw ed25519 public key.
+     * @throws IllegalArgumentException if the string is not a base58btc encoded ed25519 public key.
+     */
+    public static byte[] decode(final CharSequence encoded) {
+        byte[] out = new byte[PUBLIC_KEY_LENGTH];
+        decode(encoded, out, 0);
+        return out;
+    }
+
+    /**
+     * @param encoded The encoded string.
+     * @return True if the string has the shape of an encoded ed25519 public key, its digits are not checked.
+     */
+    public static boolean isEncodedPublicKey(final CharSequence encoded) {
+        return encoded.length() == ENCODED_LENGTH && encoded.charAt(0) == BASE58_BTC;
+    }
+}
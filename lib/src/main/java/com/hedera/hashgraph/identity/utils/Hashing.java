@@ -18,10 +18,20 @@ public class Hashing {
         private static final byte[] codeBytes = new byte[]{-19, 1};
 
         public static String encode(byte[] data) {
+            if (data.length == Ed25519Multibase.PUBLIC_KEY_LENGTH) {
+                return Ed25519Multibase.encode(data);
+            }
             return io.ipfs.multibase.Multibase.encode(io.ipfs.multibase.Multibase.Base.Base58BTC, Bytes.concat(codeBytes, data));
         }
 
         public static byte[] decode(String encoded) {
+            if (Ed25519Multibase.isEncodedPublicKey(encoded)) {
+                try {
+                    return Ed25519Multibase.decode(encoded);
+                } catch (IllegalArgumentException e) {
+                    // not an ed25519 key, decoded generically below
+                }
+            }
             byte[] result = io.ipfs.multibase.Multibase.decode(encoded);
             // remove bytes
             return Arrays.copyOfRange(result, codeBytes.length, result.length);
@@ -35,7 +45,7 @@ public class Hashing {
         }
 
         public static String decode(String decodedString) {
-            return new String(java.util.Base64.getDecoder().decode(decodedString));
+            return new String(java.util.Base64.getDecoder().decode(decodedString), StandardCharsets.UTF_8);
 
         }
 
@@ -0,0 +1,626 @@
+package com.hedera.hashgraph.identity.utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Immutable hash map that keeps insertion order, implemented as a hash array mapped trie (HAMT).
+ * <p>
+ * Updates return a new map that shares all unchanged trie nodes with the original one, so keeping many versions of
+ * a map costs memory proportional to the number of changes between them. Like {@link java.util.LinkedHashMap},
+ * replacing the value of an existing key keeps its position, while removing and re-adding a key moves it to the end.
+ * Insertion order is kept in a second persistent trie keyed by the order in which keys were added, so iterating a
+ * version never needs to sort its entries.
+ *
+ * @param <K> Type of keys.
+ * @param <V> Type of values.
+ */
+public final class PersistentLinkedHashMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    @SuppressWarnings("rawtypes")
+    private static final PersistentLinkedHashMap EMPTY = new PersistentLinkedHashMap<>(null, null, 0, 0);
+
+    private final Node root;
+    // Entries by insertion order, null if the map is empty.
+    private final OrderNode orderRoot;
+    private final int size;
+    private final long nextOrder;
+
+    private PersistentLinkedHashMap(final Node root, final OrderNode orderRoot, final int size, final long nextOrder) {
+        this.root = root;
+        this.orderRoot = orderRoot;
+        this.size = size;
+        this.nextOrder = nextOrder;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentLinkedHashMap<K, V> empty() {
+        return (PersistentLinkedHashMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(final K key) {
+        return find(key) != null;
+    }
+
+    /**
+     * @param key The key.
+     * @return The value mapped to the key or null if there is none.
+     */
+    public V get(final K key) {
+        Entry<K, V> entry = find(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Returns a map with the given key mapped to the value.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @return The new map, or this map if the key was already mapped to the same value instance.
+     */
+    public PersistentLinkedHashMap<K, V> plus(final K key, final V value) {
+        Objects.requireNonNull(key);
+        int hash = hash(key);
+        Entry<K, V> existing = find(key);
+        if (existing != null && existing.value == value) {
+            return this;
+        }
+
+        long order = existing == null ? nextOrder : existing.order;
+        Entry<K, V> entry = new Entry<>(key, value, hash, order);
+        Node newRoot = root == null ? new BitmapNode(0, new Object[0]).put(0, entry) : root.put(0, entry);
+        OrderNode newOrderRoot = OrderNode.grow(orderRoot, order).put(order, entry);
+
+        return existing == null
+                ? new PersistentLinkedHashMap<>(newRoot, newOrderRoot, size + 1, nextOrder + 1)
+                : new PersistentLinkedHashMap<>(newRoot, newOrderRoot, size, nextOrder);
+    }
+
+    /**
+     * Returns a map without the given key.
+     *
+     * @param key The key.
+     * @return The new map, or this map if the key was not present.
+     */
+    public PersistentLinkedHashMap<K, V> minus(final K key) {
+        Entry<K, V> existing = find(key);
+        if (existing == null) {
+            return this;
+        }
+        return new PersistentLinkedHashMap<>(
+                root.remove(0, hash(key), key),
+                orderRoot.remove(existing.order),
+                size - 1,
+                nextOrder
+        );
+    }
+
+    /**
+     * @return Unmodifiable view of the keys in insertion order.
+     */
+    public List<K> keys() {
+        return new OrderedView<K, V, K>(orderRoot, size, entry -> entry.key);
+    }
+
+    /**
+     * @return Unmodifiable view of the values in insertion order of their keys.
+     */
+    public List<V> values() {
+        return new OrderedView<K, V, V>(orderRoot, size, entry -> entry.value);
+    }
+
+    /**
+     * Calls the action for every mapping in insertion order.
+     *
+     * @param action The action.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+        if (orderRoot != null) {
+            orderRoot.forEach(entry -> action.accept((K) entry.key, (V) entry.value));
+        }
+    }
+
+    /**
+     * Reports the differences between this map and the other one.
+     * Subtrees shared by both maps are skipped, so comparing a map with one derived from it by a few updates takes
+     * time proportional to the number of changed keys. Values are compared with {@link Object#equals(Object)}.
+     *
+     * @param other    The newer map.
+     * @param listener Receiver of keys added, removed or updated in the other map.
+     */
+    public void diff(final PersistentLinkedHashMap<K, V> other, final DiffListener<? super K, ? super V> listener) {
+        diff(root, other.root, listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void diff(final Object a, final Object b, final DiffListener<? super K, ? super V> listener) {
+        if (a == b) {
+            return;
+        }
+
+        if (a instanceof BitmapNode && b instanceof BitmapNode) {
+            BitmapNode x = (BitmapNode) a;
+            BitmapNode y = (BitmapNode) b;
+            int bits = x.bitmap | y.bitmap;
+            while (bits != 0) {
+                int bit = Integer.lowestOneBit(bits);
+                bits &= ~bit;
+                diff(
+                        (x.bitmap & bit) != 0 ? x.children[x.index(bit)] : null,
+                        (y.bitmap & bit) != 0 ? y.children[y.index(bit)] : null,
+                        listener
+                );
+            }
+            return;
+        }
+
+        if (a instanceof Entry && b instanceof Entry && ((Entry<?, ?>) a).key.equals(((Entry<?, ?>) b).key)) {
+            Entry<K, V> x = (Entry<K, V>) a;
+            Entry<K, V> y = (Entry<K, V>) b;
+            if (!Objects.equals(x.value, y.value)) {
+                listener.onUpdated(x.key, x.value, y.value);
+            }
+            return;
+        }
+
+        // Subtrees of different shape, compare their entries by key.
+        List<Entry<?, ?>> removed = entriesOf(a);
+        List<Entry<?, ?>> added = entriesOf(b);
+        Map<Object, Entry<?, ?>> addedByKey = new HashMap<>();
+        for (Entry<?, ?> entry : added) {
+            addedByKey.put(entry.key, entry);
+        }
+        for (Entry<?, ?> entry : removed) {
+            Entry<K, V> x = (Entry<K, V>) entry;
+            Entry<K, V> y = (Entry<K, V>) addedByKey.remove(x.key);
+            if (y == null) {
+                listener.onRemoved(x.key, x.value);
+            } else if (!Objects.equals(x.value, y.value)) {
+                listener.onUpdated(x.key, x.value, y.value);
+            }
+        }
+        for (Entry<?, ?> entry : added) {
+            if (addedByKey.containsKey(entry.key)) {
+                listener.onAdded((K) entry.key, (V) entry.value);
+            }
+        }
+    }
+
+    private static List<Entry<?, ?>> entriesOf(final Object child) {
+        List<Entry<?, ?>> entries = new ArrayList<>();
+        if (child instanceof Entry) {
+            entries.add((Entry<?, ?>) child);
+        } else if (child != null) {
+            ((Node) child).collect(entries);
+        }
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry<K, V> find(final K key) {
+        if (root == null || key == null) {
+            return null;
+        }
+        return (Entry<K, V>) root.find(0, hash(key), key);
+    }
+
+    private static int hash(final Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Receiver of differences reported by {@link #diff(PersistentLinkedHashMap, DiffListener)}.
+     *
+     * @param <K> Type of keys.
+     * @param <V> Type of values.
+     */
+    public interface DiffListener<K, V> {
+        void onAdded(K key, V value);
+
+        void onRemoved(K key, V value);
+
+        void onUpdated(K key, V oldValue, V newValue);
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        final int hash;
+        final long order;
+
+        Entry(final K key, final V value, final int hash, final long order) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+            this.order = order;
+        }
+    }
+
+    private interface Node {
+        Entry<?, ?> find(int shift, int hash, Object key);
+
+        Node put(int shift, Entry<?, ?> entry);
+
+        /**
+         * @return The node without the key, or null if it became empty.
+         */
+        Node remove(int shift, int hash, Object key);
+
+        void collect(List<Entry<?, ?>> entries);
+    }
+
+    /**
+     * Trie node with up to 32 children, each of them either an {@link Entry} or a nested {@link Node}.
+     */
+    private static final class BitmapNode implements Node {
+        final int bitmap;
+        final Object[] children;
+
+        BitmapNode(final int bitmap, final Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Entry<?, ?> find(final int shift, final int hash, final Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+
+            Object child = children[index(bit)];
+            if (child instanceof Entry) {
+                Entry<?, ?> entry = (Entry<?, ?>) child;
+                return entry.hash == hash && entry.key.equals(key) ? entry : null;
+            }
+            return ((Node) child).find(shift + BITS, hash, key);
+        }
+
+        @Override
+        public Node put(final int shift, final Entry<?, ?> entry) {
+            int bit = bit(entry.hash, shift);
+            int index = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[children.length + 1];
+                System.arraycopy(children, 0, copy, 0, index);
+                copy[index] = entry;
+                System.arraycopy(children, index, copy, index + 1, children.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+
+            Object child = children[index];
+            Object replacement;
+            if (child instanceof Entry) {
+                Entry<?, ?> existing = (Entry<?, ?>) child;
+                replacement = existing.hash == entry.hash && existing.key.equals(entry.key)
+                        ? entry
+                        : merge(shift + BITS, existing, entry);
+            } else {
+                replacement = ((Node) child).put(shift + BITS, entry);
+            }
+
+            Object[] copy = children.clone();
+            copy[index] = replacement;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        public Node remove(final int shift, final int hash, final Object key) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            Object child = children[index];
+
+            Object replacement = child instanceof Entry ? null : ((Node) child).remove(shift + BITS, hash, key);
+            if (replacement != null) {
+                Object[] copy = children.clone();
+                copy[index] = replacement;
+                return new BitmapNode(bitmap, copy);
+            }
+
+            if (children.length == 1) {
+                return null;
+            }
+            Object[] copy = new Object[children.length - 1];
+            System.arraycopy(children, 0, copy, 0, index);
+            System.arraycopy(children, index + 1, copy, index, children.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+
+        @Override
+        public void collect(final List<Entry<?, ?>> entries) {
+            for (Object child : children) {
+                if (child instanceof Entry) {
+                    entries.add((Entry<?, ?>) child);
+                } else {
+                    ((Node) child).collect(entries);
+                }
+            }
+        }
+
+        private static Node merge(final int shift, final Entry<?, ?> first, final Entry<?, ?> second) {
+            if (first.hash == second.hash) {
+                return new CollisionNode(first.hash, new Entry<?, ?>[]{first, second});
+            }
+
+            int firstBit = bit(first.hash, shift);
+            int secondBit = bit(second.hash, shift);
+            if (firstBit == secondBit) {
+                return new BitmapNode(firstBit, new Object[]{merge(shift + BITS, first, second)});
+            }
+            return Integer.compareUnsigned(firstBit, secondBit) < 0
+                    ? new BitmapNode(firstBit | secondBit, new Object[]{first, second})
+                    : new BitmapNode(firstBit | secondBit, new Object[]{second, first});
+        }
+    }
+
+    /**
+     * Leaf holding entries whose keys have the same hash.
+     */
+    private static final class CollisionNode implements Node {
+        final int hash;
+        final Entry<?, ?>[] entries;
+
+        CollisionNode(final int hash, final Entry<?, ?>[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        int indexOf(final Object key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Entry<?, ?> find(final int shift, final int hash, final Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            int index = indexOf(key);
+            return index < 0 ? null : entries[index];
+        }
+
+        @Override
+        public Node put(final int shift, final Entry<?, ?> entry) {
+            if (entry.hash != hash) {
+                return new BitmapNode(bit(hash, shift), new Object[]{this}).put(shift, entry);
+            }
+
+            int index = indexOf(entry.key);
+            Entry<?, ?>[] copy;
+            if (index < 0) {
+                copy = new Entry<?, ?>[entries.length + 1];
+                System.arraycopy(entries, 0, copy, 0, entries.length);
+                copy[entries.length] = entry;
+            } else {
+                copy = entries.clone();
+                copy[index] = entry;
+            }
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        public Node remove(final int shift, final int hash, final Object key) {
+            int index = indexOf(key);
+            if (entries.length == 1) {
+                return null;
+            }
+
+            Entry<?, ?>[] copy = new Entry<?, ?>[entries.length - 1];
+            System.arraycopy(entries, 0, copy, 0, index);
+            System.arraycopy(entries, index + 1, copy, index, entries.length - index - 1);
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        public void collect(final List<Entry<?, ?>> entries) {
+            Collections.addAll(entries, this.entries);
+        }
+    }
+
+    /**
+     * Node of the trie holding entries by insertion order. Each node covers {@code 32 << shift} consecutive orders
+     * and counts the entries below it, so the n-th entry can be found without visiting the ones before it.
+     */
+    private static final class OrderNode {
+        final int shift;
+        // Entries if shift is 0, nested nodes otherwise. Absent children are null.
+        final Object[] children;
+        final int count;
+
+        OrderNode(final int shift, final Object[] children, final int count) {
+            this.shift = shift;
+            this.children = children;
+            this.count = count;
+        }
+
+        /**
+         * @return The root, with levels added on top until it covers the order.
+         */
+        static OrderNode grow(final OrderNode root, final long order) {
+            OrderNode node = root == null ? new OrderNode(0, new Object[1 << BITS], 0) : root;
+            while ((order >>> (node.shift + BITS)) != 0) {
+                Object[] children = new Object[1 << BITS];
+                children[0] = node.count == 0 ? null : node;
+                node = new OrderNode(node.shift + BITS, children, node.count);
+            }
+            return node;
+        }
+
+        OrderNode put(final long order, final Entry<?, ?> entry) {
+            int index = (int) ((order >>> shift) & MASK);
+            Object[] copy = children.clone();
+            if (shift == 0) {
+                copy[index] = entry;
+                return new OrderNode(shift, copy, children[index] == null ? count + 1 : count);
+            }
+
+            OrderNode child = (OrderNode) children[index];
+            OrderNode replacement = (child == null ? new OrderNode(shift - BITS, new Object[1 << BITS], 0) : child)
+                    .put(order, entry);
+            copy[index] = replacement;
+            return new OrderNode(shift, copy, count - (child == null ? 0 : child.count) + replacement.count);
+        }
+
+        /**
+         * @return The node without the order, or null if it became empty.
+         */
+        OrderNode remove(final long order) {
+            if (count == 1) {
+                return null;
+            }
+
+            int index = (int) ((order >>> shift) & MASK);
+            Object[] copy = children.clone();
+            copy[index] = shift == 0 ? null : ((OrderNode) children[index]).remove(order);
+            return new OrderNode(shift, copy, count - 1);
+        }
+
+        Entry<?, ?> get(final int position) {
+            OrderNode node = this;
+            int remaining = position;
+            while (true) {
+                for (Object child : node.children) {
+                    if (child == null) {
+                        continue;
+                    }
+                    int childCount = node.shift == 0 ? 1 : ((OrderNode) child).count;
+                    if (remaining < childCount) {
+                        if (node.shift == 0) {
+                            return (Entry<?, ?>) child;
+                        }
+                        node = (OrderNode) child;
+                        break;
+                    }
+                    remaining -= childCount;
+                }
+            }
+        }
+
+        void forEach(final Consumer<Entry<?, ?>> action) {
+            for (Object child : children) {
+                if (child == null) {
+                    continue;
+                }
+                if (shift == 0) {
+                    action.accept((Entry<?, ?>) child);
+                } else {
+                    ((OrderNode) child).forEach(action);
+                }
+            }
+        }
+    }
+
+    /**
+     * List view projecting the entries of an order trie, without copying them.
+     */
+    private static final class OrderedView<K, V, T> extends AbstractList<T> {
+        final OrderNode root;
+        final int size;
+        final Function<Entry<K, V>, T> projection;
+
+        OrderedView(final OrderNode root, final int size, final Function<Entry<K, V>, T> projection) {
+            this.root = root;
+            this.size = size;
+            this.projection = projection;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return projection.apply((Entry<K, V>) root.get(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                // Path from the root to the current leaf, and the next child to visit at each level.
+                private final OrderNode[] nodes = new OrderNode[root == null ? 0 : root.shift / BITS + 1];
+                private final int[] positions = new int[nodes.length];
+                private int depth;
+                private int remaining = size;
+
+                {
+                    if (nodes.length > 0) {
+                        nodes[0] = root;
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+
+                    while (true) {
+                        OrderNode node = nodes[depth];
+                        if (positions[depth] == node.children.length) {
+                            depth--;
+                            continue;
+                        }
+                        Object child = node.children[positions[depth]++];
+                        if (child == null) {
+                            continue;
+                        }
+                        if (node.shift == 0) {
+                            remaining--;
+                            return projection.apply((Entry<K, V>) child);
+                        }
+                        depth++;
+                        nodes[depth] = (OrderNode) child;
+                        positions[depth] = 0;
+                    }
+                }
+            };
+        }
+    }
+}
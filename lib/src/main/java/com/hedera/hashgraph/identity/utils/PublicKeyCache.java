@@ -0,0 +1,147 @@
+package com.hedera.hashgraph.identity.utils;
+
+import com.hedera.hashgraph.identity.cache.CacheTierStats;
+import com.hedera.hashgraph.sdk.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded interning cache between multibase strings and decoded {@link PublicKey} objects.
+ * <p>
+ * A DID topic holds the same few keys in thousands of events, so decoding every occurrence repeats the base58
+ * arithmetic and key construction, and serializing every occurrence repeats the encoding. Both directions are cached
+ * here, the least recently used entries are evicted once the maximum size is reached.
+ * <p>
+ * Decoded keys are shared between all callers and must not be modified, e.g. through the array returned by
+ * {@link PublicKey#toBytes()}.
+ */
+public class PublicKeyCache {
+
+    /**
+     * Default maximum number of keys cached in each direction.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * Cache shared by event and document parsing.
+     */
+    public static final PublicKeyCache DEFAULT = new PublicKeyCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final int maximumSize;
+    private final Map<String, PublicKey> decoded;
+    private final Map<ByteBuffer, String> encoded;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maximumSize Maximum number of keys cached in each direction.
+     */
+    public PublicKeyCache(final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+
+        this.maximumSize = maximumSize;
+        this.decoded = lru(maximumSize);
+        this.encoded = lru(maximumSize);
+    }
+
+    private static <K, V> Map<K, V> lru(final int maximumSize) {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Decodes a multibase encoded ed25519 public key, or returns the key decoded earlier from the same string.
+     *
+     * @param multibase The multibase encoded key, as in publicKeyMultibase properties.
+     * @return The shared decoded key.
+     */
+    public PublicKey decode(final String multibase) {
+        PublicKey result;
+        synchronized (decoded) {
+            result = decoded.get(multibase);
+        }
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+
+        misses.increment();
+        result = PublicKey.fromBytes(Hashing.Multibase.decode(multibase));
+        synchronized (decoded) {
+            decoded.put(multibase, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param publicKey The public key.
+     * @return The multibase encoding of the key.
+     */
+    public String encode(final PublicKey publicKey) {
+        return encode(publicKey.toBytes());
+    }
+
+    /**
+     * Encodes raw public key bytes as multibase, or returns the encoding of earlier equal bytes.
+     *
+     * @param publicKey The raw public key bytes, not modified or retained.
+     * @return The multibase encoding of the key.
+     */
+    public String encode(final byte[] publicKey) {
+        String result;
+        synchronized (encoded) {
+            result = encoded.get(ByteBuffer.wrap(publicKey));
+        }
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+
+        misses.increment();
+        result = Hashing.Multibase.encode(publicKey);
+        synchronized (encoded) {
+            encoded.put(ByteBuffer.wrap(publicKey.clone()), result);
+        }
+        return result;
+    }
+
+    /**
+     * @return Number of cached entries in both directions.
+     */
+    public int size() {
+        int size;
+        synchronized (decoded) {
+            size = decoded.size();
+        }
+        synchronized (encoded) {
+            return size + encoded.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public CacheTierStats getStats() {
+        return new CacheTierStats("public-keys", hits.sum(), misses.sum());
+    }
+
+    public void clear() {
+        synchronized (decoded) {
+            decoded.clear();
+        }
+        synchronized (encoded) {
+            encoded.clear();
+        }
+    }
+}
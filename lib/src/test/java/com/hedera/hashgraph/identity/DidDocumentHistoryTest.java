@@ -0,0 +1,161 @@
+package com.hedera.hashgraph.identity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidUpdateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidRevokeServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidUpdateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class DidDocumentHistoryTest {
+
+    private final PrivateKey privateKey = PrivateKey.generateED25519();
+    private final String identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(privateKey.getPublicKey().toBytes()));
+
+    HcsDidMessage createOwner() throws DidError {
+        return new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey()));
+    }
+
+    HcsDidMessage createService(int i) throws DidError {
+        return new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateServiceEvent(identifier + "#service-" + i, ServiceType.LINKED_DOMAINS, "https://example.com/" + i));
+    }
+
+    @Test
+    @DisplayName("derives immutable versions without modifying previous ones")
+    void itDerivesImmutableVersions() throws Exception {
+        DidDocument empty = new DidDocument(identifier, new HcsDidMessage[0]).snapshot();
+        DidDocument owned = empty.with(createOwner());
+        DidDocument withService = owned.with(createService(1));
+
+        assertFalse(empty.hasOwner());
+        assertTrue(owned.hasOwner());
+        assertFalse(owned.toJsonTree().has("service"));
+        assertEquals(1, withService.toJsonTree().get("service").size());
+
+        assertSame(withService, withService.with(createService(1)));
+        assertTrue(withService.isImmutable());
+        assertThrows(IllegalStateException.class, () -> withService.apply(createService(2)));
+        assertThrows(IllegalStateException.class, () -> withService.putService(identifier + "#service-2",
+                new DidDocumentService(identifier + "#service-2", ServiceType.LINKED_DOMAINS.toString(), "https://example.com/2")));
+        assertThrows(IllegalStateException.class, () -> withService.restore(null, null, null, "forged", true));
+        assertFalse(withService.getDeactivated());
+
+        HcsDidMessage[] messages = {createOwner(), createService(1)};
+        assertEquals(new DidDocument(identifier, messages).toJsonTree(), withService.toJsonTree());
+    }
+
+    @Test
+    @DisplayName("keeps the configured number of versions")
+    void itKeepsLastVersions() throws Exception {
+        DidDocumentHistory history = new DidDocumentHistory(identifier, 3);
+
+        assertTrue(history.apply(createOwner()));
+        Thread.sleep(5);
+        HcsDidMessage firstService = createService(1);
+        assertTrue(history.apply(firstService));
+        assertFalse(history.apply(createService(1)));
+        Thread.sleep(5);
+        assertTrue(history.apply(createService(2)));
+        assertTrue(history.apply(new HcsDidMessage(DidMethodOperation.REVOKE, identifier, new HcsDidRevokeServiceEvent(identifier + "#service-1"))));
+
+        assertEquals(3, history.size());
+        List<DidDocument> versions = history.getVersions();
+        assertEquals(1, versions.get(0).toJsonTree().get("service").size());
+        assertEquals(2, versions.get(1).toJsonTree().get("service").size());
+
+        JsonNode latest = history.getLatest().toJsonTree();
+        assertEquals(1, latest.get("service").size());
+        assertEquals(identifier + "#service-2", latest.get("service").get(0).get("id").textValue());
+
+        assertSame(versions.get(0), history.getVersion(versions.get(0).getVersionId()));
+        assertSame(versions.get(0), history.at(firstService.getTimestamp()));
+        assertNull(history.at(Instant.EPOCH));
+    }
+
+    @Test
+    @DisplayName("starts the initial version at its update time")
+    void itStartsInitialVersionAtUpdateTime() throws Exception {
+        HcsDidMessage owner = createOwner();
+        DidDocumentHistory history = new DidDocumentHistory(new DidDocument(identifier, new HcsDidMessage[]{owner}), 3);
+
+        assertSame(history.getLatest(), history.at(owner.getTimestamp()));
+        assertNull(history.at(owner.getTimestamp().minusNanos(1)));
+
+        DidDocumentHistory empty = new DidDocumentHistory(identifier, 3);
+        assertSame(empty.getLatest(), empty.at(Instant.EPOCH));
+    }
+
+    @Test
+    @DisplayName("diffs versions by their changed entries")
+    void itDiffsVersions() throws Exception {
+        PrivateKey newOwnerKey = PrivateKey.generateED25519();
+        DidDocument owned = new DidDocument(identifier, new HcsDidMessage[]{createOwner(), createService(1), createService(2)}).snapshot();
+
+        DidDocument changed = owned
+                .with(new HcsDidMessage(DidMethodOperation.REVOKE, identifier, new HcsDidRevokeServiceEvent(identifier + "#service-1")))
+                .with(new HcsDidMessage(DidMethodOperation.UPDATE, identifier,
+                        new HcsDidUpdateServiceEvent(identifier + "#service-2", ServiceType.DID_COMM_MESSAGING, "https://example.com/new")))
+                .with(createService(3))
+                .with(new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-1", VerificationRelationshipType.AUTHENTICATION,
+                                VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, newOwnerKey.getPublicKey())))
+                .with(new HcsDidMessage(DidMethodOperation.UPDATE, identifier,
+                        new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", identifier, newOwnerKey.getPublicKey())));
+
+        DidDocumentDiff diff = owned.diff(changed);
+        assertSame(owned, diff.getFrom());
+        assertEquals(DidDocumentDiff.Kind.UPDATED, diff.getController().getKind());
+        assertArrayEquals(newOwnerKey.getPublicKey().toBytes(), diff.getController().getNewValue().getPublicKey());
+
+        assertEquals(3, diff.getServices().size());
+        for (DidDocumentDiff.Change<DidDocumentService> change : diff.getServices()) {
+            DidDocumentService service = change.getNewValue() != null ? change.getNewValue() : change.getOldValue();
+            switch (service.getId().substring(identifier.length())) {
+                case "#service-1":
+                    assertEquals(DidDocumentDiff.Kind.REMOVED, change.getKind());
+                    break;
+                case "#service-2":
+                    assertEquals(DidDocumentDiff.Kind.UPDATED, change.getKind());
+                    assertEquals("https://example.com/new", change.getNewValue().getServiceEndpoint());
+                    break;
+                default:
+                    assertEquals(DidDocumentDiff.Kind.ADDED, change.getKind());
+                    assertEquals(identifier + "#service-3", service.getId());
+            }
+        }
+
+        assertEquals(1, diff.getVerificationMethods().size());
+        assertEquals(DidDocumentDiff.Kind.ADDED, diff.getVerificationMethods().get(0).getKind());
+        assertEquals(1, diff.getVerificationRelationships().size());
+        DidDocumentDiff.RelationshipChange relationship = diff.getVerificationRelationships().get(0);
+        assertEquals(DidDocumentDiff.Kind.ADDED, relationship.getKind());
+        assertEquals("authentication", relationship.getRelationshipType());
+        assertEquals(identifier + "#key-1", relationship.getId());
+
+        DidDocumentDiff reverse = changed.diff(owned);
+        assertEquals(DidDocumentDiff.Kind.REMOVED, reverse.getVerificationRelationships().get(0).getKind());
+        assertEquals(DidDocumentDiff.Kind.REMOVED, reverse.getVerificationMethods().get(0).getKind());
+
+        assertTrue(changed.diff(changed).isEmpty());
+        assertTrue(owned.diff(new DidDocument(identifier, new HcsDidMessage[]{createOwner(), createService(1), createService(2)})).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> owned.diff(new DidDocument(identifier + "1", new HcsDidMessage[0])));
+    }
+}
@@ -3,6 +3,7 @@ package com.hedera.hashgraph.identity;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
 import com.hedera.hashgraph.identity.hcs.did.event.document.HcsDidDeleteEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
@@ -21,6 +22,13 @@ import com.hedera.hashgraph.sdk.PrivateKey;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -458,4 +466,275 @@ public class DidDocumentTest {
         assertNotNull(doc.getVersionId());
 
     }
+
+    @Test
+    @DisplayName("applies messages incrementally and reports state changes")
+    void itAppliesMessagesIncrementally() throws DidError, JsonProcessingException {
+        HcsDidMessage createOwner = new HcsDidMessage(
+                DidMethodOperation.CREATE,
+                identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey())
+        );
+        HcsDidMessage createService = new HcsDidMessage(
+                DidMethodOperation.CREATE,
+                identifier,
+                new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://test.identity.com")
+        );
+        HcsDidMessage revokeService = new HcsDidMessage(
+                DidMethodOperation.REVOKE,
+                identifier,
+                new HcsDidRevokeServiceEvent(identifier + "#service-1")
+        );
+
+        DidDocument doc = new DidDocument(identifier, new HcsDidMessage[]{});
+
+        assertFalse(doc.apply(createService));
+        assertTrue(doc.apply(createOwner));
+        assertFalse(doc.apply(createOwner));
+        assertTrue(doc.apply(createService));
+        assertFalse(doc.apply(createService));
+        assertEquals(
+                new DidDocument(identifier, new HcsDidMessage[]{createOwner, createService}).toJsonTree(),
+                doc.toJsonTree()
+        );
+
+        assertTrue(doc.apply(new HcsDidMessage[]{revokeService, revokeService}));
+        assertFalse(doc.apply(new HcsDidMessage[]{revokeService}));
+        assertFalse(doc.toJsonTree().has("service"));
+
+        assertTrue(doc.apply(new HcsDidMessage(DidMethodOperation.DELETE, identifier, new HcsDidDeleteEvent())));
+        assertTrue(doc.getDeactivated());
+        assertFalse(doc.hasOwner());
+    }
+
+    @Test
+    @DisplayName("streams the same JSON as the document tree")
+    void itStreamsJson() throws Exception {
+        PrivateKey key1 = PrivateKey.generateED25519();
+        PrivateKey key2 = PrivateKey.generateED25519();
+        String otherController = "did:hedera:testnet:z6Mkkcn1EDXc5vzpmvnQeCKpEswyrnQG7qq59k92gFRm1EGk_0.0.29617801";
+
+        HcsDidMessage[] messages = {
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://test.identity.com")),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationMethodEvent(identifier + "#key-1",
+                                VerificationMethodSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key1.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-2", VerificationRelationshipType.KEY_AGREEMENT,
+                                VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key2.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-2", VerificationRelationshipType.AUTHENTICATION,
+                                VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key2.getPublicKey())),
+        };
+        DidDocument doc = new DidDocument(identifier, messages);
+
+        assertEquals(doc.toJsonTree().toString(), doc.toJSON());
+        assertArrayEquals(doc.toJSON().getBytes(StandardCharsets.UTF_8), doc.toJsonBytes());
+
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        buffer.put((byte) 1);
+        doc.writeJson(buffer);
+        assertEquals(1 + doc.toJsonBytes().length, buffer.position());
+
+        doc.apply(new HcsDidMessage(DidMethodOperation.UPDATE, identifier,
+                new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", otherController, key1.getPublicKey())));
+        assertTrue(doc.toJsonTree().has("controller"));
+        assertEquals(doc.toJsonTree().toString(), doc.toJSON());
+
+        DidDocument empty = new DidDocument(identifier, new HcsDidMessage[]{});
+        assertEquals(empty.toJsonTree().toString(), empty.toJSON());
+    }
+
+    @Test
+    @DisplayName("memoizes the JSON bytes and ETag until an event changes the document")
+    void itMemoizesJsonAndETag() throws Exception {
+        HcsDidMessage create = new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey()));
+        HcsDidMessage service = new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://test.identity.com"));
+        DidDocument doc = new DidDocument(identifier, new HcsDidMessage[]{create});
+
+        String etag = doc.getETag();
+        assertTrue(etag.matches("\"[A-Za-z0-9_-]{43}\""));
+        assertEquals(etag, doc.getETag());
+        assertEquals(etag, new DidDocument(identifier, new HcsDidMessage[]{create}).getETag());
+
+        byte[] bytes = doc.toJsonBytes();
+        bytes[0] = 'x';
+        assertEquals('{', doc.toJsonBytes()[0]);
+
+        DidDocument snapshot = doc.snapshot();
+        assertFalse(doc.apply(create));
+        assertEquals(etag, doc.getETag());
+
+        assertTrue(doc.apply(service));
+        assertNotEquals(etag, doc.getETag());
+        assertEquals(doc.toJsonTree().toString(), doc.toJSON());
+        assertEquals(etag, snapshot.getETag());
+        assertEquals(doc.getETag(), snapshot.with(service).getETag());
+    }
+
+    @Test
+    @DisplayName("exposes typed verification methods and services")
+    void itExposesTypedEntries() throws Exception {
+        PrivateKey key1 = PrivateKey.generateED25519();
+        PrivateKey key2 = PrivateKey.generateED25519();
+        String otherController = "did:hedera:testnet:z6Mkkcn1EDXc5vzpmvnQeCKpEswyrnQG7qq59k92gFRm1EGk_0.0.29617801";
+
+        DidDocument doc = new DidDocument(identifier, new HcsDidMessage[]{
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationMethodEvent(identifier + "#key-1",
+                                VerificationMethodSupportedKeyType.ED25519_VERIFICATION_KEY_2018, otherController, key1.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-2", VerificationRelationshipType.KEY_AGREEMENT,
+                                VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key2.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://test.identity.com")),
+        });
+
+        DidDocumentVerificationMethod owner = doc.getController();
+        assertEquals(identifier + "#did-root-key", owner.getId());
+        assertArrayEquals(privateKey.getPublicKey().toBytes(), owner.getPublicKey());
+
+        assertEquals(2, doc.getVerificationMethods().size());
+        DidDocumentVerificationMethod method = doc.getVerificationMethods().get(0);
+        assertEquals(identifier + "#key-1", method.getId());
+        assertEquals(otherController, method.getController());
+        assertNull(method.getRelationshipType());
+        assertEquals(Hashing.Multibase.encode(key1.getPublicKey().toBytes()), method.getPublicKeyMultibase());
+
+        DidDocumentVerificationMethod relationshipKey = doc.getVerificationMethods().get(1);
+        assertEquals("keyAgreement", relationshipKey.getRelationshipType());
+        assertEquals(relationshipKey, DidDocumentVerificationMethod.fromJsonTree(relationshipKey.toJsonTree()));
+        assertEquals(List.of(identifier + "#key-2"), doc.getVerificationRelationships().get("keyAgreement"));
+
+        DidDocumentService service = doc.getServices().get(0);
+        assertEquals(identifier + "#service-1", service.getId());
+        assertEquals("LinkedDomains", service.getType());
+        assertEquals(service, DidDocumentService.fromJsonTree(service.toJsonTree()));
+
+        DidDocument restored = new DidDocumentJsonCodec().decode(new DidDocumentJsonCodec().encode(doc));
+        assertEquals(doc.toJSON(), restored.toJSON());
+        assertEquals(doc.getVerificationMethods(), restored.getVerificationMethods());
+    }
+
+    @Test
+    @DisplayName("encodes documents as CBOR")
+    void itEncodesCbor() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        String otherController = "did:hedera:testnet:z6Mkkcn1EDXc5vzpmvnQeCKpEswyrnQG7qq59k92gFRm1EGk_0.0.29617801";
+
+        DidDocument doc = new DidDocument(identifier, new HcsDidMessage[]{
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationMethodEvent(otherController + "#key-1",
+                                VerificationMethodSupportedKeyType.ED25519_VERIFICATION_KEY_2018, otherController, key.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-2", VerificationRelationshipType.CAPABILITY_DELEGATION,
+                                VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://test.identity.com")),
+        });
+        doc.restore(doc.getController(), Instant.ofEpochSecond(1650000000, 123), Instant.ofEpochSecond(1650000001), "1650000001.000000000", false);
+
+        DidDocumentCborCodec codec = new DidDocumentCborCodec();
+        byte[] encoded = codec.encode(doc);
+        DidDocument restored = codec.decode(encoded);
+        assertEquals(doc.toJSON(), restored.toJSON());
+        assertEquals(doc.getCreated(), restored.getCreated());
+        assertEquals(doc.getUpdated(), restored.getUpdated());
+        assertEquals(doc.getVersionId(), restored.getVersionId());
+        assertEquals(doc.getVerificationMethods(), restored.getVerificationMethods());
+        assertEquals(doc.getVerificationRelationships(), restored.getVerificationRelationships());
+        assertTrue(encoded.length < new DidDocumentJsonCodec().encode(doc).length / 2);
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+        assertThrows(IOException.class, () -> codec.decode(truncated));
+
+        JsonNode cbor = new ObjectMapper(new CBORFactory()).readTree(doc.toCbor());
+        assertEquals(new ObjectMapper().readTree(doc.toJSON()), cbor);
+    }
+
+    @Test
+    @DisplayName("dereferences DID URLs to typed entries")
+    void itDereferencesDidUrls() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+
+        DidDocument doc = new DidDocument(identifier, new HcsDidMessage[]{
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationMethodEvent(identifier + "#key-1",
+                                VerificationMethodSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-3", VerificationRelationshipType.AUTHENTICATION,
+                                VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://test.identity.com")),
+        });
+
+        DidDocumentVerificationMethod owner = doc.getVerificationMethod(identifier + "#did-root-key");
+        assertSame(doc.getController(), owner);
+        assertEquals(privateKey.getPublicKey(), owner.toPublicKey());
+        assertSame(owner.toPublicKey(), owner.toPublicKey());
+
+        DidDocumentEntry method = doc.dereference(identifier + "#key-3");
+        assertTrue(method instanceof DidDocumentVerificationMethod);
+        assertEquals(key.getPublicKey(), ((DidDocumentVerificationMethod) method).toPublicKey());
+        assertSame(method, doc.dereference("#key-3"));
+
+        DidDocumentEntry service = doc.dereference(identifier + "#service-1");
+        assertTrue(service instanceof DidDocumentService);
+        assertEquals("LinkedDomains", service.getType());
+        assertNull(doc.getVerificationMethod(identifier + "#service-1"));
+        assertNull(doc.dereference(identifier + "#key-2"));
+        assertNull(doc.dereference("did:hedera:testnet:z6Mkkcn1EDXc5vzpmvnQeCKpEswyrnQG7qq59k92gFRm1EGk_0.0.29617801#key-1"));
+
+        assertTrue(doc.hasVerificationRelationship(VerificationRelationshipType.AUTHENTICATION, identifier + "#did-root-key"));
+        assertTrue(doc.hasVerificationRelationship(VerificationRelationshipType.ASSERTION_METHOD, "#did-root-key"));
+        assertFalse(doc.hasVerificationRelationship(VerificationRelationshipType.KEY_AGREEMENT, identifier + "#did-root-key"));
+        assertTrue(doc.hasVerificationRelationship(VerificationRelationshipType.AUTHENTICATION, identifier + "#key-3"));
+        assertFalse(doc.hasVerificationRelationship(VerificationRelationshipType.ASSERTION_METHOD, identifier + "#key-3"));
+        assertFalse(doc.hasVerificationRelationship(VerificationRelationshipType.AUTHENTICATION, identifier + "#key-1"));
+    }
+
+    @Test
+    @DisplayName("reports ignored events by reason")
+    void itReportsRejections() throws Exception {
+        HcsDidMessage service = new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://test.identity.com"));
+        HcsDidMessage create = new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey()));
+        HcsDidMessage revokeMissing = new HcsDidMessage(DidMethodOperation.REVOKE, identifier,
+                new HcsDidRevokeServiceEvent(identifier + "#service-2"));
+
+        DidDocumentRejectionReport report = new DidDocumentRejectionReport(2);
+        DidDocumentRejectionCounters counters = new DidDocumentRejectionCounters();
+        DidDocument doc = new DidDocument(identifier, new HcsDidMessage[]{service, create, create, service, service, revokeMissing},
+                report.andThen(counters));
+
+        assertEquals(1, doc.getServices().size());
+        assertEquals(4, report.getTotalCount());
+        assertEquals(0, report.getCount(DidDocumentRejectionReason.UNSUPPORTED_TARGET));
+        assertEquals(1, report.getCount(DidDocumentRejectionReason.OWNER_NOT_REGISTERED));
+        assertEquals(1, report.getCount(DidDocumentRejectionReason.OWNER_ALREADY_REGISTERED));
+        assertEquals(1, report.getCount(DidDocumentRejectionReason.DUPLICATE_SERVICE));
+        assertEquals(1, report.getCount(DidDocumentRejectionReason.SERVICE_NOT_FOUND));
+
+        assertEquals(2, report.getRejections().size());
+        assertSame(service, report.getRejections().get(0).getMessage());
+        assertEquals(DidDocumentRejectionReason.OWNER_ALREADY_REGISTERED, report.getRejections().get(1).getReason());
+
+        DidDocument snapshot = doc.snapshot();
+        assertSame(snapshot, snapshot.with(revokeMissing, counters));
+        assertEquals(5, counters.getTotalCount());
+        assertEquals(2, counters.getCount(DidDocumentRejectionReason.SERVICE_NOT_FOUND));
+        assertTrue(new DidDocumentRejectionReport().isEmpty());
+    }
 }
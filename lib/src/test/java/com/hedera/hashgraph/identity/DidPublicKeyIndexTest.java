@@ -0,0 +1,82 @@
+package com.hedera.hashgraph.identity;
+
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.document.HcsDidDeleteEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidCreateVerificationMethodEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.VerificationMethodSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidRevokeVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class DidPublicKeyIndexTest {
+
+    private final PublicKey sharedKey = PrivateKey.generateED25519().getPublicKey();
+
+    private String identifier(PublicKey ownerKey) {
+        return String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(ownerKey.toBytes()));
+    }
+
+    private HcsDidMessage owner(String did, PublicKey key) throws DidError {
+        return new HcsDidMessage(DidMethodOperation.CREATE, did, new HcsDidCreateDidOwnerEvent(did + "#did-root-key", did, key));
+    }
+
+    @Test
+    @DisplayName("finds DIDs by owner, verification method and relationship keys")
+    void itFindsDidsByKey() throws Exception {
+        PublicKey ownerKey1 = PrivateKey.generateED25519().getPublicKey();
+        PublicKey ownerKey2 = PrivateKey.generateED25519().getPublicKey();
+        String did1 = identifier(ownerKey1);
+        String did2 = identifier(ownerKey2);
+
+        DidDocument document1 = new DidDocument(did1, new HcsDidMessage[]{
+                owner(did1, ownerKey1),
+                new HcsDidMessage(DidMethodOperation.CREATE, did1, new HcsDidCreateVerificationMethodEvent(did1 + "#key-1",
+                        VerificationMethodSupportedKeyType.ED25519_VERIFICATION_KEY_2018, did1, sharedKey)),
+        });
+        DidDocument document2 = new DidDocument(did2, new HcsDidMessage[]{
+                owner(did2, ownerKey2),
+                new HcsDidMessage(DidMethodOperation.CREATE, did2, new HcsDidCreateVerificationRelationshipEvent(did2 + "#key-1",
+                        VerificationRelationshipType.AUTHENTICATION, VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018,
+                        did2, sharedKey)),
+        });
+
+        DidPublicKeyIndex index = new DidPublicKeyIndex();
+        index.index(document1);
+        index.index(document2);
+        index.index(document2);
+
+        assertEquals(2, index.size());
+        assertEquals(Set.of(did1), index.getDids(ownerKey1));
+        assertEquals(Set.of(did2), index.getDids(ownerKey2.toBytes()));
+        assertEquals(Set.of(did1, did2), index.getDids(sharedKey));
+        assertTrue(index.getDids(PrivateKey.generateED25519().getPublicKey()).isEmpty());
+
+        DidDocument revoked = document2.with(new HcsDidMessage(DidMethodOperation.REVOKE, did2,
+                new HcsDidRevokeVerificationRelationshipEvent(did2 + "#key-1", VerificationRelationshipType.AUTHENTICATION)));
+        index.index(revoked);
+        assertEquals(Set.of(did1), index.getDids(sharedKey));
+        assertEquals(Set.of(did2), index.getDids(ownerKey2));
+
+        index.index(document1.with(new HcsDidMessage(DidMethodOperation.DELETE, did1, new HcsDidDeleteEvent())));
+        assertTrue(index.getDids(sharedKey).isEmpty());
+        assertTrue(index.getDids(ownerKey1).isEmpty());
+        assertEquals(1, index.size());
+
+        index.remove(did2);
+        assertTrue(index.getDids(ownerKey2).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,163 @@
+package com.hedera.hashgraph.identity.cache;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentCborCodec;
+import com.hedera.hashgraph.identity.DidDocumentJsonCodec;
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class OffHeapDidDocumentCacheTest {
+
+    private final PrivateKey privateKey = PrivateKey.generateED25519();
+    private final String keyPart = Hashing.Multibase.encode(privateKey.getPublicKey().toBytes());
+
+    String identifier(int i) {
+        return String.format("did:hedera:testnet:%s%d_0.0.29613327", keyPart, i);
+    }
+
+    DidDocument document(String identifier, int services) throws DidError {
+        HcsDidMessage[] messages = new HcsDidMessage[services + 1];
+        messages[0] = new HcsDidMessage(
+                DidMethodOperation.CREATE,
+                identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey())
+        );
+        for (int i = 1; i <= services; i++) {
+            messages[i] = new HcsDidMessage(
+                    DidMethodOperation.CREATE,
+                    identifier,
+                    new HcsDidCreateServiceEvent(identifier + "#service-" + i, ServiceType.LINKED_DOMAINS, "https://example.com/" + i)
+            );
+        }
+        return new DidDocument(identifier, messages);
+    }
+
+    @Test
+    @DisplayName("stores documents off-heap and decodes them on read")
+    void itStoresDocuments() throws Exception {
+        OffHeapDidDocumentCache cache = new OffHeapDidDocumentCache(1024 * 1024);
+        DidDocument document = document(identifier(1), 2);
+
+        assertTrue(cache.put(document));
+
+        DidDocument cached = cache.get(document.getId());
+        assertNotSame(document, cached);
+        assertEquals(document.toJsonTree(), cached.toJsonTree());
+        assertArrayEquals(new DidDocumentCborCodec().encode(document), cache.getEncoded(document.getId()));
+        assertNull(cache.get(identifier(2)));
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("replaces and removes documents")
+    void itReplacesAndRemovesDocuments() throws Exception {
+        OffHeapDidDocumentCache cache = new OffHeapDidDocumentCache(1024 * 1024);
+        String did = identifier(1);
+
+        cache.put(document(did, 1));
+        DidDocument newer = document(did, 3);
+        cache.put(newer);
+
+        assertEquals(1, cache.size());
+        assertEquals(newer.toJsonTree(), cache.get(did).toJsonTree());
+        assertEquals(new DidDocumentCborCodec().encode(newer).length + 8 + did.length(), cache.getLiveBytes());
+
+        assertTrue(cache.remove(did));
+        assertFalse(cache.remove(did));
+        assertNull(cache.get(did));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getLiveBytes());
+    }
+
+    @Test
+    @DisplayName("evicts the oldest documents once the byte budget is used up")
+    void itEvictsByByteBudget() throws Exception {
+        int slabSize = 16 * 1024;
+        OffHeapDidDocumentCache cache = new OffHeapDidDocumentCache(4 * slabSize, slabSize, new DidDocumentJsonCodec());
+
+        int count = 400;
+        for (int i = 0; i < count; i++) {
+            cache.put(document(identifier(i), 1));
+        }
+
+        assertTrue(cache.getEvictionCount() > 0);
+        assertTrue(cache.getLiveBytes() <= cache.getByteBudget());
+        assertEquals(cache.getByteBudget(), cache.getAllocatedBytes());
+        assertEquals(count - cache.getEvictionCount(), cache.size());
+
+        assertNull(cache.getEncoded(identifier(0)));
+        assertNotNull(cache.get(identifier(count - 1)));
+    }
+
+    @Test
+    @DisplayName("gives documents read since they were written a second chance")
+    void itKeepsReadDocuments() throws Exception {
+        int slabSize = 16 * 1024;
+        OffHeapDidDocumentCache cache = new OffHeapDidDocumentCache(4 * slabSize, slabSize, new DidDocumentJsonCodec());
+        DidDocument hot = document(identifier(0), 1);
+        cache.put(hot);
+
+        int count = 400;
+        for (int i = 1; i < count; i++) {
+            cache.put(document(identifier(i), 1));
+            if (i % 20 == 0) {
+                assertNotNull(cache.getEncoded(identifier(0)));
+            }
+        }
+
+        assertTrue(cache.getEvictionCount() > 0);
+        assertEquals(hot.toJsonTree(), cache.get(identifier(0)).toJsonTree());
+        assertNull(cache.getEncoded(identifier(1)));
+        assertEquals(count - cache.getEvictionCount(), cache.size());
+        assertTrue(cache.getLiveBytes() <= cache.getByteBudget());
+    }
+
+    @Test
+    @DisplayName("keeps every entry reachable while the index grows and entries are removed")
+    void itKeepsIndexConsistent() {
+        OffHeapDidDocumentCache cache = new OffHeapDidDocumentCache(64 * 1024 * 1024);
+        byte[] value = "{}".getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(cache.putEncoded("did:" + i, value));
+        }
+        for (int i = 0; i < 5000; i += 3) {
+            assertTrue(cache.remove("did:" + i));
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            if (i % 3 == 0) {
+                assertNull(cache.getEncoded("did:" + i));
+            } else {
+                assertArrayEquals(value, cache.getEncoded("did:" + i));
+            }
+        }
+        assertEquals(5000 - 1667, cache.size());
+    }
+
+    @Test
+    @DisplayName("refuses documents larger than a slab")
+    void itRejectsOversizedDocuments() {
+        OffHeapDidDocumentCache cache = new OffHeapDidDocumentCache(1024, 128, new DidDocumentJsonCodec());
+
+        assertFalse(cache.putEncoded("did:1", new byte[256]));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,245 @@
+package com.hedera.hashgraph.identity.cache;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.threeten.bp.Instant;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class TieredDidDocumentCacheTest {
+
+    private final PrivateKey privateKey = PrivateKey.generateED25519();
+    private final String keyPart = Hashing.Multibase.encode(privateKey.getPublicKey().toBytes());
+    private final TopicId topicId = TopicId.fromString("0.0.29613327");
+    private final Instant start = Instant.parse("2022-04-01T10:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    String identifier(int i) {
+        return String.format("did:hedera:testnet:%s%d_%s", keyPart, i, topicId);
+    }
+
+    List<HcsDidMessage> messages(String identifier, int services) throws DidError {
+        List<HcsDidMessage> messages = new ArrayList<>();
+        messages.add(new HcsDidMessage(
+                DidMethodOperation.CREATE,
+                identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, privateKey.getPublicKey())
+        ));
+        for (int i = 1; i <= services; i++) {
+            messages.add(new HcsDidMessage(
+                    DidMethodOperation.CREATE,
+                    identifier,
+                    new HcsDidCreateServiceEvent(identifier + "#service-" + i, ServiceType.LINKED_DOMAINS, "https://example.com/" + i)
+            ));
+        }
+        return messages;
+    }
+
+    List<MessageEnvelope<HcsDidMessage>> envelopes(List<HcsDidMessage> messages, long fromSequence) throws Exception {
+        List<MessageEnvelope<HcsDidMessage>> result = new ArrayList<>();
+        long sequenceNumber = fromSequence;
+        for (HcsDidMessage message : messages) {
+            byte[] contents = new MessageEnvelope<>(message).sign(privateKey);
+            SerializableMirrorConsensusResponse response = new SerializableMirrorConsensusResponse(
+                    start.plusSeconds(sequenceNumber), contents, new byte[48], sequenceNumber);
+            result.add(MessageEnvelope.fromMirrorResponse(response, HcsDidMessage.class));
+            sequenceNumber++;
+        }
+        return result;
+    }
+
+    DidDocument document(String identifier, int services) throws DidError {
+        return new DidDocument(identifier, messages(identifier, services).toArray(new HcsDidMessage[0]));
+    }
+
+    @Test
+    @DisplayName("demotes documents evicted from L1 to L2 and promotes them back")
+    void itDemotesAndPromotes() throws Exception {
+        TieredDidDocumentCache cache = new TieredDidDocumentCache(2, new OffHeapDidDocumentCache(1024 * 1024), null);
+        DidDocument first = document(identifier(1), 1);
+
+        cache.put(first, start.plusSeconds(1));
+        cache.put(document(identifier(2), 1), start.plusSeconds(2));
+        cache.put(document(identifier(3), 1), start.plusSeconds(3));
+
+        assertEquals(2, cache.getL1Size());
+        assertEquals(1, cache.getL2().size());
+
+        CachedDidDocument promoted = cache.get(identifier(1));
+        assertNotNull(promoted);
+        assertEquals(first.toJsonTree(), promoted.getDocument().toJsonTree());
+        assertEquals(start.plusSeconds(1), promoted.getConsensusTimestamp());
+
+        // Promotion evicted the least recently used entry to L2.
+        assertNull(cache.getL2().getEncoded(identifier(1)));
+        assertNotNull(cache.getL2().getEncoded(identifier(2)));
+
+        assertSame(promoted, cache.get(identifier(1)));
+        assertEquals(1, cache.getL1Stats().getHitCount());
+        assertEquals(1, cache.getL1Stats().getMissCount());
+        assertEquals(1, cache.getL2Stats().getHitCount());
+        assertEquals(1.0, cache.getL2Stats().getHitRate());
+
+        // Promoted documents are shared, callers derive new versions instead of changing them.
+        assertTrue(promoted.getDocument().isImmutable());
+        assertThrows(IllegalStateException.class, () -> promoted.getDocument().apply(
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier(1),
+                        new HcsDidCreateServiceEvent(identifier(1) + "#service-9", ServiceType.LINKED_DOMAINS, "https://example.com/9"))));
+        assertEquals(first.toJsonTree(), cache.get(identifier(1)).getDocument().toJsonTree());
+    }
+
+    @Test
+    @DisplayName("rebuilds documents from the local event log")
+    void itRebuildsFromEventLog() throws Exception {
+        String did = identifier(1);
+        List<HcsDidMessage> messages = messages(did, 3);
+        List<MessageEnvelope<HcsDidMessage>> envelopes = envelopes(messages, 1);
+        envelopes.addAll(envelopes(messages(identifier(2), 1), 5));
+
+        try (TieredDidDocumentCache cache = new TieredDidDocumentCache(10, null, tempDir)) {
+            assertEquals(0, cache.record(topicId, envelopes.subList(2, 4), start.plusSeconds(3)));
+            assertEquals(6, cache.record(topicId, envelopes, Instant.MIN));
+            assertEquals(0, cache.record(topicId, envelopes.subList(4, 6), start.plusSeconds(5)));
+
+            // Like resolution, the rebuild applies every valid message of the topic.
+            CachedDidDocument entry = cache.get(did);
+            assertNotNull(entry);
+            HcsDidMessage[] topicMessages = envelopes.stream().map(MessageEnvelope::open).toArray(HcsDidMessage[]::new);
+            assertEquals(new DidDocument(did, topicMessages).toJsonTree(), entry.getDocument().toJsonTree());
+            assertEquals(start.plusSeconds(6), entry.getConsensusTimestamp());
+
+            assertSame(entry, cache.get(did));
+            assertEquals(1, cache.getL3Stats().getHitCount());
+            assertEquals(1, cache.getL1Stats().getHitCount());
+        }
+
+        try (TieredDidDocumentCache reopened = new TieredDidDocumentCache(10, null, tempDir)) {
+            assertNotNull(reopened.get(did));
+            assertNull(reopened.get(String.format("did:hedera:testnet:%s_0.0.1", keyPart)));
+            assertEquals(1, reopened.getL3Stats().getHitCount());
+            assertEquals(1, reopened.getL3Stats().getMissCount());
+        }
+    }
+
+    @Test
+    @DisplayName("invalidated documents are rebuilt from the event log with newer messages")
+    void itRebuildsInvalidatedDocuments() throws Exception {
+        String did = identifier(1);
+        List<HcsDidMessage> messages = messages(did, 2);
+
+        try (TieredDidDocumentCache cache = new TieredDidDocumentCache(10, new OffHeapDidDocumentCache(1024 * 1024), tempDir)) {
+            cache.record(topicId, envelopes(messages.subList(0, 2), 1), Instant.MIN);
+            cache.put(new DidDocument(did, messages.subList(0, 2).toArray(new HcsDidMessage[0])), start.plusSeconds(2));
+
+            cache.record(topicId, envelopes(messages.subList(2, 3), 3), start.plusSeconds(2).plusNanos(1));
+            assertEquals(start.plusSeconds(2), cache.get(did).getConsensusTimestamp());
+
+            cache.invalidate(did);
+            CachedDidDocument rebuilt = cache.get(did);
+            assertEquals(start.plusSeconds(3), rebuilt.getConsensusTimestamp());
+            assertEquals(2, rebuilt.getDocument().toJsonTree().get("service").size());
+        }
+    }
+
+    @Test
+    @DisplayName("does not store messages read after a gap")
+    void itRejectsGaps() throws Exception {
+        String did = identifier(1);
+        List<MessageEnvelope<HcsDidMessage>> envelopes = envelopes(messages(did, 3), 1);
+
+        try (TieredDidDocumentCache cache = new TieredDidDocumentCache(10, null, tempDir)) {
+            assertEquals(2, cache.record(topicId, envelopes.subList(0, 2), Instant.MIN));
+            // The third message was published before the read started, so it would be missing from the log.
+            assertEquals(0, cache.record(topicId, envelopes.subList(3, 4), start.plusSeconds(4)));
+            assertEquals(start.plusSeconds(2), cache.get(did).getConsensusTimestamp());
+
+            // Resolution continues from the rebuilt document's timestamp and fills the gap.
+            assertEquals(2, cache.record(topicId, envelopes.subList(2, 4), start.plusSeconds(2).plusNanos(1)));
+            cache.invalidate(did);
+            assertEquals(start.plusSeconds(4), cache.get(did).getConsensusTimestamp());
+            assertEquals(3, cache.get(did).getDocument().getServices().size());
+        }
+    }
+
+    @Test
+    @DisplayName("rebuilds documents from their last checkpoint")
+    void itRebuildsFromCheckpoint() throws Exception {
+        String did = identifier(1);
+        List<HcsDidMessage> messages = messages(did, 3);
+        List<MessageEnvelope<HcsDidMessage>> envelopes = envelopes(messages, 1);
+
+        try (TieredDidDocumentCache cache = new TieredDidDocumentCache(10, null, tempDir)) {
+            cache.record(topicId, envelopes.subList(0, 2), Instant.MIN);
+            assertEquals(1, cache.get(did).getDocument().getServices().size());
+        }
+
+        // Drop the segment holding the messages reflected by the checkpoint, they are not read again.
+        Path topicDirectory = tempDir.resolve(topicId.toString());
+        try (Stream<Path> files = Files.list(topicDirectory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".seg")).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+
+        try (TieredDidDocumentCache cache = new TieredDidDocumentCache(10, null, tempDir)) {
+            cache.record(topicId, envelopes.subList(2, 4), Instant.MIN);
+            CachedDidDocument entry = cache.get(did);
+            assertEquals(new DidDocument(did, messages.toArray(new HcsDidMessage[0])).toJsonTree(), entry.getDocument().toJsonTree());
+            assertEquals(start.plusSeconds(4), entry.getConsensusTimestamp());
+        }
+    }
+
+    @Test
+    @DisplayName("saves the hottest entries and loads them with their consensus timestamps")
+    void itSavesAndLoadsSnapshots() throws Exception {
+        Path snapshot = tempDir.resolve("cache.snapshot");
+        TieredDidDocumentCache cache = new TieredDidDocumentCache(10, null, null);
+        for (int i = 1; i <= 4; i++) {
+            cache.put(document(identifier(i), i), start.plusSeconds(i));
+        }
+        cache.get(identifier(1));
+
+        assertEquals(3, cache.save(snapshot, 3));
+
+        TieredDidDocumentCache restarted = new TieredDidDocumentCache(10, new OffHeapDidDocumentCache(1024 * 1024), null);
+        restarted.put(document(identifier(4), 1), start.plusSeconds(10));
+        assertEquals(List.of(identifier(1), identifier(3)), restarted.load(snapshot));
+
+        CachedDidDocument loaded = restarted.get(identifier(3));
+        assertTrue(loaded.getDocument().isImmutable());
+        assertEquals(document(identifier(3), 3).toJsonTree(), loaded.getDocument().toJsonTree());
+        assertEquals(start.plusSeconds(3), loaded.getConsensusTimestamp());
+        assertEquals(start.plusSeconds(10), restarted.get(identifier(4)).getConsensusTimestamp());
+        assertNull(restarted.get(identifier(2)));
+
+        assertTrue(restarted.load(tempDir.resolve("missing")).isEmpty());
+
+        Files.write(snapshot, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> restarted.load(snapshot));
+    }
+}
@@ -0,0 +1,86 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class MessageEnvelopeTest {
+
+    private final PrivateKey privateKey = PrivateKey.generateED25519();
+    private final PublicKey publicKey = privateKey.getPublicKey();
+    private final String identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(publicKey.toBytes()));
+
+    private HcsDidMessage message() throws Exception {
+        return new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://example.com"));
+    }
+
+    private static MessageEnvelope<HcsDidMessage> parse(byte[] contents) throws Exception {
+        return MessageEnvelope.fromMirrorResponse(
+                new SerializableMirrorConsensusResponse(Instant.EPOCH, contents, new byte[48], 1), HcsDidMessage.class);
+    }
+
+    /**
+     * Signs the message as another client would: with its own field order and whitespace, embedded verbatim.
+     */
+    private byte[] foreignEnvelope(HcsDidMessage message, PrivateKey signer) throws Exception {
+        String messageJson = "{ \"did\" : \"" + message.getDid() + "\",\n  \"operation\" : \"" + message.getOperation()
+                + "\",\n  \"event\" : \"" + message.getEventBase64() + "\",\n  \"timestamp\" : \"" + message.getTimestamp() + "\" }";
+        String signature = Base64.getEncoder().encodeToString(signer.sign(messageJson.getBytes(StandardCharsets.UTF_8)));
+        return ("{\"note\":\"sign\u00e9 \u00e0 part\", \"message\": " + messageJson + ", \"signature\":\"" + signature + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("verifies signatures over the message bytes as they were received")
+    void itVerifiesWireBytes() throws Exception {
+        MessageEnvelope<HcsDidMessage> envelope = parse(foreignEnvelope(message(), privateKey));
+
+        assertEquals(identifier, envelope.open().getDid());
+        assertTrue(new String(envelope.getSignedBytes(), StandardCharsets.UTF_8).startsWith("{ \"did\" : "));
+        assertTrue(new String(envelope.getSignedBytes(), StandardCharsets.UTF_8).endsWith(" }"));
+        assertTrue(envelope.isSignatureValid(e -> publicKey));
+        assertFalse(envelope.isSignatureValid(e -> PrivateKey.generateED25519().getPublicKey()));
+
+        // Re-serializing the parsed message yields different bytes, which the signature does not cover.
+        byte[] reserialized = envelope.open().toJSON().getBytes(StandardCharsets.UTF_8);
+        assertFalse(publicKey.verify(reserialized, Base64.getDecoder().decode(envelope.getSignature())));
+    }
+
+    @Test
+    @DisplayName("rejects envelopes whose message bytes were changed")
+    void itRejectsChangedBytes() throws Exception {
+        String contents = new String(foreignEnvelope(message(), privateKey), StandardCharsets.UTF_8);
+        MessageEnvelope<HcsDidMessage> envelope = parse(contents.replace("\"operation\" : ", "\"operation\":").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(DidMethodOperation.CREATE, envelope.open().getOperation());
+        assertFalse(envelope.isSignatureValid(e -> publicKey));
+    }
+
+    @Test
+    @DisplayName("keeps the signed bytes of envelopes signed locally")
+    void itKeepsLocallySignedBytes() throws Exception {
+        HcsDidMessage message = message();
+        MessageEnvelope<HcsDidMessage> local = new MessageEnvelope<>(message);
+        assertArrayEquals(message.toJSON().getBytes(StandardCharsets.UTF_8), local.getSignedBytes());
+
+        MessageEnvelope<HcsDidMessage> parsed = parse(local.sign(privateKey));
+        assertArrayEquals(local.getSignedBytes(), parsed.getSignedBytes());
+        assertTrue(local.isSignatureValid(e -> publicKey));
+        assertTrue(parsed.isSignatureValid(e -> publicKey));
+    }
+}
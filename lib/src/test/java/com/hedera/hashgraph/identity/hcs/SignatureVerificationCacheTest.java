@@ -0,0 +1,86 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class SignatureVerificationCacheTest {
+
+    private final PrivateKey privateKey = PrivateKey.generateED25519();
+    private final PublicKey publicKey = privateKey.getPublicKey();
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("caches valid and invalid results")
+    void itCachesResults() {
+        SignatureVerificationCache cache = new SignatureVerificationCache(10);
+        byte[] signature = privateKey.sign(bytes("message"));
+
+        assertTrue(cache.verify(publicKey, bytes("message"), signature));
+        assertTrue(cache.verify(publicKey, bytes("message"), signature));
+        assertFalse(cache.verify(publicKey, bytes("other"), signature));
+        assertFalse(cache.verify(publicKey, bytes("other"), signature));
+        assertFalse(cache.verify(PrivateKey.generateED25519().getPublicKey(), bytes("message"), signature));
+
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getStats().getHitCount());
+        assertEquals(3, cache.getStats().getMissCount());
+        assertEquals(0.4, cache.getStats().getHitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("evicts the least recently used results")
+    void itEvictsLeastRecentlyUsed() {
+        SignatureVerificationCache cache = new SignatureVerificationCache(2);
+        byte[][] messages = {bytes("a"), bytes("b"), bytes("c")};
+        byte[][] signatures = new byte[3][];
+        for (int i = 0; i < 3; i++) {
+            signatures[i] = privateKey.sign(messages[i]);
+        }
+
+        cache.verify(publicKey, messages[0], signatures[0]);
+        cache.verify(publicKey, messages[1], signatures[1]);
+        cache.verify(publicKey, messages[0], signatures[0]);
+        cache.verify(publicKey, messages[2], signatures[2]);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        long misses = cache.getStats().getMissCount();
+        cache.verify(publicKey, messages[0], signatures[0]);
+        assertEquals(misses, cache.getStats().getMissCount());
+        cache.verify(publicKey, messages[1], signatures[1]);
+        assertEquals(misses + 1, cache.getStats().getMissCount());
+    }
+
+    @Test
+    @DisplayName("is used by envelope signature checks")
+    void itVerifiesEnvelopes() throws Exception {
+        String identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(publicKey.toBytes()));
+        byte[] contents = new MessageEnvelope<>(new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://example.com"))).sign(privateKey);
+        MessageEnvelope<HcsDidMessage> envelope = MessageEnvelope.fromMirrorResponse(
+                new SerializableMirrorConsensusResponse(Instant.EPOCH, contents, new byte[48], 1), HcsDidMessage.class);
+
+        SignatureVerificationCache cache = new SignatureVerificationCache();
+        assertTrue(envelope.isSignatureValid(e -> publicKey, cache));
+        assertTrue(envelope.isSignatureValid(e -> publicKey, cache));
+        assertEquals(1, cache.getStats().getHitCount());
+    }
+}
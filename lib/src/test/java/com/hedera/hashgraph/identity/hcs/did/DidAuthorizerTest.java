@@ -0,0 +1,70 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.cache.TieredDidDocumentCache;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class DidAuthorizerTest {
+
+    private final PrivateKey ownerKey = PrivateKey.generateED25519();
+    private final PrivateKey agreementKey = PrivateKey.generateED25519();
+    private final String identifier = String.format("did:hedera:testnet:%s_0.0.29613327",
+            Hashing.Multibase.encode(ownerKey.getPublicKey().toBytes()));
+    private final byte[] payload = "payload".getBytes(StandardCharsets.UTF_8);
+
+    private DidDocument document() throws DidError {
+        return new DidDocument(identifier, new HcsDidMessage[]{
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, ownerKey.getPublicKey())),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier,
+                        new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-1", VerificationRelationshipType.KEY_AGREEMENT,
+                                VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier,
+                                agreementKey.getPublicKey())),
+        });
+    }
+
+    @Test
+    @DisplayName("verifies signatures of cached documents by key and relationship")
+    void itVerifiesCachedDocuments() throws Exception {
+        TieredDidDocumentCache cache = new TieredDidDocumentCache(10, null, null);
+        cache.put(document(), null);
+        DidAuthorizer authorizer = new DidAuthorizer(cache, null);
+
+        byte[] ownerSignature = ownerKey.sign(payload);
+        assertTrue(authorizer.verify(identifier, identifier + "#did-root-key", VerificationRelationshipType.AUTHENTICATION, payload, ownerSignature));
+        assertTrue(authorizer.verify(identifier, "#did-root-key", VerificationRelationshipType.ASSERTION_METHOD, payload, ownerSignature));
+        assertFalse(authorizer.verify(identifier, identifier + "#did-root-key", VerificationRelationshipType.KEY_AGREEMENT, payload, ownerSignature));
+        assertFalse(authorizer.verify(identifier, identifier + "#key-1", VerificationRelationshipType.KEY_AGREEMENT, payload, ownerSignature));
+
+        byte[] agreementSignature = agreementKey.sign(payload);
+        assertTrue(authorizer.verify(identifier, identifier + "#key-1", VerificationRelationshipType.KEY_AGREEMENT, payload, agreementSignature));
+        assertFalse(authorizer.verify(identifier, identifier + "#key-1", VerificationRelationshipType.AUTHENTICATION, payload, agreementSignature));
+        assertFalse(authorizer.verify(identifier, identifier + "#key-2", VerificationRelationshipType.KEY_AGREEMENT, payload, agreementSignature));
+        assertFalse(authorizer.verify(identifier, identifier + "#key-1", VerificationRelationshipType.KEY_AGREEMENT, payload, new byte[3]));
+    }
+
+    @Test
+    @DisplayName("resolves DIDs missing from the cache")
+    void itResolvesMissingDocuments() {
+        DidAuthorizer authorizer = new DidAuthorizer(new TieredDidDocumentCache(10, null, null), null);
+
+        DidError error = assertThrows(DidError.class, () -> authorizer.verify(
+                identifier, identifier + "#did-root-key", VerificationRelationshipType.AUTHENTICATION, payload, ownerKey.sign(payload)));
+        assertEquals("Client configuration is missing", error.getMessage());
+    }
+}
@@ -1,14 +1,37 @@
 package com.hedera.hashgraph.identity.hcs.did;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hedera.hashgraph.identity.DidError;
 import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.did.event.document.HcsDidDeleteEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidUpdateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidRevokeServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidUpdateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidCreateVerificationMethodEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidRevokeVerificationMethodEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.HcsDidUpdateVerificationMethodEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationMethod.VerificationMethodSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidRevokeVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidUpdateVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
 import com.hedera.hashgraph.identity.utils.Hashing;
 import com.hedera.hashgraph.sdk.Client;
 import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.TopicId;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -128,5 +151,54 @@ public class HcsDidMessageTest {
 
     }
 
+    @Test
+    void testStreamingDecodeMatchesTreeDecode() throws Exception {
+        PublicKey key = PrivateKey.generateED25519().getPublicKey();
+        List<HcsDidMessage> messages = List.of(
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier, new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, key)),
+                new HcsDidMessage(DidMethodOperation.UPDATE, identifier, new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", identifier, key)),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier, new HcsDidCreateServiceEvent(identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://example.com")),
+                new HcsDidMessage(DidMethodOperation.UPDATE, identifier, new HcsDidUpdateServiceEvent(identifier + "#service-1", ServiceType.DID_COMM_MESSAGING, "https://example.org")),
+                new HcsDidMessage(DidMethodOperation.REVOKE, identifier, new HcsDidRevokeServiceEvent(identifier + "#service-1")),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier, new HcsDidCreateVerificationMethodEvent(identifier + "#key-1",
+                        VerificationMethodSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key)),
+                new HcsDidMessage(DidMethodOperation.UPDATE, identifier, new HcsDidUpdateVerificationMethodEvent(identifier + "#key-1",
+                        VerificationMethodSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key)),
+                new HcsDidMessage(DidMethodOperation.REVOKE, identifier, new HcsDidRevokeVerificationMethodEvent(identifier + "#key-1")),
+                new HcsDidMessage(DidMethodOperation.CREATE, identifier, new HcsDidCreateVerificationRelationshipEvent(identifier + "#key-2",
+                        VerificationRelationshipType.AUTHENTICATION, VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key)),
+                new HcsDidMessage(DidMethodOperation.UPDATE, identifier, new HcsDidUpdateVerificationRelationshipEvent(identifier + "#key-2",
+                        VerificationRelationshipType.ASSERTION_METHOD, VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018, identifier, key)),
+                new HcsDidMessage(DidMethodOperation.REVOKE, identifier, new HcsDidRevokeVerificationRelationshipEvent(identifier + "#key-2",
+                        VerificationRelationshipType.AUTHENTICATION)),
+                new HcsDidMessage(DidMethodOperation.DELETE, identifier, new HcsDidDeleteEvent())
+        );
+
+        for (HcsDidMessage message : messages) {
+            byte[] contents = new MessageEnvelope<>(message).sign(privateKey);
+            HcsDidMessage streamed = MessageEnvelope.fromJson(contents, HcsDidMessage.class).open();
+            HcsDidMessage tree = HcsDidMessage.fromJsonTree(new ObjectMapper().readTree(contents).get("message"));
 
+            assertEquals(tree.getEvent().getClass(), streamed.getEvent().getClass());
+            assertEquals(message.getEvent().getClass(), streamed.getEvent().getClass());
+            assertEquals(tree.toJSON(), streamed.toJSON());
+            assertEquals(message.toJSON(), streamed.toJSON());
+        }
+    }
+
+    @Test
+    void testStreamingDecodeKeepsInvalidEventsAsNull() throws Exception {
+        String event = Hashing.Base64.encode("{\"Service\":{\"id\":\"invalid\"}}");
+        byte[] contents = ("{\"message\":{\"timestamp\":\"2022-04-01T10:00:00Z\",\"operation\":\"create\",\"did\":\"" + identifier
+                + "\",\"event\":\"" + event + "\"},\"signature\":\"c2ln\"}").getBytes(StandardCharsets.UTF_8);
+
+        MessageEnvelope<HcsDidMessage> envelope = MessageEnvelope.fromJson(contents, HcsDidMessage.class);
+
+        assertEquals(DidMethodOperation.CREATE, envelope.open().getOperation());
+        assertEquals(Instant.parse("2022-04-01T10:00:00Z"), envelope.open().getTimestamp());
+        assertNull(envelope.open().getEvent());
+        assertEquals("c2ln", envelope.getSignature());
+        assertThrows(JsonProcessingException.class, () -> MessageEnvelope.fromJson(
+                "{\"message\":{\"operation\":\"create\"}}".getBytes(StandardCharsets.UTF_8), HcsDidMessage.class));
+    }
 }
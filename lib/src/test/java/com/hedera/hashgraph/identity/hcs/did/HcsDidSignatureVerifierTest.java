@@ -0,0 +1,209 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentRejectionReason;
+import com.hedera.hashgraph.identity.DidDocumentRejectionReport;
+import com.hedera.hashgraph.identity.DidDocumentService;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import com.hedera.hashgraph.identity.hcs.did.event.HcsDidEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidUpdateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class HcsDidSignatureVerifierTest {
+
+    private final PrivateKey firstOwner = PrivateKey.generateED25519();
+    private final PrivateKey secondOwner = PrivateKey.generateED25519();
+    private final PrivateKey attacker = PrivateKey.generateED25519();
+    private final String identifier = String.format("did:hedera:testnet:%s_0.0.29613327",
+            Hashing.Multibase.encode(firstOwner.getPublicKey().toBytes()));
+    private final Instant start = Instant.parse("2022-04-01T10:00:00Z");
+    private final List<MessageEnvelope<HcsDidMessage>> envelopes = new ArrayList<>();
+
+    private void add(DidMethodOperation operation, HcsDidEvent event, PrivateKey signer) throws Exception {
+        long sequenceNumber = envelopes.size() + 1;
+        byte[] contents = new MessageEnvelope<>(new HcsDidMessage(operation, identifier, event)).sign(signer);
+        SerializableMirrorConsensusResponse response = new SerializableMirrorConsensusResponse(
+                start.plusSeconds(sequenceNumber), contents, new byte[48], sequenceNumber);
+        envelopes.add(MessageEnvelope.fromMirrorResponse(response, HcsDidMessage.class));
+    }
+
+    private void addService(int i, PrivateKey signer) throws Exception {
+        add(DidMethodOperation.CREATE,
+                new HcsDidCreateServiceEvent(identifier + "#service-" + i, ServiceType.LINKED_DOMAINS, "https://example.com/" + i), signer);
+    }
+
+    private static List<String> serviceIds(DidDocument document) {
+        return document.getServices().stream().map(DidDocumentService::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("applies only messages signed by the owner in effect")
+    void itVerifiesAgainstOwnerInEffect() throws Exception {
+        add(DidMethodOperation.CREATE, new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, firstOwner.getPublicKey()), firstOwner);
+        addService(1, firstOwner);
+        addService(2, secondOwner);
+        add(DidMethodOperation.UPDATE, new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", identifier, secondOwner.getPublicKey()), firstOwner);
+        addService(3, secondOwner);
+        addService(4, firstOwner);
+
+        DidDocumentRejectionReport report = new DidDocumentRejectionReport();
+        HcsDidSignatureVerifier verifier = new HcsDidSignatureVerifier();
+        DidDocument document = verifier.apply(new DidDocument(identifier, new HcsDidMessage[0]), envelopes, report);
+
+        assertArrayEquals(secondOwner.getPublicKey().toBytes(), document.getController().getPublicKey());
+        assertEquals(List.of(identifier + "#service-1", identifier + "#service-3"), serviceIds(document));
+        assertEquals(2, report.getCount(DidDocumentRejectionReason.INVALID_SIGNATURE));
+        assertEquals(0, verifier.getReverificationCount());
+
+        // Unverified replay applies everything.
+        DidDocument unverified = new DidDocument(identifier,
+                envelopes.stream().map(MessageEnvelope::open).toArray(HcsDidMessage[]::new));
+        assertEquals(4, unverified.getServices().size());
+    }
+
+    @Test
+    @DisplayName("verifies again after a rejected owner change")
+    void itReverifiesAfterRejectedOwnerChange() throws Exception {
+        PrivateKey thirdOwner = PrivateKey.generateED25519();
+        add(DidMethodOperation.CREATE, new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, firstOwner.getPublicKey()), firstOwner);
+        add(DidMethodOperation.UPDATE, new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", identifier, thirdOwner.getPublicKey()), attacker);
+        addService(1, thirdOwner);
+        addService(2, firstOwner);
+
+        DidDocumentRejectionReport report = new DidDocumentRejectionReport();
+        HcsDidSignatureVerifier verifier = new HcsDidSignatureVerifier(Runnable::run);
+        DidDocument cached = new DidDocument(identifier, new HcsDidMessage[]{envelopes.get(0).open()}).snapshot();
+        DidDocument document = verifier.apply(cached, envelopes.subList(1, envelopes.size()), report);
+
+        assertNotSame(cached, document);
+        assertTrue(cached.getServices().isEmpty());
+        assertArrayEquals(firstOwner.getPublicKey().toBytes(), document.getController().getPublicKey());
+        assertEquals(List.of(identifier + "#service-2"), serviceIds(document));
+        assertEquals(2, report.getCount(DidDocumentRejectionReason.INVALID_SIGNATURE));
+        assertEquals(2, verifier.getReverificationCount());
+    }
+
+    @Test
+    @DisplayName("rejects owner changes signed only by the key they install")
+    void itRejectsSelfSignedOwnerChange() throws Exception {
+        add(DidMethodOperation.CREATE, new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, firstOwner.getPublicKey()), firstOwner);
+        add(DidMethodOperation.UPDATE, new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", identifier, attacker.getPublicKey()), attacker);
+        add(DidMethodOperation.CREATE, new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, attacker.getPublicKey()), attacker);
+        addService(1, attacker);
+        addService(2, firstOwner);
+
+        DidDocumentRejectionReport report = new DidDocumentRejectionReport();
+        HcsDidSignatureVerifier verifier = new HcsDidSignatureVerifier(Runnable::run);
+        DidDocument document = verifier.apply(new DidDocument(identifier, new HcsDidMessage[0]), envelopes, report);
+
+        assertArrayEquals(firstOwner.getPublicKey().toBytes(), document.getController().getPublicKey());
+        assertEquals(List.of(identifier + "#service-2"), serviceIds(document));
+        assertEquals(3, report.getCount(DidDocumentRejectionReason.INVALID_SIGNATURE));
+    }
+
+    @Test
+    @DisplayName("accepts owner changes signed by the new key before the legacy cutoff")
+    void itAcceptsLegacyOwnerChanges() throws Exception {
+        add(DidMethodOperation.CREATE, new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, firstOwner.getPublicKey()), firstOwner);
+        // Signed the way earlier versions of HcsDid#changeOwner did.
+        add(DidMethodOperation.UPDATE, new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", identifier, secondOwner.getPublicKey()), secondOwner);
+        addService(1, secondOwner);
+        add(DidMethodOperation.UPDATE, new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", identifier, attacker.getPublicKey()), attacker);
+        addService(2, attacker);
+        addService(3, secondOwner);
+
+        // The cutoff lies between the legacy update and the attacker's one.
+        Instant cutoff = envelopes.get(2).getConsensusTimestamp();
+        DidDocumentRejectionReport report = new DidDocumentRejectionReport();
+        DidDocument document = new HcsDidSignatureVerifier(Runnable::run, null, cutoff)
+                .apply(new DidDocument(identifier, new HcsDidMessage[0]), envelopes, report);
+
+        assertArrayEquals(secondOwner.getPublicKey().toBytes(), document.getController().getPublicKey());
+        assertEquals(List.of(identifier + "#service-1", identifier + "#service-3"), serviceIds(document));
+        assertEquals(2, report.getCount(DidDocumentRejectionReason.INVALID_SIGNATURE));
+
+        // Without a cutoff the legacy update and everything signed by the second owner is rejected.
+        DidDocument strict = new HcsDidSignatureVerifier(Runnable::run)
+                .apply(new DidDocument(identifier, new HcsDidMessage[0]), envelopes, new DidDocumentRejectionReport());
+        assertArrayEquals(firstOwner.getPublicKey().toBytes(), strict.getController().getPublicKey());
+        assertTrue(strict.getServices().isEmpty());
+    }
+
+    @Test
+    @DisplayName("verifies streamed envelopes in batches and applies them in order")
+    void itVerifiesStreamedBatches() throws Exception {
+        add(DidMethodOperation.CREATE, new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, firstOwner.getPublicKey()), firstOwner);
+        for (int i = 1; i <= 10; i++) {
+            addService(i, i == 4 ? attacker : firstOwner);
+        }
+        add(DidMethodOperation.UPDATE, new HcsDidUpdateDidOwnerEvent(identifier + "#did-root-key", identifier, secondOwner.getPublicKey()), firstOwner);
+        addService(11, secondOwner);
+        addService(12, firstOwner);
+
+        DidDocumentRejectionReport report = new DidDocumentRejectionReport();
+        HcsDidVerificationStage stage = new HcsDidVerificationStage(
+                new DidDocument(identifier, new HcsDidMessage[0]), new HcsDidSignatureVerifier(), 3, report);
+        envelopes.forEach(stage);
+        DidDocument document = stage.flush().join();
+
+        assertSame(document, stage.getDocument());
+        assertTrue(document.isImmutable());
+        assertArrayEquals(secondOwner.getPublicKey().toBytes(), document.getController().getPublicKey());
+        assertEquals(10, document.getServices().size());
+        assertEquals(identifier + "#service-11", document.getServices().get(9).getId());
+        assertEquals(2, report.getCount(DidDocumentRejectionReason.INVALID_SIGNATURE));
+    }
+
+    @Test
+    @DisplayName("continues streamed batches after a failed one")
+    void itContinuesAfterFailedBatch() throws Exception {
+        add(DidMethodOperation.CREATE, new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, firstOwner.getPublicKey()), firstOwner);
+        addService(1, firstOwner);
+        addService(2, attacker);
+        addService(3, firstOwner);
+        addService(4, firstOwner);
+        addService(5, firstOwner);
+
+        IllegalStateException error = new IllegalStateException("listener failed");
+        HcsDidVerificationStage stage = new HcsDidVerificationStage(
+                new DidDocument(identifier, new HcsDidMessage[0]), new HcsDidSignatureVerifier(Runnable::run), 2,
+                (message, reason) -> {
+                    throw error;
+                });
+        envelopes.subList(0, 4).forEach(stage);
+        CompletableFuture<DidDocument> failed = stage.flush();
+        envelopes.subList(4, 6).forEach(stage);
+        DidDocument document = stage.flush().join();
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertSame(error, stage.getFailure().getCause());
+        assertEquals(List.of(identifier + "#service-1", identifier + "#service-4", identifier + "#service-5"), serviceIds(document));
+    }
+
+    @Test
+    @DisplayName("keeps the signature of parsed envelopes verifiable")
+    void itParsesSignatures() throws Exception {
+        addService(1, firstOwner);
+
+        assertTrue(envelopes.get(0).isSignatureValid(e -> firstOwner.getPublicKey()));
+        assertFalse(envelopes.get(0).isSignatureValid(e -> secondOwner.getPublicKey()));
+    }
+}
@@ -3,6 +3,8 @@ package com.hedera.hashgraph.identity.hcs.did.event;
 import com.hedera.hashgraph.identity.DidMethodOperation;
 import com.hedera.hashgraph.identity.hcs.did.event.document.HcsDidDeleteEvent;
 import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
 import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
 import com.hedera.hashgraph.identity.utils.Hashing;
 import org.junit.jupiter.api.Assertions;
@@ -76,5 +78,18 @@ public class HcsDidEventParserTest {
         Assertions.assertInstanceOf(HcsDidCreateDidOwnerEvent.class, result);
     }
 
+    @Test
+    void roundTripsNonAsciiEventsAsUtf8() throws Exception {
+        String identifier = "did:hedera:testnet:z6MkgUv5CvjRP6AsvEYqSRN7djB6p4zK9bcMQ93g5yK6Td7N_0.0.29613327";
+        HcsDidCreateServiceEvent event = new HcsDidCreateServiceEvent(
+                identifier + "#service-1", ServiceType.LINKED_DOMAINS, "https://b\u00fccher.example/\u00e9v\u00e9nement");
+
+        String eventBase64 = event.getBase64();
+        Assertions.assertEquals(Hashing.Base64.encode(event.toJsonTree().toString()), eventBase64);
 
+        HcsDidEvent result = HcsDidEventParser.fromBase64(DidMethodOperation.CREATE, eventBase64);
+        Assertions.assertInstanceOf(HcsDidCreateServiceEvent.class, result);
+        Assertions.assertEquals("https://b\u00fccher.example/\u00e9v\u00e9nement", ((HcsDidCreateServiceEvent) result).getServiceEndpoint());
+        Assertions.assertEquals(eventBase64, result.getBase64());
+    }
 }
@@ -0,0 +1,139 @@
+package com.hedera.hashgraph.identity.hcs.log;
+
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.threeten.bp.Instant;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class EventLogSegmentTest {
+
+    private final PrivateKey privateKey = PrivateKey.generateED25519();
+    private final String identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(privateKey.getPublicKey().toBytes()));
+
+    @TempDir
+    Path tempDir;
+
+    static List<SerializableMirrorConsensusResponse> messages(String identifier, PrivateKey privateKey, long fromSequence, int count) throws Exception {
+        List<SerializableMirrorConsensusResponse> result = new ArrayList<>();
+        Instant start = Instant.parse("2022-04-01T10:00:00Z");
+
+        for (int i = 0; i < count; i++) {
+            long sequenceNumber = fromSequence + i;
+            HcsDidMessage message = new HcsDidMessage(
+                    DidMethodOperation.CREATE,
+                    identifier,
+                    new HcsDidCreateServiceEvent(identifier + "#service-" + sequenceNumber, ServiceType.LINKED_DOMAINS, "https://example.com/" + sequenceNumber)
+            );
+            byte[] contents = new MessageEnvelope<>(message).sign(privateKey);
+            result.add(new SerializableMirrorConsensusResponse(start.plusSeconds(sequenceNumber), contents, new byte[48], sequenceNumber));
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("reads back every message by sequence number")
+    void itReadsEveryMessage() throws Exception {
+        List<SerializableMirrorConsensusResponse> entries = messages(identifier, privateKey, 1, 500);
+        Path file = tempDir.resolve("1.seg");
+
+        EventLogSegment written = EventLogSegment.write(file, entries, 4 * 1024);
+        EventLogSegment segment = EventLogSegment.open(file);
+
+        assertTrue(written.getBlockCount() > 1);
+        assertEquals(written.getBlockCount(), segment.getBlockCount());
+        assertEquals(1, segment.getFirstSequenceNumber());
+        assertEquals(500, segment.getLastSequenceNumber());
+
+        for (SerializableMirrorConsensusResponse expected : entries) {
+            SerializableMirrorConsensusResponse actual = segment.read(expected.sequenceNumber);
+            assertNotNull(actual);
+            assertEquals(expected.consensusTimestamp, actual.consensusTimestamp);
+            assertArrayEquals(expected.message, actual.message);
+            assertArrayEquals(expected.runningHash, actual.runningHash);
+        }
+
+        assertNull(segment.read(0));
+        assertNull(segment.read(501));
+
+        segment.close();
+        written.close();
+        assertThrows(java.io.IOException.class, () -> segment.read(1));
+    }
+
+    @Test
+    @DisplayName("stores messages compressed")
+    void itCompressesMessages() throws Exception {
+        List<SerializableMirrorConsensusResponse> entries = messages(identifier, privateKey, 1, 500);
+        Path file = tempDir.resolve("1.seg");
+
+        EventLogSegment.write(file, entries, EventLogSegment.DEFAULT_BLOCK_SIZE);
+
+        long rawSize = entries.stream().mapToLong(e -> e.message.length).sum();
+        assertTrue(Files.size(file) * 3 < rawSize, "segment should be at least 3x smaller than raw messages");
+    }
+
+    @Test
+    @DisplayName("scans messages from the given sequence number")
+    void itScansFromSequenceNumber() throws Exception {
+        List<SerializableMirrorConsensusResponse> entries = messages(identifier, privateKey, 10, 100);
+        EventLogSegment segment = EventLogSegment.write(tempDir.resolve("10.seg"), entries, 2 * 1024);
+
+        List<Long> sequenceNumbers = new ArrayList<>();
+        segment.scan(60, r -> sequenceNumbers.add(r.sequenceNumber));
+
+        assertEquals(50, sequenceNumbers.size());
+        assertEquals(60L, sequenceNumbers.get(0));
+        assertEquals(109L, sequenceNumbers.get(49));
+    }
+
+    @Test
+    @DisplayName("opened messages can be turned back into envelopes")
+    void itRestoresEnvelopes() throws Exception {
+        List<SerializableMirrorConsensusResponse> entries = messages(identifier, privateKey, 1, 3);
+        EventLogSegment segment = EventLogSegment.write(tempDir.resolve("1.seg"), entries, EventLogSegment.DEFAULT_BLOCK_SIZE);
+
+        MessageEnvelope<HcsDidMessage> envelope = MessageEnvelope.fromMirrorResponse(segment.read(2), HcsDidMessage.class);
+
+        assertEquals(identifier + "#service-2", envelope.open().getEvent().getId());
+        assertEquals(entries.get(1).consensusTimestamp, envelope.getConsensusTimestamp());
+    }
+
+    @Test
+    @DisplayName("rejects unordered and empty input")
+    void itRejectsInvalidInput() throws Exception {
+        List<SerializableMirrorConsensusResponse> entries = messages(identifier, privateKey, 1, 2);
+        List<SerializableMirrorConsensusResponse> reversed = List.of(entries.get(1), entries.get(0));
+
+        assertThrows(IllegalArgumentException.class, () -> EventLogSegment.write(tempDir.resolve("a.seg"), reversed, 1024));
+        assertThrows(IllegalArgumentException.class, () -> EventLogSegment.write(tempDir.resolve("b.seg"), List.of(), 1024));
+        assertFalse(Files.exists(tempDir.resolve("a.seg.tmp")), "partial segment should be deleted");
+        assertFalse(Files.exists(tempDir.resolve("a.seg")));
+    }
+
+    @Test
+    @DisplayName("refuses to open files that are not sealed segments")
+    void itRejectsInvalidFiles() throws Exception {
+        Path file = tempDir.resolve("broken.seg");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+
+        assertThrows(java.io.IOException.class, () -> EventLogSegment.open(file));
+    }
+}
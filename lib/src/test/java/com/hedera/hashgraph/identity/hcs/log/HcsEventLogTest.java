@@ -0,0 +1,76 @@
+package com.hedera.hashgraph.identity.hcs.log;
+
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class HcsEventLogTest {
+
+    private final PrivateKey privateKey = PrivateKey.generateED25519();
+    private final String identifier = String.format("did:hedera:testnet:%s_0.0.29613327", Hashing.Multibase.encode(privateKey.getPublicKey().toBytes()));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("seals full segments and serves reads across segments and pending messages")
+    void itSealsSegments() throws Exception {
+        HcsEventLog log = new HcsEventLog(tempDir, 40, 2 * 1024);
+        for (SerializableMirrorConsensusResponse response : EventLogSegmentTest.messages(identifier, privateKey, 1, 100)) {
+            assertTrue(log.append(response));
+        }
+
+        assertEquals(2, log.getSegments().size());
+        assertEquals(100, log.getLastSequenceNumber());
+
+        assertEquals(1, log.read(1).sequenceNumber);
+        assertEquals(55, log.read(55).sequenceNumber);
+        assertEquals(95, log.read(95).sequenceNumber);
+        assertNull(log.read(101));
+
+        List<Long> scanned = new ArrayList<>();
+        log.scan(30, r -> scanned.add(r.sequenceNumber));
+        assertEquals(71, scanned.size());
+        assertEquals(30L, scanned.get(0));
+        assertEquals(100L, scanned.get(70));
+    }
+
+    @Test
+    @DisplayName("ignores already stored messages")
+    void itIgnoresDuplicates() throws Exception {
+        HcsEventLog log = new HcsEventLog(tempDir);
+        List<SerializableMirrorConsensusResponse> messages = EventLogSegmentTest.messages(identifier, privateKey, 1, 3);
+
+        messages.forEach(m -> assertDoesNotThrow(() -> log.append(m)));
+
+        assertFalse(log.append(messages.get(1)));
+        assertEquals(3, log.getLastSequenceNumber());
+    }
+
+    @Test
+    @DisplayName("restores sealed history after reopening")
+    void itReopensLog() throws Exception {
+        try (HcsEventLog log = new HcsEventLog(tempDir, 25, 1024)) {
+            for (SerializableMirrorConsensusResponse response : EventLogSegmentTest.messages(identifier, privateKey, 1, 60)) {
+                log.append(response);
+            }
+        }
+
+        HcsEventLog reopened = new HcsEventLog(tempDir, 25, 1024);
+
+        assertEquals(3, reopened.getSegments().size());
+        assertEquals(60, reopened.getLastSequenceNumber());
+        assertEquals(42, reopened.read(42).sequenceNumber);
+    }
+}
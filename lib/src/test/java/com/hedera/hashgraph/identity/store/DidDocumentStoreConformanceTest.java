@@ -0,0 +1,250 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.owner.HcsDidCreateDidOwnerEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.HcsDidCreateVerificationRelationshipEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipSupportedKeyType;
+import com.hedera.hashgraph.identity.hcs.did.event.verificationRelationship.VerificationRelationshipType;
+import com.hedera.hashgraph.identity.utils.Hashing;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.threeten.bp.Instant;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link DidDocumentStore} implementation has to provide.
+ */
+public abstract class DidDocumentStoreConformanceTest {
+
+    @TempDir
+    Path tempDir;
+
+    DidDocumentStore store;
+
+    static String identifier(PrivateKey key, String topicId) {
+        return String.format("did:hedera:testnet:%s_%s", Hashing.Multibase.encode(key.getPublicKey().toBytes()), topicId);
+    }
+
+    static DidDocument document(String identifier, PrivateKey key, int services) throws DidError {
+        List<HcsDidMessage> messages = new ArrayList<>();
+        messages.add(new HcsDidMessage(
+                DidMethodOperation.CREATE,
+                identifier,
+                new HcsDidCreateDidOwnerEvent(identifier + "#did-root-key", identifier, key.getPublicKey())
+        ));
+        messages.add(new HcsDidMessage(
+                DidMethodOperation.CREATE,
+                identifier,
+                new HcsDidCreateVerificationRelationshipEvent(
+                        identifier + "#key-1",
+                        VerificationRelationshipType.AUTHENTICATION,
+                        VerificationRelationshipSupportedKeyType.ED25519_VERIFICATION_KEY_2018,
+                        identifier,
+                        key.getPublicKey()
+                )
+        ));
+        for (int i = 1; i <= services; i++) {
+            messages.add(new HcsDidMessage(
+                    DidMethodOperation.CREATE,
+                    identifier,
+                    new HcsDidCreateServiceEvent(identifier + "#service-" + i, ServiceType.LINKED_DOMAINS, "https://example.com/" + i)
+            ));
+        }
+
+        // distinct, increasing timestamps so that every document version has its own version ID
+        Instant timestamp = Instant.now();
+        for (HcsDidMessage message : messages) {
+            timestamp = timestamp.plusMillis(1);
+            setTimestamp(message, timestamp);
+        }
+
+        return new DidDocument(identifier, messages.toArray(HcsDidMessage[]::new));
+    }
+
+    private static void setTimestamp(HcsDidMessage message, Instant timestamp) {
+        try {
+            java.lang.reflect.Field field = HcsDidMessage.class.getDeclaredField("timestamp");
+            field.setAccessible(true);
+            field.set(message, timestamp);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected abstract DidDocumentStore createStore(Path directory) throws IOException;
+
+    protected boolean isPersistent() {
+        return true;
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = createStore(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("returns null for unknown DIDs")
+    void itReturnsNullForUnknownDid() throws Exception {
+        assertNull(store.get(identifier(PrivateKey.generateED25519(), "0.0.1")));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("stores and returns documents")
+    void itStoresDocuments() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        DidDocument document = document(identifier(key, "0.0.1"), key, 2);
+
+        store.put(document);
+        DidDocument stored = store.get(document.getId());
+
+        assertNotNull(stored);
+        assertEquals(document.toJsonTree(), stored.toJsonTree());
+        assertEquals(document.getVersionId(), stored.getVersionId());
+        assertEquals(document.getCreated(), stored.getCreated());
+        assertEquals(document.getUpdated(), stored.getUpdated());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("replaces documents on put")
+    void itReplacesDocuments() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        String did = identifier(key, "0.0.1");
+
+        store.put(document(did, key, 1));
+        DidDocument newer = document(did, key, 3);
+        store.put(newer);
+
+        assertEquals(newer.toJsonTree(), store.get(did).toJsonTree());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("compares version IDs before replacing documents")
+    void itComparesAndSets() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        String did = identifier(key, "0.0.1");
+        DidDocument first = document(did, key, 1);
+        DidDocument second = document(did, key, 2);
+
+        assertFalse(store.compareAndSet("unknown", first));
+        assertTrue(store.compareAndSet(null, first));
+        assertFalse(store.compareAndSet(null, second));
+        assertTrue(store.compareAndSet(first.getVersionId(), second));
+        assertFalse(store.compareAndSet(first.getVersionId(), first));
+
+        assertEquals(second.getVersionId(), store.get(did).getVersionId());
+    }
+
+    @Test
+    @DisplayName("removes documents")
+    void itRemovesDocuments() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        DidDocument document = document(identifier(key, "0.0.1"), key, 1);
+
+        store.put(document);
+
+        assertTrue(store.remove(document.getId()));
+        assertFalse(store.remove(document.getId()));
+        assertNull(store.get(document.getId()));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("scans documents by topic")
+    void itScansByTopic() throws Exception {
+        Set<String> topic1 = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            PrivateKey key = PrivateKey.generateED25519();
+            DidDocument document = document(identifier(key, "0.0.1"), key, 0);
+            store.put(document);
+            topic1.add(document.getId());
+
+            PrivateKey otherKey = PrivateKey.generateED25519();
+            store.put(document(identifier(otherKey, "0.0.12"), otherKey, 0));
+        }
+
+        Set<String> scanned = new HashSet<>();
+        store.scan(TopicId.fromString("0.0.1"), d -> scanned.add(d.getId()));
+
+        assertEquals(topic1, scanned);
+        assertEquals(10, store.size());
+    }
+
+    @Test
+    @DisplayName("keeps documents consistent under concurrent writers")
+    void itHandlesConcurrentCompareAndSet() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        String did = identifier(key, "0.0.1");
+        DidDocument initial = document(did, key, 0);
+        store.put(initial);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            DidDocument candidate = document(did, key, i + 1);
+            results.add(executor.submit(() -> store.compareAndSet(initial.getVersionId(), candidate)));
+        }
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            succeeded += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, succeeded);
+    }
+
+    @Test
+    @DisplayName("keeps documents after reopening")
+    void itPersistsDocuments() throws Exception {
+        if (!isPersistent()) {
+            return;
+        }
+
+        PrivateKey key = PrivateKey.generateED25519();
+        DidDocument document = document(identifier(key, "0.0.1"), key, 2);
+        PrivateKey removedKey = PrivateKey.generateED25519();
+        DidDocument removed = document(identifier(removedKey, "0.0.1"), removedKey, 0);
+
+        store.put(document);
+        store.put(removed);
+        store.remove(removed.getId());
+        store.close();
+
+        store = createStore(tempDir);
+
+        assertEquals(document.toJsonTree(), store.get(document.getId()).toJsonTree());
+        assertNull(store.get(removed.getId()));
+        assertEquals(1, store.size());
+    }
+}
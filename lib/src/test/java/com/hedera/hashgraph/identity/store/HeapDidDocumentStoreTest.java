@@ -0,0 +1,57 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidError;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.event.service.HcsDidCreateServiceEvent;
+import com.hedera.hashgraph.identity.hcs.did.event.service.ServiceType;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class HeapDidDocumentStoreTest extends DidDocumentStoreConformanceTest {
+
+    @Override
+    protected DidDocumentStore createStore(Path directory) {
+        return new HeapDidDocumentStore();
+    }
+
+    @Override
+    protected boolean isPersistent() {
+        return false;
+    }
+
+    @Test
+    @DisplayName("stores snapshots that callers cannot change")
+    void itStoresSnapshots() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        String did = identifier(key, "0.0.1");
+        DidDocument first = document(did, key, 1);
+        DidDocument second = document(did, key, 2);
+
+        store.put(first);
+        assertTrue(first.apply(service(did, 3)));
+        assertTrue(store.get(did).isImmutable());
+        assertEquals(1, store.get(did).getServices().size());
+
+        assertTrue(store.compareAndSet(store.get(did).getVersionId(), second));
+        assertTrue(second.apply(service(did, 3)));
+        assertTrue(store.get(did).isImmutable());
+        assertEquals(2, store.get(did).getServices().size());
+    }
+
+    private static HcsDidMessage service(String did, int index) throws DidError {
+        return new HcsDidMessage(
+                DidMethodOperation.CREATE,
+                did,
+                new HcsDidCreateServiceEvent(did + "#service-" + index, ServiceType.LINKED_DOMAINS, "https://example.com/" + index)
+        );
+    }
+}
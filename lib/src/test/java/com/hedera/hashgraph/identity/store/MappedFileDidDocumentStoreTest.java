@@ -0,0 +1,48 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentJsonCodec;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unit")
+public class MappedFileDidDocumentStoreTest extends DidDocumentStoreConformanceTest {
+
+    @Override
+    protected DidDocumentStore createStore(Path directory) throws IOException {
+        return new MappedFileDidDocumentStore(directory.resolve("documents.dat"), new DidDocumentJsonCodec(), 8 * 1024);
+    }
+
+    @Test
+    @DisplayName("grows and compacts the mapped file")
+    void itGrowsAndCompacts() throws Exception {
+        PrivateKey key = PrivateKey.generateED25519();
+        String did = identifier(key, "0.0.1");
+        DidDocument latest = null;
+
+        for (int i = 0; i < 50; i++) {
+            latest = document(did, key, i % 5);
+            store.put(latest);
+        }
+        for (int i = 0; i < 20; i++) {
+            PrivateKey otherKey = PrivateKey.generateED25519();
+            store.put(document(identifier(otherKey, "0.0.2"), otherKey, 3));
+        }
+
+        assertEquals(21, store.size());
+        assertEquals(latest.toJsonTree(), store.get(did).toJsonTree());
+
+        store.close();
+        store = createStore(tempDir);
+
+        assertEquals(21, store.size());
+        assertEquals(latest.toJsonTree(), store.get(did).toJsonTree());
+    }
+}
@@ -0,0 +1,60 @@
+package com.hedera.hashgraph.identity.store;
+
+import com.hedera.hashgraph.identity.DidDocument;
+import com.hedera.hashgraph.identity.DidDocumentCodec;
+import com.hedera.hashgraph.identity.DidDocumentJsonCodec;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class MvStoreDidDocumentStoreTest extends DidDocumentStoreConformanceTest {
+
+    @Override
+    protected DidDocumentStore createStore(Path directory) {
+        return new MvStoreDidDocumentStore(directory.resolve("documents.mv.db"));
+    }
+
+    @Test
+    @DisplayName("compares version IDs without decoding stored documents")
+    void itComparesWithoutDecoding() throws Exception {
+        AtomicInteger decoded = new AtomicInteger();
+        DidDocumentJsonCodec json = new DidDocumentJsonCodec();
+        DidDocumentCodec codec = new DidDocumentCodec() {
+            @Override
+            public byte[] encode(DidDocument document) throws IOException {
+                return json.encode(document);
+            }
+
+            @Override
+            public DidDocument decode(byte[] bytes) throws IOException {
+                decoded.incrementAndGet();
+                return json.decode(bytes);
+            }
+        };
+
+        PrivateKey key = PrivateKey.generateED25519();
+        String did = identifier(key, "0.0.1");
+        DidDocument first = document(did, key, 1);
+        DidDocument second = document(did, key, 2);
+
+        store.close();
+        store = new MvStoreDidDocumentStore(tempDir.resolve("counting.mv.db"), codec);
+        store.put(first);
+
+        assertFalse(store.compareAndSet("unknown", second));
+        assertTrue(store.compareAndSet(first.getVersionId(), second));
+        assertFalse(store.compareAndSet(first.getVersionId(), first));
+        assertEquals(0, decoded.get());
+
+        assertTrue(store.remove(did));
+        assertTrue(store.compareAndSet(null, first));
+    }
+}
@@ -0,0 +1,107 @@
+package com.hedera.hashgraph.identity.utils;
+
+import com.google.common.primitives.Bytes;
+import io.ipfs.multibase.Multibase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class Ed25519MultibaseTest {
+
+    private static final byte[] ED25519_PREFIX = {(byte) 0xed, 0x01};
+
+    private static String reference(byte[] publicKey) {
+        return Multibase.encode(Multibase.Base.Base58BTC, Bytes.concat(ED25519_PREFIX, publicKey));
+    }
+
+    private static byte[] randomKey(Random random, int i) {
+        byte[] key = new byte[Ed25519Multibase.PUBLIC_KEY_LENGTH];
+        random.nextBytes(key);
+        // Include keys with leading and trailing runs of zero and 0xff bytes.
+        switch (i % 4) {
+            case 1:
+                Arrays.fill(key, 0, random.nextInt(key.length + 1), (byte) 0);
+                break;
+            case 2:
+                Arrays.fill(key, random.nextInt(key.length + 1), key.length, (byte) 0xff);
+                break;
+            case 3:
+                Arrays.fill(key, random.nextInt(key.length + 1), key.length, (byte) 0);
+                break;
+            default:
+                break;
+        }
+        return key;
+    }
+
+    @Test
+    @DisplayName("encodes and decodes keys like the generic multibase codec")
+    void itMatchesGenericCodec() {
+        Random random = new Random(20221019);
+        byte[] encoded = new byte[Ed25519Multibase.ENCODED_LENGTH + 3];
+        byte[] decoded = new byte[Ed25519Multibase.PUBLIC_KEY_LENGTH + 5];
+
+        for (int i = 0; i < 2000; i++) {
+            byte[] key = randomKey(random, i);
+            String expected = reference(key);
+
+            assertEquals(expected, Ed25519Multibase.encode(key));
+            assertEquals(Ed25519Multibase.ENCODED_LENGTH, Ed25519Multibase.encode(key, 0, encoded, 3));
+            assertEquals(expected, new String(encoded, 3, Ed25519Multibase.ENCODED_LENGTH, StandardCharsets.US_ASCII));
+
+            assertEquals(Ed25519Multibase.PUBLIC_KEY_LENGTH, Ed25519Multibase.decode(expected, decoded, 5));
+            assertArrayEquals(key, Arrays.copyOfRange(decoded, 5, decoded.length));
+            assertArrayEquals(key, Hashing.Multibase.decode(expected));
+            assertEquals(expected, Hashing.Multibase.encode(key));
+        }
+    }
+
+    @Test
+    @DisplayName("encodes the boundary keys")
+    void itEncodesBoundaryKeys() {
+        byte[] zeros = new byte[Ed25519Multibase.PUBLIC_KEY_LENGTH];
+        byte[] ones = new byte[Ed25519Multibase.PUBLIC_KEY_LENGTH];
+        Arrays.fill(ones, (byte) 0xff);
+
+        for (byte[] key : new byte[][]{zeros, ones}) {
+            String encoded = Ed25519Multibase.encode(key);
+            assertEquals(reference(key), encoded);
+            assertTrue(encoded.startsWith("z6Mk"));
+            assertArrayEquals(key, Ed25519Multibase.decode(encoded));
+        }
+    }
+
+    @Test
+    @DisplayName("rejects strings that are not encoded ed25519 keys")
+    void itRejectsInvalidKeys() {
+        String valid = reference(new byte[Ed25519Multibase.PUBLIC_KEY_LENGTH]);
+
+        assertThrows(IllegalArgumentException.class, () -> Ed25519Multibase.decode(valid.substring(1)));
+        assertThrows(IllegalArgumentException.class, () -> Ed25519Multibase.decode("f" + valid.substring(1)));
+        assertThrows(IllegalArgumentException.class, () -> Ed25519Multibase.decode(valid.substring(0, 47) + "0"));
+        assertThrows(IllegalArgumentException.class, () -> Ed25519Multibase.decode("z1" + valid.substring(2)));
+        assertThrows(IllegalArgumentException.class, () -> Ed25519Multibase.decode("z" + "z".repeat(47)));
+        // Another multicodec with a key of the same length.
+        String secp256k1 = Multibase.encode(Multibase.Base.Base58BTC, Bytes.concat(new byte[]{(byte) 0xe7, 0x01}, new byte[32]));
+        assertEquals(Ed25519Multibase.ENCODED_LENGTH, secp256k1.length());
+        assertThrows(IllegalArgumentException.class, () -> Ed25519Multibase.decode(secp256k1));
+    }
+
+    @Test
+    @DisplayName("keeps the generic codec for other keys")
+    void itFallsBackForOtherKeys() {
+        byte[] compressed = new byte[33];
+        new Random(1).nextBytes(compressed);
+
+        String encoded = Hashing.Multibase.encode(compressed);
+        assertEquals(Multibase.encode(Multibase.Base.Base58BTC, Bytes.concat(ED25519_PREFIX, compressed)), encoded);
+        assertArrayEquals(compressed, Hashing.Multibase.decode(encoded));
+    }
+}
@@ -0,0 +1,202 @@
+package com.hedera.hashgraph.identity.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class PersistentLinkedHashMapTest {
+
+    /**
+     * Key with a configurable hash code, to force collisions.
+     */
+    static final class Key {
+        final String name;
+        final int hash;
+
+        Key(String name, int hash) {
+            this.name = name;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    @DisplayName("behaves like LinkedHashMap under random updates")
+    void itMatchesLinkedHashMap() {
+        Random random = new Random(42);
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        PersistentLinkedHashMap<String, Integer> map = PersistentLinkedHashMap.empty();
+
+        for (int i = 0; i < 20_000; i++) {
+            String key = "key-" + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(new ArrayList<>(expected.keySet()), map.keys());
+        assertEquals(new ArrayList<>(expected.values()), map.values());
+        List<String> expectedKeys = new ArrayList<>(expected.keySet());
+        for (int i = 0; i < expectedKeys.size(); i += 7) {
+            assertEquals(expectedKeys.get(i), map.keys().get(i));
+        }
+        for (String key : expected.keySet()) {
+            assertTrue(map.containsKey(key));
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertNull(map.get("missing"));
+    }
+
+    @Test
+    @DisplayName("keeps previous versions unchanged")
+    void itKeepsPreviousVersions() {
+        PersistentLinkedHashMap<String, String> first = PersistentLinkedHashMap.<String, String>empty().plus("a", "1").plus("b", "2");
+        PersistentLinkedHashMap<String, String> second = first.plus("a", "3").plus("c", "4").minus("b");
+
+        assertEquals(List.of("a", "b"), first.keys());
+        assertEquals(List.of("1", "2"), first.values());
+        assertEquals(List.of("a", "c"), second.keys());
+        assertEquals(List.of("3", "4"), second.values());
+
+        assertSame(second, second.minus("missing"));
+        assertSame(second, second.plus("a", second.get("a")));
+        assertTrue(second.minus("a").minus("c").isEmpty());
+    }
+
+    @Test
+    @DisplayName("returns read-only views that survive later updates")
+    void itReturnsViews() {
+        PersistentLinkedHashMap<Integer, Integer> map = PersistentLinkedHashMap.empty();
+        for (int i = 0; i < 100; i++) {
+            map = map.plus(i, i * 10);
+        }
+        List<Integer> values = map.values();
+
+        for (int i = 0; i < 99; i++) {
+            map = map.minus(i);
+        }
+        map = map.plus(0, 0);
+
+        assertEquals(100, values.size());
+        assertEquals(500, values.get(50));
+        assertEquals(List.of(99, 0), map.keys());
+        assertThrows(UnsupportedOperationException.class, () -> values.add(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> values.get(100));
+        assertTrue(PersistentLinkedHashMap.empty().values().isEmpty());
+    }
+
+    @Test
+    @DisplayName("handles keys with colliding hashes")
+    void itHandlesCollisions() {
+        PersistentLinkedHashMap<Key, Integer> map = PersistentLinkedHashMap.empty();
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // Two groups of colliding keys that share the lower hash bits.
+            keys.add(new Key("k" + i, i % 2 == 0 ? 0x1234 : 0x1234 | (1 << 30)));
+            map = map.plus(keys.get(i), i);
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, map.get(keys.get(i)));
+        }
+        assertEquals(keys, map.keys());
+
+        for (int i = 0; i < keys.size(); i += 3) {
+            map = map.minus(keys.get(i));
+        }
+        assertEquals(6, map.size());
+        assertNull(map.get(keys.get(3)));
+        assertEquals(4, map.get(keys.get(4)));
+    }
+
+    @Test
+    @DisplayName("reports differences between versions")
+    void itDiffsVersions() {
+        Random random = new Random(7);
+        PersistentLinkedHashMap<Object, Integer> base = PersistentLinkedHashMap.empty();
+        for (int i = 0; i < 5_000; i++) {
+            base = base.plus("key-" + i, i);
+        }
+        for (int i = 0; i < 6; i++) {
+            base = base.plus(new Key("c" + i, 0x777), i);
+        }
+
+        PersistentLinkedHashMap<Object, Integer> next = base;
+        Map<Object, Integer> expected = new LinkedHashMap<>();
+        base.forEach(expected::put);
+        for (int i = 0; i < 200; i++) {
+            Object key = random.nextInt(10) == 0 ? new Key("c" + random.nextInt(8), 0x777) : "key-" + random.nextInt(6_000);
+            if (random.nextBoolean()) {
+                next = next.minus(key);
+                expected.remove(key);
+            } else {
+                next = next.plus(key, -i);
+                expected.put(key, -i);
+            }
+        }
+
+        Map<Object, Integer> actual = new HashMap<>();
+        base.forEach(actual::put);
+        base.diff(next, new PersistentLinkedHashMap.DiffListener<Object, Integer>() {
+            @Override
+            public void onAdded(Object key, Integer value) {
+                assertNull(actual.put(key, value));
+            }
+
+            @Override
+            public void onRemoved(Object key, Integer value) {
+                assertEquals(value, actual.remove(key));
+            }
+
+            @Override
+            public void onUpdated(Object key, Integer oldValue, Integer newValue) {
+                assertNotEquals(oldValue, newValue);
+                assertEquals(oldValue, actual.put(key, newValue));
+            }
+        });
+        assertEquals(expected, actual);
+
+        List<Object> changes = new ArrayList<>();
+        next.diff(next, new PersistentLinkedHashMap.DiffListener<Object, Integer>() {
+            @Override
+            public void onAdded(Object key, Integer value) {
+                changes.add(key);
+            }
+
+            @Override
+            public void onRemoved(Object key, Integer value) {
+                changes.add(key);
+            }
+
+            @Override
+            public void onUpdated(Object key, Integer oldValue, Integer newValue) {
+                changes.add(key);
+            }
+        });
+        assertTrue(changes.isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.hedera.hashgraph.identity.utils;
+
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class PublicKeyCacheTest {
+
+    @Test
+    @DisplayName("interns decoded keys and their encodings")
+    void itInternsKeys() {
+        PublicKey publicKey = PrivateKey.generateED25519().getPublicKey();
+        String multibase = Hashing.Multibase.encode(publicKey.toBytes());
+        PublicKeyCache cache = new PublicKeyCache(10);
+
+        PublicKey decoded = cache.decode(multibase);
+        assertEquals(publicKey, decoded);
+        assertSame(decoded, cache.decode(multibase));
+
+        String encoded = cache.encode(publicKey);
+        assertEquals(multibase, encoded);
+        assertSame(encoded, cache.encode(publicKey.toBytes().clone()));
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getStats().getHitCount());
+        assertEquals(2, cache.getStats().getMissCount());
+    }
+
+    @Test
+    @DisplayName("evicts the least recently used keys")
+    void itEvictsLeastRecentlyUsed() {
+        PublicKeyCache cache = new PublicKeyCache(2);
+        String[] keys = new String[3];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Hashing.Multibase.encode(PrivateKey.generateED25519().getPublicKey().toBytes());
+        }
+
+        PublicKey first = cache.decode(keys[0]);
+        cache.decode(keys[1]);
+        assertSame(first, cache.decode(keys[0]));
+        cache.decode(keys[2]);
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.decode(keys[0]));
+        long misses = cache.getStats().getMissCount();
+        cache.decode(keys[1]);
+        assertEquals(misses + 1, cache.getStats().getMissCount());
+    }
+
+    @Test
+    @DisplayName("does not cache invalid keys")
+    void itRejectsInvalidKeys() {
+        PublicKeyCache cache = new PublicKeyCache(10);
+
+        assertThrows(RuntimeException.class, () -> cache.decode("zinvalid0"));
+        assertEquals(0, cache.size());
+    }
+}